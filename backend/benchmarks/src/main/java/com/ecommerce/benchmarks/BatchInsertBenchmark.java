@@ -0,0 +1,116 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.product.model.Product;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Insert throughput with and without JDBC batching
+ *
+ * - insertLargeOrder: one order with 50 lines (what createOrder saves)
+ * - importProducts:   1000 new products in one transaction (bulk import)
+ *
+ * Uses the real entity mappings (sequence IDs, pooled allocation of 50)
+ * on an in-memory H2 database through plain Hibernate (InMemorySessionFactory),
+ * no Spring context.
+ * batchSize = 1 is one round trip per row, which is what IDENTITY IDs
+ * forced before; batchSize = 50 is the services' configuration.
+ * H2 runs in-process, so a networked database gains much more from
+ * batching than the numbers here show.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchInsertBenchmark {
+
+    private static final int ORDER_LINES = 50;
+    private static final int PRODUCTS_PER_IMPORT = 1000;
+
+    // hibernate.jdbc.batch_size
+    @Param({"1", "50"})
+    private int batchSize;
+
+    private SessionFactory orders;
+    private SessionFactory products;
+
+    @Setup
+    public void setUp() {
+        orders = sessionFactory("orders_" + batchSize, Order.class, OrderItem.class);
+        products = sessionFactory("products_" + batchSize, Product.class);
+    }
+
+    // Keep the in-memory tables from growing for the whole run
+    @TearDown(Level.Iteration)
+    public void truncate() {
+        orders.inTransaction(session -> {
+            session.createMutationQuery("DELETE FROM OrderItem").executeUpdate();
+            session.createMutationQuery("DELETE FROM Order").executeUpdate();
+        });
+        products.inTransaction(session -> session.createMutationQuery("DELETE FROM Product").executeUpdate());
+    }
+
+    @TearDown
+    public void close() {
+        orders.close();
+        products.close();
+    }
+
+    @Benchmark
+    public Long insertLargeOrder() {
+        Order order = Order.builder()
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .shippingAddress("123 Main St")
+                .totalAmount(new BigDecimal("500.00"))
+                .build();
+        for (int i = 0; i < ORDER_LINES; i++) {
+            order.addItem(OrderItem.builder()
+                    .productId((long) i + 1)
+                    .productName("Product " + i)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+        orders.inTransaction(session -> session.persist(order));
+        return order.getId();
+    }
+
+    @Benchmark
+    public int importProducts() {
+        products.inTransaction(session -> {
+            for (int i = 0; i < PRODUCTS_PER_IMPORT; i++) {
+                session.persist(Product.builder()
+                        .name("Imported product " + i)
+                        .price(new BigDecimal("19.99"))
+                        .stockQuantity(100)
+                        .category("Imports")
+                        .build());
+                // Flush + clear per batch: bounded memory, full batches
+                if ((i + 1) % 50 == 0) {
+                    session.flush();
+                    session.clear();
+                }
+            }
+        });
+        return PRODUCTS_PER_IMPORT;
+    }
+
+    private SessionFactory sessionFactory(String database, Class<?>... entities) {
+        return InMemorySessionFactory.create(database, Map.of(
+                AvailableSettings.STATEMENT_BATCH_SIZE, String.valueOf(batchSize),
+                AvailableSettings.ORDER_INSERTS, "true",
+                AvailableSettings.ORDER_UPDATES, "true"), entities);
+    }
+}
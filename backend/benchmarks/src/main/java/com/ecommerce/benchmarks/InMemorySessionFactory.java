@@ -0,0 +1,49 @@
+package com.ecommerce.benchmarks;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.model.naming.CamelCaseToUnderscoresNamingStrategy;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.jpa.HibernatePersistenceProvider;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A Hibernate SessionFactory over an in-memory H2 database, for the
+ * benchmarks that touch a database
+ *
+ * Bootstrapped through JPA (like the services, minus Spring Boot) so the
+ * standard jakarta.persistence.jdbc.* settings apply - Hibernate's native
+ * Configuration only reads the deprecated hibernate.connection.* ones.
+ * Tables are created from the real entity mappings, with Spring Boot's
+ * column naming (stockQuantity → stock_quantity).
+ */
+final class InMemorySessionFactory {
+
+    private InMemorySessionFactory() {
+    }
+
+    static SessionFactory create(String database, Map<String, Object> settings, Class<?>... entities) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put(AvailableSettings.JAKARTA_JDBC_URL, "jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1");
+        properties.put(AvailableSettings.JAKARTA_JDBC_USER, "sa");
+        properties.put(AvailableSettings.JAKARTA_JDBC_PASSWORD, "");
+        properties.put(AvailableSettings.HBM2DDL_AUTO, "create-drop");
+        properties.put(AvailableSettings.JAKARTA_VALIDATION_MODE, "none");
+        properties.put(AvailableSettings.PHYSICAL_NAMING_STRATEGY, new CamelCaseToUnderscoresNamingStrategy());
+        properties.putAll(settings);
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setPersistenceUnitName(database);
+        factory.setPersistenceProvider(new HibernatePersistenceProvider());
+        factory.setManagedTypes(PersistenceManagedTypes.of(
+                Arrays.stream(entities).map(Class::getName).toList(), List.of()));
+        factory.setJpaPropertyMap(properties);
+        factory.afterPropertiesSet();
+        return factory.getObject().unwrap(SessionFactory.class);
+    }
+}
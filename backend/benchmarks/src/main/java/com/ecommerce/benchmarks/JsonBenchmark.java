@@ -0,0 +1,147 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.product.dto.ProductDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson (de)serialization of the DTOs that cross the network
+ *
+ * - ProductDto:   Product Service responses (and Order Service's batch lookups)
+ * - OrderRequest: body of POST /api/orders
+ * - OrderDto:     every Order Service response
+ *
+ * Readers/writers are created once, like Spring MVC does with its ObjectMapper.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonBenchmark {
+
+    // Order lines in OrderRequest / OrderDto
+    @Param({"3", "40"})
+    private int lines;
+
+    private ObjectWriter productWriter;
+    private ObjectReader productReader;
+    private ObjectWriter orderRequestWriter;
+    private ObjectReader orderRequestReader;
+    private ObjectWriter orderWriter;
+    private ObjectReader orderReader;
+
+    private ProductDto product;
+    private OrderRequest orderRequest;
+    private OrderDto order;
+
+    private byte[] productJson;
+    private byte[] orderRequestJson;
+    private byte[] orderJson;
+
+    @Setup
+    public void setUp() throws Exception {
+        // Same modules Spring Boot registers (java.time support)
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        productWriter = objectMapper.writerFor(ProductDto.class);
+        productReader = objectMapper.readerFor(ProductDto.class);
+        orderRequestWriter = objectMapper.writerFor(OrderRequest.class);
+        orderRequestReader = objectMapper.readerFor(OrderRequest.class);
+        orderWriter = objectMapper.writerFor(OrderDto.class);
+        orderReader = objectMapper.readerFor(OrderDto.class);
+
+        product = ProductDto.builder()
+                .id(1L)
+                .name("Wireless Headphones")
+                .description("Noise-cancelling over-ear headphones")
+                .price(new BigDecimal("199.99"))
+                .stockQuantity(50)
+                .category("Electronics")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        List<OrderRequest.OrderItemRequest> itemRequests = new ArrayList<>(lines);
+        List<OrderDto.OrderItemDto> itemDtos = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            BigDecimal unitPrice = new BigDecimal("9.99").add(BigDecimal.valueOf(i));
+            itemRequests.add(OrderRequest.OrderItemRequest.builder()
+                    .productId((long) i + 1)
+                    .quantity(2)
+                    .build());
+            itemDtos.add(OrderDto.OrderItemDto.builder()
+                    .id((long) i + 1)
+                    .productId((long) i + 1)
+                    .productName("Product " + (i + 1))
+                    .quantity(2)
+                    .unitPrice(unitPrice)
+                    .subtotal(unitPrice.multiply(BigDecimal.valueOf(2)))
+                    .build());
+        }
+
+        orderRequest = OrderRequest.builder()
+                .userId(1L)
+                .shippingAddress("123 Main St")
+                .items(itemRequests)
+                .build();
+
+        order = OrderDto.builder()
+                .id(1L)
+                .userId(1L)
+                .userEmail("john@example.com")
+                .userName("John Doe")
+                .items(itemDtos)
+                .totalAmount(new BigDecimal("1234.56"))
+                .status(OrderStatus.PENDING)
+                .shippingAddress("123 Main St")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        productJson = productWriter.writeValueAsBytes(product);
+        orderRequestJson = orderRequestWriter.writeValueAsBytes(orderRequest);
+        orderJson = orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public byte[] serializeProduct() throws Exception {
+        return productWriter.writeValueAsBytes(product);
+    }
+
+    @Benchmark
+    public ProductDto deserializeProduct() throws Exception {
+        return productReader.readValue(productJson);
+    }
+
+    @Benchmark
+    public byte[] serializeOrderRequest() throws Exception {
+        return orderRequestWriter.writeValueAsBytes(orderRequest);
+    }
+
+    @Benchmark
+    public OrderRequest deserializeOrderRequest() throws Exception {
+        return orderRequestReader.readValue(orderRequestJson);
+    }
+
+    @Benchmark
+    public byte[] serializeOrder() throws Exception {
+        return orderWriter.writeValueAsBytes(order);
+    }
+
+    @Benchmark
+    public OrderDto deserializeOrder() throws Exception {
+        return orderReader.readValue(orderJson);
+    }
+}
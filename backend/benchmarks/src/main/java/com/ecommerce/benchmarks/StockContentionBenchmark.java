@@ -0,0 +1,187 @@
+package com.ecommerce.benchmarks;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.service.OptimisticLockRetry;
+import jakarta.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.BenchmarkParams;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaDialect;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 16 threads changing the stock of ONE hot product
+ *
+ * - readModifyWrite: SELECT stock, then UPDATE stock = read + 1 - what
+ *   updateStock did before Product had a @Version. Fast, and wrong:
+ *   concurrent writers overwrite each other
+ * - versionedWithRetry: the same read-modify-write through JPA on the
+ *   versioned entity, run by OptimisticLockRetry (what updateStock does now)
+ * - atomicUpdate: one UPDATE stock = stock + 1 (what reserveStock does) -
+ *   the upper bound, no read in Java at all
+ *
+ * Correctness: after every iteration the stock is compared with the number
+ * of increments made, and the lost updates are printed. versionedWithRetry
+ * fails the run if it ever loses one. The "attempts" counter shows how
+ * many transactions each increment needed.
+ *
+ * Expect versionedWithRetry far below the other two on a row this hot
+ * (every loser pays a rollback plus a backoff sleep): it is the safe
+ * fallback for the entity path, while the hot checkout path stays on
+ * atomic conditional UPDATEs (reserveStock).
+ *
+ * In-memory H2 on plain Hibernate (InMemorySessionFactory) + Spring's
+ * JpaTransactionManager, no Spring context.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(16)
+@State(Scope.Benchmark)
+public class StockContentionBenchmark {
+
+    private static final String DATABASE = "contention";
+    private static final String URL = "jdbc:h2:mem:" + DATABASE + ";DB_CLOSE_DELAY=-1";
+
+    private SessionFactory sessionFactory;
+    private EntityManager entityManager;
+    private OptimisticLockRetry retry;
+    private Long productId;
+
+    // Increments that reported success during the current iteration
+    private final AtomicLong increments = new AtomicLong();
+    private int stockAtStart;
+    private String running;
+
+    // Transactions per increment, reported next to the throughput
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Attempts {
+        public long attempts;
+    }
+
+    @State(Scope.Thread)
+    public static class JdbcConnection {
+        Connection connection;
+
+        @Setup
+        public void open() throws SQLException {
+            connection = DriverManager.getConnection(URL, "sa", "");
+        }
+
+        @TearDown
+        public void close() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        sessionFactory = InMemorySessionFactory.create(DATABASE,
+                Map.of(AvailableSettings.POOL_SIZE, "32"), Product.class);
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(sessionFactory);
+        transactionManager.setJpaDialect(new HibernateJpaDialect());
+        entityManager = SharedEntityManagerCreator.createSharedEntityManager(sessionFactory);
+        // Generous attempts: with 16 writers on one row, most first attempts lose
+        retry = new OptimisticLockRetry(transactionManager, 1000, Duration.ofMillis(1), Duration.ofMillis(20));
+
+        productId = sessionFactory.fromTransaction(session -> {
+            Product product = Product.builder()
+                    .name("Hot product")
+                    .price(new BigDecimal("9.99"))
+                    .stockQuantity(0)
+                    .category("Hot")
+                    .build();
+            session.persist(product);
+            return product.getId();
+        });
+    }
+
+    @Setup(Level.Iteration)
+    public void startCounting(BenchmarkParams params) {
+        running = params.getBenchmark().substring(params.getBenchmark().lastIndexOf('.') + 1);
+        increments.set(0);
+        stockAtStart = stock();
+    }
+
+    @TearDown(Level.Iteration)
+    public void checkNoLostUpdates() {
+        long lost = increments.get() - (stock() - stockAtStart);
+        System.out.printf("%n%s: %d increments, %d lost%n", running, increments.get(), lost);
+        if (lost != 0 && running.equals("versionedWithRetry")) {
+            throw new IllegalStateException(lost + " updates lost despite the version check");
+        }
+    }
+
+    @TearDown
+    public void close() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public void readModifyWrite(JdbcConnection jdbc, Attempts counter) throws SQLException {
+        counter.attempts++;
+        int stock;
+        try (PreparedStatement select = jdbc.connection.prepareStatement(
+                "SELECT stock_quantity FROM products WHERE id = ?")) {
+            select.setLong(1, productId);
+            try (ResultSet rs = select.executeQuery()) {
+                rs.next();
+                stock = rs.getInt(1);
+            }
+        }
+        try (PreparedStatement update = jdbc.connection.prepareStatement(
+                "UPDATE products SET stock_quantity = ? WHERE id = ?")) {
+            update.setInt(1, stock + 1);
+            update.setLong(2, productId);
+            update.executeUpdate();
+        }
+        increments.incrementAndGet();
+    }
+
+    @Benchmark
+    public Integer versionedWithRetry(Attempts counter) {
+        Integer stock = retry.inTransaction("increment", () -> {
+            counter.attempts++;
+            Product product = entityManager.find(Product.class, productId);
+            product.setStockQuantity(product.getStockQuantity() + 1);
+            return product.getStockQuantity();
+        });
+        increments.incrementAndGet();
+        return stock;
+    }
+
+    @Benchmark
+    public void atomicUpdate(JdbcConnection jdbc, Attempts counter) throws SQLException {
+        counter.attempts++;
+        try (PreparedStatement update = jdbc.connection.prepareStatement(
+                "UPDATE products SET stock_quantity = stock_quantity + 1, version = version + 1 WHERE id = ?")) {
+            update.setLong(1, productId);
+            update.executeUpdate();
+        }
+        increments.incrementAndGet();
+    }
+
+    private int stock() {
+        return sessionFactory.fromTransaction(session -> session.createNativeQuery(
+                "SELECT stock_quantity FROM products WHERE id = :id", Integer.class)
+                .setParameter("id", productId)
+                .getSingleResult());
+    }
+}
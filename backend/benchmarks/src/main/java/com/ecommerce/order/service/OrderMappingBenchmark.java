@@ -0,0 +1,97 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.UserDto;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService hot paths that don't leave the JVM:
+ * - mapToDto: every order returned by every endpoint
+ * - subtotal/totalAmount: the BigDecimal pricing done in createOrder
+ *
+ * Lives in OrderService's package because these methods are package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OrderMappingBenchmark {
+
+    // Order lines per order: a typical cart and a large one
+    @Param({"3", "40"})
+    private int lines;
+
+    private OrderService orderService;
+    private Order order;
+    private UserDto user;
+    private BigDecimal[] unitPrices;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        // Mapping and pricing use none of the collaborators
+        orderService = new OrderService(null, null, null, null, null, null, null, null, null, null);
+
+        user = UserDto.builder()
+                .id(1L)
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+
+        order = Order.builder()
+                .id(1L)
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .shippingAddress("123 Main St")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+
+        unitPrices = new BigDecimal[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            unitPrices[i] = new BigDecimal("9.99").add(BigDecimal.valueOf(i));
+            quantities[i] = 1 + i % 5;
+            order.addItem(OrderItem.builder()
+                    .id((long) i + 1)
+                    .productId((long) i + 1)
+                    .productName("Product " + (i + 1))
+                    .quantity(quantities[i])
+                    .unitPrice(unitPrices[i])
+                    .subtotal(OrderService.subtotal(unitPrices[i], quantities[i]))
+                    .build());
+        }
+        order.setTotalAmount(OrderService.totalAmount(order.getItems()));
+    }
+
+    @Benchmark
+    public OrderDto mapToDto() {
+        return orderService.mapToDto(order, user);
+    }
+
+    /**
+     * Same arithmetic as createOrder: one multiply per line, then the sum
+     */
+    @Benchmark
+    public BigDecimal orderTotal() {
+        List<OrderItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            items.add(OrderItem.builder()
+                    .subtotal(OrderService.subtotal(unitPrices[i], quantities[i]))
+                    .build());
+        }
+        return OrderService.totalAmount(items);
+    }
+}
@@ -0,0 +1,55 @@
+package com.ecommerce.product.search;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductSuggester.suggest - /api/products/suggest, called on every keystroke
+ *
+ * 1,000,000 generated product names; a one-letter prefix matches a large part
+ * of the catalog, a longer one only a few products.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ProductSuggesterBenchmark {
+
+    private static final String[] WORDS = {
+            "wireless", "bluetooth", "usb", "charger", "cable", "case", "phone", "laptop",
+            "stand", "mouse", "keyboard", "headphones", "speaker", "monitor", "lamp", "desk",
+            "pro", "max", "mini", "ultra", "black", "white", "steel", "leather"};
+
+    @Param({"1000000"})
+    private int products;
+
+    @Param({"w", "wire", "usb c", "leather case"})
+    private String prefix;
+
+    private ProductSuggester suggester;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(42);
+        List<ProductSuggester.Suggestion> suggestions = new ArrayList<>(products);
+        for (long id = 1; id <= products; id++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " "
+                    + WORDS[random.nextInt(WORDS.length)] + " " + id;
+            suggestions.add(new ProductSuggester.Suggestion(id, name, random.nextInt(10_000)));
+        }
+        suggester = new ProductSuggester(1000);
+        suggester.rebuild(suggestions::stream);
+    }
+
+    @Benchmark
+    public List<ProductSuggester.Suggestion> suggestTop10() {
+        return suggester.suggest(prefix, 10);
+    }
+}
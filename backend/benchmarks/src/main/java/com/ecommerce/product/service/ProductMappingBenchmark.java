@@ -0,0 +1,61 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.model.Product;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ProductService.mapToDto - runs for every product in every list, page and export
+ *
+ * Lives in ProductService's package because mapToDto is package-private.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ProductMappingBenchmark {
+
+    // 1 = single product lookup, 100 = a full page
+    @Param({"1", "100"})
+    private int products;
+
+    private ProductService productService;
+    private List<Product> entities;
+
+    @Setup
+    public void setUp() {
+        // mapToDto uses none of the collaborators
+        productService = new ProductService(null, null, null, null, null, null, null, null, null);
+
+        entities = new ArrayList<>(products);
+        for (long i = 1; i <= products; i++) {
+            entities.add(Product.builder()
+                    .id(i)
+                    .name("Product " + i)
+                    .description("Description of product " + i)
+                    .price(new BigDecimal("19.99").add(BigDecimal.valueOf(i)))
+                    .stockQuantity(100)
+                    .category("Electronics")
+                    .createdAt(LocalDateTime.now())
+                    .updatedAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void mapToDto(Blackhole blackhole) {
+        for (Product product : entities) {
+            ProductDto dto = productService.mapToDto(product);
+            blackhole.consume(dto);
+        }
+    }
+}
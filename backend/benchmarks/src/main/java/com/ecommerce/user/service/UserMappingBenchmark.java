@@ -0,0 +1,49 @@
+package com.ecommerce.user.service;
+
+import com.ecommerce.user.dto.UserDto;
+import com.ecommerce.user.model.User;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserService.mapToDto - runs for every user returned by User Service
+ * (including each batch lookup made by Order Service)
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserMappingBenchmark {
+
+    private UserService userService;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        // mapToDto doesn't touch the repository
+        userService = new UserService(null);
+
+        user = User.builder()
+                .id(1L)
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .phone("555-0100")
+                .address("123 Main St")
+                .city("Springfield")
+                .postalCode("12345")
+                .country("USA")
+                .createdAt(LocalDateTime.now())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+
+    @Benchmark
+    public UserDto mapToDto() {
+        return userService.mapToDto(user);
+    }
+}
@@ -0,0 +1,92 @@
+// ╔═══════════════════════════════════════════════════════════════════════════╗
+// ║                  CHECKOUT LOAD TEST (k6 - https://k6.io)                  ║
+// ╠═══════════════════════════════════════════════════════════════════════════╣
+// ║  1000 virtual users place orders through the API Gateway as fast as      ║
+// ║  they can. Every checkout costs Order Service one User Service call,     ║
+// ║  one product batch call and one stock reservation call.                  ║
+// ║                                                                           ║
+// ║  k6 run backend/load-test/checkout.js                                     ║
+// ║  k6 run -e VUS=2000 -e DURATION=2m -e BASE_URL=http://host:8080 ...       ║
+// ║                                                                           ║
+// ║  Compare the "http_req_duration" p(99) and "checkouts" rate of a run     ║
+// ║  against platform threads with a run against virtual threads.            ║
+// ╚═══════════════════════════════════════════════════════════════════════════╝
+
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter } from 'k6/metrics';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const VUS = parseInt(__ENV.VUS || '1000', 10);
+const DURATION = __ENV.DURATION || '1m';
+const PRODUCTS = 20;
+
+const JSON_HEADERS = { headers: { 'Content-Type': 'application/json' } };
+
+const checkouts = new Counter('checkouts');
+
+export const options = {
+    scenarios: {
+        checkout: {
+            executor: 'ramping-vus',
+            startVUs: 0,
+            stages: [
+                { duration: '15s', target: VUS }, // ramp up
+                { duration: DURATION, target: VUS }, // steady state (this is what we compare)
+                { duration: '5s', target: 0 },
+            ],
+            gracefulRampDown: '10s',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // Fail the run if more than 1% of checkouts fail
+        http_req_failed: ['rate<0.01'],
+    },
+};
+
+// Runs once: create the user and products every checkout uses
+export function setup() {
+    const suffix = Date.now();
+    const user = http.post(`${BASE_URL}/api/users`, JSON.stringify({
+        email: `load-${suffix}@example.com`,
+        firstName: 'Load',
+        lastName: 'Test',
+        address: '1 Benchmark Way',
+    }), JSON_HEADERS);
+    check(user, { 'user created': (r) => r.status === 201 });
+
+    const productIds = [];
+    for (let i = 0; i < PRODUCTS; i++) {
+        const product = http.post(`${BASE_URL}/api/products`, JSON.stringify({
+            name: `Load Product ${i}`,
+            price: 9.99 + i,
+            stockQuantity: 100000000, // never runs out during the test
+            category: 'LoadTest',
+        }), JSON_HEADERS);
+        check(product, { 'product created': (r) => r.status === 201 });
+        productIds.push(product.json('id'));
+    }
+    return { userId: user.json('id'), productIds };
+}
+
+export default function (data) {
+    // 1-3 random lines per order
+    const lines = 1 + Math.floor(Math.random() * 3);
+    const items = [];
+    for (let i = 0; i < lines; i++) {
+        const productId = data.productIds[Math.floor(Math.random() * data.productIds.length)];
+        if (!items.some((item) => item.productId === productId)) {
+            items.push({ productId, quantity: 1 });
+        }
+    }
+
+    const res = http.post(`${BASE_URL}/api/orders`, JSON.stringify({
+        userId: data.userId,
+        items,
+    }), JSON_HEADERS);
+
+    if (check(res, { 'order created': (r) => r.status === 201 })) {
+        checkouts.add(1);
+    }
+}
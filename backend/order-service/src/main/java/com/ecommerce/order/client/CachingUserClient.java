@@ -0,0 +1,156 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.dto.UserDto;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import feign.FeignException;
+import feign.Request;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                     CACHING USER CLIENT (Near Cache)                      ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Wraps the Feign UserClient with an in-memory cache.                      ║
+ * ║                                                                           ║
+ * ║  DECORATOR PATTERN:                                                       ║
+ * ║  - Implements the same UserClient interface                               ║
+ * ║  - @Primary: anyone injecting UserClient (OrderService) gets THIS bean    ║
+ * ║  - Calls the real Feign client only on a cache miss                       ║
+ * ║                                                                           ║
+ * ║  NEGATIVE CACHING:                                                        ║
+ * ║  A 404 from User Service is remembered for a short time too, so          ║
+ * ║  repeated lookups of a missing user don't each cost an HTTP call.         ║
+ * ║  Only a "not found" marker is cached; every caller gets its OWN new       ║
+ * ║  FeignException.NotFound built from it (same message and request), so   ║
+ * ║  callers and GlobalExceptionHandler behave exactly as without the cache. ║
+ * ║                                                                           ║
+ * ║  STAMPEDES:                                                               ║
+ * ║  Lookups go through cache.get(id, loader): when many requests miss the   ║
+ * ║  same user at once, ONE of them calls User Service and the others wait   ║
+ * ║  for its result.                                                          ║
+ * ║                                                                           ║
+ * ║  STALENESS:                                                               ║
+ * ║  Changes made in User Service are seen here after at most "ttl".         ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Primary
+public class CachingUserClient implements UserClient {
+
+    private final UserClient delegate;
+    private final Cache<Long, Lookup> users;
+
+    public CachingUserClient(
+            @Qualifier("userFeignClient") UserClient delegate,
+            @Value("${order.user-cache.ttl:5m}") Duration ttl,
+            @Value("${order.user-cache.max-size:10000}") long maxSize,
+            @Value("${order.user-cache.negative-ttl:30s}") Duration negativeTtl) {
+        this.delegate = delegate;
+        this.users = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new LookupExpiry(ttl, negativeTtl))
+                .build();
+    }
+
+    @Override
+    public UserDto getUser(Long id) {
+        // Other failures (timeouts, 5xx) propagate from the loader and are not cached
+        Lookup lookup = users.get(id, this::load);
+        if (lookup.user() == null) {
+            throw lookup.notFound();
+        }
+        return lookup.user();
+    }
+
+    private Lookup load(Long id) {
+        try {
+            return Lookup.found(delegate.getUser(id));
+        } catch (FeignException.NotFound e) {
+            return Lookup.missing(e);
+        }
+    }
+
+    /**
+     * Batch lookup: answer what we can from the cache and fetch
+     * only the missing IDs (in one call) from User Service.
+     * Users already known to be missing are left out, as the batch
+     * endpoint would do.
+     */
+    @Override
+    public List<UserDto> getUsers(List<Long> ids) {
+        Map<Long, Lookup> cached = users.getAllPresent(ids);
+        List<UserDto> result = cached.values().stream()
+                .map(Lookup::user)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        List<Long> missing = ids.stream()
+                .filter(id -> !cached.containsKey(id))
+                .collect(Collectors.toList());
+        if (!missing.isEmpty()) {
+            for (UserDto user : delegate.getUsers(missing)) {
+                users.put(user.getId(), Lookup.found(user));
+                result.add(user);
+            }
+        }
+        return result;
+    }
+
+    /*
+     * A cached answer: the user, or (user == null) the details needed to
+     * build a fresh NotFound for each caller - exceptions are never shared
+     */
+    private record Lookup(UserDto user, String notFoundMessage, Request request) {
+
+        static Lookup found(UserDto user) {
+            return new Lookup(user, null, null);
+        }
+
+        static Lookup missing(FeignException.NotFound e) {
+            return new Lookup(null, e.getMessage(), e.request());
+        }
+
+        FeignException.NotFound notFound() {
+            return new FeignException.NotFound(notFoundMessage, request, null, null);
+        }
+    }
+
+    // Found users live for "ttl", "not found" answers only for "negative-ttl"
+    private static final class LookupExpiry implements Expiry<Long, Lookup> {
+
+        private final long ttlNanos;
+        private final long negativeTtlNanos;
+
+        LookupExpiry(Duration ttl, Duration negativeTtl) {
+            this.ttlNanos = ttl.toNanos();
+            this.negativeTtlNanos = negativeTtl.toNanos();
+        }
+
+        @Override
+        public long expireAfterCreate(Long id, Lookup lookup, long currentTime) {
+            return lookup.user() != null ? ttlNanos : negativeTtlNanos;
+        }
+
+        @Override
+        public long expireAfterUpdate(Long id, Lookup lookup, long currentTime, long currentDuration) {
+            return expireAfterCreate(id, lookup, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(Long id, Lookup lookup, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+    }
+}
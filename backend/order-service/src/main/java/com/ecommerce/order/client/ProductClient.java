@@ -1,13 +1,18 @@
 package com.ecommerce.order.client;
 
 import com.ecommerce.order.dto.ProductDto;
+import com.ecommerce.order.dto.StockReservationRequest;
+import com.ecommerce.order.dto.StockReservationResponse;
 import com.ecommerce.order.dto.StockUpdateRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
 
+import java.util.List;
+
 /**
  * ╔═══════════════════════════════════════════════════════════════════════════╗
  * ║                          PRODUCT CLIENT (Feign)                           ║
@@ -61,6 +66,18 @@ public interface ProductClient {
     @GetMapping("/api/products/{id}")
     ProductDto getProduct(@PathVariable("id") Long id);
 
+    /**
+     * Get several products in ONE call
+     * 
+     * Equivalent to: POST http://product-service/api/products/batch
+     * Body: [1, 2, 3]
+     * 
+     * Products that don't exist are left out of the response,
+     * so callers must check every ID they asked for came back.
+     */
+    @PostMapping("/api/products/batch")
+    List<ProductDto> getProducts(@RequestBody List<Long> ids);
+
     /**
      * Update product stock
      * 
@@ -71,4 +88,23 @@ public interface ProductClient {
      */
     @PutMapping("/api/products/{id}/stock")
     ProductDto updateStock(@PathVariable("id") Long id, @RequestBody StockUpdateRequest request);
+
+    /**
+     * Reserve stock for ALL lines of an order in one call
+     * 
+     * Equivalent to: POST http://product-service/api/products/stock/reserve
+     * Body: { "items": [ { "productId": 1, "quantity": 2 } ] }
+     * 
+     * All-or-nothing: if any line can't be served, Product Service
+     * returns 409 Conflict and no stock is taken at all.
+     */
+    @PostMapping("/api/products/stock/reserve")
+    StockReservationResponse reserveStock(@RequestBody StockReservationRequest request);
+
+    /**
+     * Give back the stock of a reservation made with a reservationId
+     * Safe to repeat, and safe if the reservation never happened
+     */
+    @PostMapping("/api/products/stock/release/{reservationId}")
+    void releaseStock(@PathVariable("reservationId") String reservationId);
 }
@@ -4,13 +4,20 @@ import com.ecommerce.order.dto.UserDto;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import java.util.List;
 
 /**
  * Feign Client for User Service
  * 
  * Used to verify user exists before placing an order
+ * 
+ * NOTE: OrderService gets CachingUserClient (@Primary), which wraps this
+ * Feign client; the "userFeignClient" qualifier picks the raw one
+ * (primary = false: Feign clients are @Primary by default).
  */
-@FeignClient(name = "user-service")
+@FeignClient(name = "user-service", qualifiers = "userFeignClient", primary = false)
 public interface UserClient {
 
     /**
@@ -21,4 +28,13 @@ public interface UserClient {
      */
     @GetMapping("/api/users/{id}")
     UserDto getUser(@PathVariable("id") Long id);
+
+    /**
+     * Get several users in one call
+     * 
+     * Equivalent to: GET http://user-service/api/users/batch?ids=1&ids=2
+     * Unknown IDs are simply missing from the response.
+     */
+    @GetMapping("/api/users/batch")
+    List<UserDto> getUsers(@RequestParam("ids") List<Long> ids);
 }
@@ -0,0 +1,97 @@
+package com.ecommerce.order.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Primary pool for writes, optional read-replica pool for read-only transactions
+ *
+ * Without order.datasource.replica.jdbc-url everything uses spring.datasource.
+ * The lazy proxy only takes a pooled connection at the first statement, once
+ * the transaction's read-only flag is known.
+ *
+ * Actuator binds both Hikari pools by name (order-primary, order-replica):
+ * hikaricp.connections.active/idle/pending, .acquire (waiting for a
+ * connection), .usage (holding one), .timeout. Who held them: see
+ * ConnectionHoldTracker.
+ */
+@Configuration
+public class DataSourceConfig {
+
+    static final String PRIMARY_POOL = "order-primary";
+    static final String REPLICA_POOL = "order-replica";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "order.datasource.replica", name = "jdbc-url")
+    @ConfigurationProperties("order.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA_POOL);
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "order.datasource.hold-tracking", name = "enabled", matchIfMissing = true)
+    public ConnectionHoldTracker connectionHoldTracker(
+            @Value("${order.datasource.hold-tracking.warn-threshold:1s}") Duration warnThreshold,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionHoldTracker("com.ecommerce.order", warnThreshold, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "order.datasource.hold-tracking", name = "enabled", matchIfMissing = true)
+    public ConnectionHoldEndpoint connectionHoldEndpoint(ConnectionHoldTracker tracker) {
+        return new ConnectionHoldEndpoint(tracker);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryPool,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaPool,
+            ObjectProvider<ConnectionHoldTracker> tracker) {
+        DataSource primary = track(tracker, PRIMARY_POOL, primaryPool);
+        DataSource replicaDataSource = replicaPool.getIfAvailable();
+        if (replicaDataSource == null) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+        replicaDataSource = track(tracker, REPLICA_POOL, replicaDataSource);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static DataSource track(ObjectProvider<ConnectionHoldTracker> tracker, String pool, DataSource dataSource) {
+        ConnectionHoldTracker holdTracker = tracker.getIfAvailable();
+        return holdTracker == null ? dataSource : holdTracker.track(pool, dataSource);
+    }
+}
@@ -0,0 +1,13 @@
+package com.ecommerce.order.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Turns on @Scheduled methods (the order saga recovery worker, the outbox relay,
+ * the idempotency key purge)
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
@@ -2,14 +2,19 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.PageResponse;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderIdempotency;
 import com.ecommerce.order.service.OrderService;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -17,9 +22,12 @@ import java.util.List;
  * 
  * API Endpoints:
  * - GET    /api/orders              - Get all orders
+ * - GET    /api/orders?page=0&size=20   - Get one page of orders (offset paging)
+ * - GET    /api/orders?after=0&size=20  - Get orders after a cursor (keyset paging)
+ * - GET    /api/orders/export       - Stream all orders as NDJSON
  * - GET    /api/orders/{id}         - Get order by ID
  * - GET    /api/orders/user/{userId} - Get orders for a user
- * - POST   /api/orders              - Create new order
+ * - POST   /api/orders              - Create new order (optional Idempotency-Key header)
  * - PUT    /api/orders/{id}/status  - Update order status
  */
 @RestController
@@ -27,13 +35,47 @@ import java.util.List;
 @RequiredArgsConstructor
 public class OrderController {
 
+    static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+    static final String IDEMPOTENT_REPLAYED = "Idempotent-Replayed";
+
     private final OrderService orderService;
+    private final OrderIdempotency orderIdempotency;
 
     @GetMapping
     public ResponseEntity<List<OrderDto>> getAllOrders() {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    /*
+     * params = "page" / "after": these only match when that query parameter
+     * is present, so plain GET /api/orders still returns the full list
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<PageResponse<OrderDto>> getOrdersPage(
+            @RequestParam("page") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersPage(page, size));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<PageResponse<OrderDto>> getOrdersAfter(
+            @RequestParam("after") Long after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(orderService.getOrdersAfter(after, size));
+    }
+
+    /**
+     * Stream every order as NDJSON (one JSON object per line)
+     * 
+     * Written straight to the response output stream, so the response
+     * starts immediately and memory use doesn't grow with the table.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportOrders(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        orderService.exportOrders(response.getOutputStream());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<OrderDto> getOrderById(@PathVariable("id") Long id) {
         return ResponseEntity.ok(orderService.getOrderById(id));
@@ -51,11 +93,25 @@ public class OrderController {
      * 1. Validates user with User Service
      * 2. Validates products with Product Service
      * 3. Updates stock in Product Service
+     * 
+     * With an Idempotency-Key header (any unique string, e.g. a UUID), a retry
+     * with the same key and body gets the first response back - with the
+     * Idempotent-Replayed: true header - instead of placing a second order.
+     * A retry while the first request is still running gets 409 with a
+     * Retry-After header.
      */
     @PostMapping
-    public ResponseEntity<OrderDto> createOrder(@Valid @RequestBody OrderRequest request) {
-        OrderDto createdOrder = orderService.createOrder(request);
-        return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+    public ResponseEntity<OrderDto> createOrder(
+            @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey,
+            @Valid @RequestBody OrderRequest request) {
+        if (idempotencyKey == null) {
+            OrderDto createdOrder = orderService.createOrder(request);
+            return new ResponseEntity<>(createdOrder, HttpStatus.CREATED);
+        }
+        OrderIdempotency.Result result = orderIdempotency.createOrder(idempotencyKey, request);
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED, String.valueOf(result.replayed()))
+                .body(result.order());
     }
 
     /**
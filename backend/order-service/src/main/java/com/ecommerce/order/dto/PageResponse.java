@@ -0,0 +1,38 @@
+package com.ecommerce.order.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Page Response - One slice of a large list
+ * 
+ * Offset paging (?page=&size=) fills page / totalElements / totalPages.
+ * Keyset paging (?after=&size=) fills nextCursor - pass it as "after"
+ * to get the next page; it is missing on the last page.
+ * 
+ * Same shape as Product Service's PageResponse.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageResponse<T> {
+
+    private List<T> content;
+
+    private Integer size;
+
+    // Offset paging only
+    private Integer page;
+    private Long totalElements;
+    private Integer totalPages;
+
+    // Keyset paging only
+    private Long nextCursor;
+}
@@ -0,0 +1,35 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Stock Reservation Request - Matches Product Service's expected format
+ * 
+ * Reserves stock for all lines of an order in one call (all-or-nothing).
+ * With a reservationId (the order saga's ID) the call is idempotent and
+ * the reservation can be released again.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+
+    private String reservationId;
+
+    private List<ReservationItem> items;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ReservationItem {
+        private Long productId;
+        private Integer quantity;
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.order.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Stock Reservation Response - Matches the response from Product Service
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponse {
+
+    private boolean reserved;
+
+    private List<LineResult> lines;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineResult {
+        private Long productId;
+        private Integer quantity;
+        private String status;  // RESERVED, INSUFFICIENT_STOCK or NOT_FOUND
+    }
+}
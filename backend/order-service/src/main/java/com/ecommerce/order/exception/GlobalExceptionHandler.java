@@ -1,6 +1,8 @@
 package com.ecommerce.order.exception;
 
 import feign.FeignException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -21,6 +23,7 @@ import java.util.Map;
  * ║  When we call Product/User service and it fails, Feign throws:           ║
  * ║  - FeignException.NotFound (404)  → Product/User doesn't exist           ║
  * ║  - FeignException.BadRequest (400) → Invalid data sent                   ║
+ * ║  - FeignException.Conflict (409) → Stock could not be reserved           ║
  * ║  - FeignException (other) → Service unavailable                          ║
  * ║                                                                           ║
  * ║  We catch these and return meaningful error messages to the client       ║
@@ -39,6 +42,32 @@ public class GlobalExceptionHandler {
         return createErrorResponse(HttpStatus.BAD_REQUEST, ex.getMessage());
     }
 
+    @ExceptionHandler(LookupTimeoutException.class)
+    public ResponseEntity<Map<String, Object>> handleLookupTimeout(LookupTimeoutException ex) {
+        return createErrorResponse(HttpStatus.GATEWAY_TIMEOUT,
+            "External service did not respond in time. Please try again later.");
+    }
+
+    // The order kept changing under us, even after OptimisticLockRetry's attempts
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(OptimisticLockingFailureException ex) {
+        return createErrorResponse(HttpStatus.CONFLICT,
+            "The order was changed by another request. Please try again.");
+    }
+
+    @ExceptionHandler(IdempotencyKeyException.class)
+    public ResponseEntity<Map<String, Object>> handleIdempotencyKey(IdempotencyKeyException ex) {
+        ResponseEntity<Map<String, Object>> response = createErrorResponse(ex.getStatus(), ex.getMessage());
+        if (ex.getRetryAfter() == null) {
+            return response;
+        }
+        // Retry-After is in whole seconds: round up, never 0
+        long seconds = Math.max(1, (ex.getRetryAfter().toMillis() + 999) / 1000);
+        return ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(seconds))
+                .body(response.getBody());
+    }
+
     /**
      * Handle Feign exceptions (errors from other services)
      * 
@@ -59,6 +88,9 @@ public class GlobalExceptionHandler {
             } else if (ex.getMessage().contains("user-service")) {
                 message = "User not found";
             }
+        } else if (status == HttpStatus.CONFLICT) {
+            // Product Service could not reserve stock for every order line
+            message = "Insufficient stock for one or more products";
         } else if (status == HttpStatus.SERVICE_UNAVAILABLE || ex.status() == -1) {
             status = HttpStatus.SERVICE_UNAVAILABLE;
             message = "External service is currently unavailable. Please try again later.";
@@ -0,0 +1,37 @@
+package com.ecommerce.order.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * A request's Idempotency-Key can't be used right now (see OrderIdempotency)
+ */
+@Getter
+public class IdempotencyKeyException extends RuntimeException {
+
+    private final HttpStatus status;
+
+    // Sent as Retry-After; null when retrying the same request can't help
+    private final Duration retryAfter;
+
+    public IdempotencyKeyException(HttpStatus status, String message, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    // Another request with the same key is still placing its order
+    public static IdempotencyKeyException inProgress(String key, Duration retryAfter) {
+        return new IdempotencyKeyException(HttpStatus.CONFLICT,
+                "A request with Idempotency-Key " + key + " is still being processed. Please retry later.",
+                retryAfter);
+    }
+
+    // The key was already used for a different request body
+    public static IdempotencyKeyException reused(String key) {
+        return new IdempotencyKeyException(HttpStatus.UNPROCESSABLE_ENTITY,
+                "Idempotency-Key " + key + " was already used for a different request", null);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ecommerce.order.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * User/Product Service did not answer within order.lookup.timeout
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class LookupTimeoutException extends RuntimeException {
+
+    public LookupTimeoutException(String message) {
+        super(message);
+    }
+}
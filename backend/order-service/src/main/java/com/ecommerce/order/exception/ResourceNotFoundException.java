@@ -13,4 +13,8 @@ public class ResourceNotFoundException extends RuntimeException {
     public static ResourceNotFoundException forOrder(Long orderId) {
         return new ResourceNotFoundException("Order not found with id: " + orderId);
     }
+    
+    public static ResourceNotFoundException forProduct(Long productId) {
+        return new ResourceNotFoundException("Product not found with id: " + productId);
+    }
 }
@@ -0,0 +1,63 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * One Idempotency-Key sent with POST /api/orders
+ *
+ * Claimed (IN_PROGRESS) before the order is placed, then COMPLETED with the
+ * response that was sent, so a retry with the same key gets that response
+ * back instead of placing the order again (see OrderIdempotency).
+ *
+ * The claim already names the saga that will place the order, so a claim
+ * whose request died can be matched with the order it may have saved.
+ *
+ * The primary key is what stops two concurrent requests with the same key:
+ * only one of their INSERTs can succeed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "idempotency_keys", indexes = {
+        // TTL cleanup: "everything that expired before now"
+        @Index(name = "idx_idempotency_keys_expires_at", columnList = "expires_at")
+})
+public class IdempotencyRecord {
+
+    @Id
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body: the same key with a different body is refused
+    @Column(name = "request_hash", nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private IdempotencyStatus status;
+
+    // The saga (see OrderSaga) placing the order, set with the claim
+    @Column(name = "saga_id", length = 36)
+    private String sagaId;
+
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // The OrderDto sent back, as JSON
+    @Column(name = "response_body", length = 1_000_000)
+    private String responseBody;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private LocalDateTime expiresAt;
+}
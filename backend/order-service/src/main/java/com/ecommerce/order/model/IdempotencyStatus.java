@@ -0,0 +1,9 @@
+package com.ecommerce.order.model;
+
+/**
+ * Where the request behind an Idempotency-Key is (see IdempotencyRecord)
+ */
+public enum IdempotencyStatus {
+    IN_PROGRESS,  // A request with this key is placing the order
+    COMPLETED     // Order placed, responseBody is what the client got
+}
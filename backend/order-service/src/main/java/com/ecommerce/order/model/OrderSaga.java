@@ -0,0 +1,75 @@
+package com.ecommerce.order.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The saga log: one row per order placement
+ * 
+ * Placing an order changes two databases (stock in Product Service, the
+ * order here), so no single transaction can cover it. Each step is recorded
+ * here BEFORE the next one starts; whatever state a crash leaves behind, the
+ * row says what to undo (see OrderSagaCompensation).
+ * 
+ * The saga ID doubles as the stock reservationId, which makes reserving and
+ * releasing safe to repeat. Cancelling the order later reopens its saga to
+ * give that reservation back.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "order_sagas", indexes = {
+        // Recovery: "unfinished sagas not touched for a while"
+        @Index(name = "idx_order_sagas_status_updated_at", columnList = "status, updated_at"),
+        // Cancelling an order: "the saga that placed it"
+        @Index(name = "idx_order_sagas_order_id", columnList = "order_id")
+})
+public class OrderSaga {
+
+    @Id
+    @Column(length = 36)
+    private String id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private SagaStatus status;
+
+    // Set when the saga completes
+    @Column(name = "order_id")
+    private Long orderId;
+
+    // Failed compensation attempts (the recovery worker retries up to order.saga.max-attempts)
+    @Column(nullable = false)
+    @Builder.Default
+    private int attempts = 0;
+
+    @Column(name = "last_error", length = 500)
+    private String lastError;
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
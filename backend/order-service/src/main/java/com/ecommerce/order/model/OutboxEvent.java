@@ -0,0 +1,66 @@
+package com.ecommerce.order.model;
+
+import com.ecommerce.order.outbox.EventMessage;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * The transactional outbox: one row per domain event
+ *
+ * Written in the SAME transaction as the change it describes, so an event
+ * exists exactly when its change was committed. OutboxRelay later hands
+ * unpublished rows to the EventBroker and stamps publishedAt.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Relay: "unpublished events, oldest first" / purge of old published ones
+        @Index(name = "idx_outbox_events_published_at_id", columnList = "published_at, id")
+})
+public class OutboxEvent {
+
+    // Sequence (see Order.id), so events written together are batched
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    // What changed: "Order" + its ID
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    // e.g. "OrderStatusChanged"
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // The event as JSON
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Null until the relay has published it
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public EventMessage toMessage() {
+        return new EventMessage(id, aggregateType, aggregateId, eventType, payload, createdAt);
+    }
+}
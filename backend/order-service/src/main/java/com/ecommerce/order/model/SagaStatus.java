@@ -0,0 +1,26 @@
+package com.ecommerce.order.model;
+
+/**
+ * Where an order-placement saga is (see OrderSaga)
+ *
+ *   STARTED ──► STOCK_RESERVED ──► COMPLETED
+ *      │              │                 │ order cancelled
+ *      └──────┬───────┘                 │
+ *             ▼                         │
+ *       COMPENSATING ◄──────────────────┘
+ *             │
+ *       ┌─────┴──────┬─────────────────┐
+ *       ▼            ▼                 ▼ release kept failing
+ *  COMPENSATED   CANCELLED           FAILED
+ *  (no order)    (order kept,        (stock may still be reserved,
+ *                 status CANCELLED)   needs someone to look at it)
+ */
+public enum SagaStatus {
+    STARTED,         // Saga recorded, stock reservation sent (it may or may not have happened)
+    STOCK_RESERVED,  // Product Service confirmed the reservation
+    COMPLETED,       // Order saved - final unless the order is cancelled
+    COMPENSATING,    // Giving the stock back (retried until it succeeds)
+    COMPENSATED,     // Stock given back, no order was created - final
+    CANCELLED,       // Order was created, then cancelled; its stock given back - final
+    FAILED           // Gave up after order.saga.max-attempts failed releases - final, needs manual action
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.order.outbox;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * Embedded broker for local runs and tests
+ *
+ * Delivers each event to the in-process subscribers and keeps the most
+ * recent ones in memory. Nothing leaves the JVM.
+ */
+@Component
+@ConditionalOnProperty(prefix = "order.outbox", name = "broker", havingValue = "in-memory", matchIfMissing = true)
+@Slf4j
+public class InMemoryEventBroker implements EventBroker {
+
+    private final int capacity;
+    private final Deque<EventMessage> recent = new ArrayDeque<>();
+    private final List<Consumer<EventMessage>> subscribers = new CopyOnWriteArrayList<>();
+
+    public InMemoryEventBroker(@Value("${order.outbox.in-memory.capacity:1000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public void publish(List<EventMessage> batch) {
+        synchronized (recent) {
+            for (EventMessage event : batch) {
+                if (recent.size() == capacity) {
+                    recent.removeFirst();
+                }
+                recent.addLast(event);
+            }
+        }
+        for (EventMessage event : batch) {
+            for (Consumer<EventMessage> subscriber : subscribers) {
+                try {
+                    subscriber.accept(event);
+                } catch (RuntimeException e) {
+                    // One broken subscriber must not block the others (or the relay)
+                    log.warn("Subscriber failed on event {}: {}", event.id(), e.getMessage());
+                }
+            }
+        }
+    }
+
+    public void subscribe(Consumer<EventMessage> subscriber) {
+        subscribers.add(subscriber);
+    }
+
+    /**
+     * The last published events, oldest first
+     */
+    public List<EventMessage> recent() {
+        synchronized (recent) {
+            return new ArrayList<>(recent);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package com.ecommerce.order.outbox;
+
+import com.ecommerce.order.model.OrderStatus;
+
+import java.math.BigDecimal;
+
+/**
+ * Payloads of the events order-service publishes
+ */
+public final class OrderEvents {
+
+    public static final String AGGREGATE_TYPE = "Order";
+
+    public static final String ORDER_CREATED = "OrderCreated";
+    public static final String ORDER_STATUS_CHANGED = "OrderStatusChanged";
+
+    private OrderEvents() {
+    }
+
+    public record Created(Long orderId, Long userId, OrderStatus status, BigDecimal totalAmount) {
+    }
+
+    public record StatusChanged(Long orderId, Long userId, OrderStatus previousStatus, OrderStatus status) {
+    }
+}
@@ -0,0 +1,66 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+/**
+ * Every method runs in its own short read-write transaction: a lagging read
+ * replica could miss a key that was just claimed, and the order placement
+ * in between must not hold a transaction open
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    @Transactional
+    @Query("SELECT r FROM IdempotencyRecord r WHERE r.idempotencyKey = :key")
+    Optional<IdempotencyRecord> findByKey(@Param("key") String key);
+
+    /*
+     * A plain INSERT (save() would merge, i.e. SELECT first and then
+     * INSERT or UPDATE): when two requests race for the same key, the
+     * second one fails with DataIntegrityViolationException
+     */
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO idempotency_keys "
+            + "(idempotency_key, request_hash, saga_id, status, created_at, expires_at) "
+            + "VALUES (:key, :requestHash, :sagaId, 'IN_PROGRESS', :createdAt, :expiresAt)", nativeQuery = true)
+    int insertInProgress(@Param("key") String key,
+                         @Param("requestHash") String requestHash,
+                         @Param("sagaId") String sagaId,
+                         @Param("createdAt") LocalDateTime createdAt,
+                         @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = com.ecommerce.order.model.IdempotencyStatus.COMPLETED, "
+            + "r.orderId = :orderId, r.responseBody = :responseBody, r.expiresAt = :expiresAt "
+            + "WHERE r.idempotencyKey = :key AND r.createdAt = :claimedAt")
+    int complete(@Param("key") String key,
+                 @Param("claimedAt") LocalDateTime claimedAt,
+                 @Param("orderId") Long orderId,
+                 @Param("responseBody") String responseBody,
+                 @Param("expiresAt") LocalDateTime expiresAt);
+
+    // Give up a claim (the placement failed, or its request died without an
+    // order): createdAt tells it apart from a later claim of the same key
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.idempotencyKey = :key "
+            + "AND r.status = com.ecommerce.order.model.IdempotencyStatus.IN_PROGRESS "
+            + "AND r.createdAt = :claimedAt")
+    int release(@Param("key") String key, @Param("claimedAt") LocalDateTime claimedAt);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -2,12 +2,34 @@ package com.ecommerce.order.repository;
 
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/*
+ * readOnly = true on the interface: every query method here runs in a
+ * read-only transaction (routed to the read replica when one is configured,
+ * see DataSourceConfig). OrderService reads stay outside a transaction of
+ * their own because they also call other services.
+ * save()/delete() keep the read-write @Transactional of SimpleJpaRepository,
+ * and inside a read-write transaction (createOrder, updateOrderStatus) these
+ * methods just join it and use the primary.
+ */
 @Repository
+@Transactional(readOnly = true)
 public interface OrderRepository extends JpaRepository<Order, Long> {
     
     // Find all orders for a specific user
@@ -18,4 +40,67 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     // Find orders for a user with specific status
     List<Order> findByUserIdAndStatus(Long userId, OrderStatus status);
+    
+    /*
+     * WITH ITEMS - the variants used for listing
+     * 
+     * Order.items is LAZY: listing N orders and reading each order's items
+     * runs 1 + N queries (the "N+1 problem"). @EntityGraph turns the items
+     * into a LEFT JOIN FETCH, so orders and items come back in ONE query.
+     * 
+     * They load READ-ONLY entities: Hibernate keeps no snapshot of them and
+     * never dirty-checks them (they are only mapped to DTOs). Writers such as
+     * updateOrderStatus load with findById instead.
+     */
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    Optional<Order> findWithItemsById(Long id);
+    
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findWithItemsByUserId(Long userId);
+    
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findWithItemsByStatus(OrderStatus status);
+    
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    @Query("SELECT o FROM Order o ORDER BY o.id")
+    List<Order> findAllWithItems();
+    
+    /*
+     * PAGING + FETCH JOIN don't mix: LIMIT would count joined rows
+     * (order × items), so Hibernate would fetch EVERYTHING and page in memory.
+     * Instead, page over IDs only, then fetch those orders with their items:
+     *   1. SELECT id FROM orders ORDER BY id LIMIT 20 OFFSET 40
+     *   2. SELECT o.*, i.* FROM orders o LEFT JOIN order_items i ... WHERE o.id IN (...)
+     */
+    @Query(value = "SELECT o.id FROM Order o", countQuery = "SELECT COUNT(o) FROM Order o")
+    Page<Long> findIds(Pageable pageable);
+    
+    @Query("SELECT o.id FROM Order o WHERE o.id > :after ORDER BY o.id")
+    List<Long> findIdsAfter(@Param("after") Long after, Pageable pageable);
+    
+    // The IN list comes back in no particular order - callers re-sort it
+    @EntityGraph(attributePaths = "items")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<Order> findWithItemsByIdIn(Collection<Long> ids);
+    
+    /*
+     * Streams every order for the NDJSON export without loading the table
+     * into memory. Rows are pulled 500 at a time; read-only entities skip
+     * Hibernate's dirty-checking snapshots.
+     * Items come in the same query (JOIN FETCH), not one query per order.
+     * The ORDER BY keeps an order's rows together: Hibernate reads rows until
+     * the order ID changes, so each streamed order has ALL its items, once
+     * (no DISTINCT needed).
+     * Must be consumed inside a transaction and closed afterwards.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT o FROM Order o LEFT JOIN FETCH o.items ORDER BY o.id")
+    Stream<Order> streamAllByOrderById();
 }
@@ -0,0 +1,38 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.SagaStatus;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, String> {
+
+    /*
+     * SELECT ... FOR UPDATE: completing and compensating the same saga
+     * (request thread vs. recovery worker) take turns instead of both
+     * reading the old status
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSaga s WHERE s.id = :id")
+    Optional<OrderSaga> findForUpdate(@Param("id") String id);
+
+    // The saga that placed an order, locked the same way (cancelling the order)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM OrderSaga s WHERE s.orderId = :orderId")
+    Optional<OrderSaga> findForUpdateByOrderId(@Param("orderId") Long orderId);
+
+    // Unfinished sagas nobody has touched since "before", oldest first
+    List<OrderSaga> findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+            Collection<SagaStatus> statuses, LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.order.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs work in its own transaction and, when the @Version check fails
+ * (another request changed the row since it was read), runs it again
+ * on fresh data
+ * 
+ * Between attempts it sleeps a random time between 0 and
+ * initial-backoff * 2^(attempt-1), capped at max-backoff ("full jitter"),
+ * so requests that collided don't collide again on the next attempt.
+ * After max-attempts the conflict is thrown (409, see GlobalExceptionHandler).
+ * 
+ * Inside a transaction that is already open the work runs once: only the
+ * outer transaction could be retried.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OptimisticLockRetry(
+            PlatformTransactionManager transactionManager,
+            @Value("${order.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${order.optimistic-retry.initial-backoff:10ms}") Duration initialBackoff,
+            @Value("${order.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * @throws OptimisticLockingFailureException if the last attempt conflicts too
+     */
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                log.debug("{} conflicted (attempt {}), retrying", operation, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
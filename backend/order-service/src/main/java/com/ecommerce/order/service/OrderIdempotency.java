@@ -0,0 +1,221 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.exception.IdempotencyKeyException;
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.model.IdempotencyStatus;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * POST /api/orders with an Idempotency-Key header: the order is placed
+ * once per key, whatever the number of retries
+ *
+ *   no record        → claim the key (INSERT IN_PROGRESS, with the ID of
+ *                      the saga about to run), place the order, store the
+ *                      response (COMPLETED)
+ *   COMPLETED        → send the stored response back - no lookups, no stock
+ *                      reservation, one primary-key read
+ *   IN_PROGRESS      → a concurrent duplicate: 409 with Retry-After at once
+ *                      (no request thread is parked waiting for the first)
+ *   different body   → 422, a key belongs to one request
+ *
+ * A placement that fails releases its claim: the saga gave the stock back,
+ * so the client may retry with the same key. A claim still IN_PROGRESS
+ * after in-progress-timeout (longer than any placement can take) belongs
+ * to a request that died, possibly after its order was saved. Its saga
+ * decides: if it saved an order, the key is completed with that order;
+ * otherwise the saga is stopped for good and the claim is dropped.
+ * Keys expire after ttl and are then purged.
+ */
+@Component
+@Slf4j
+public class OrderIdempotency {
+
+    static final int MAX_KEY_LENGTH = 100;
+
+    private final IdempotencyRecordRepository repository;
+    private final OrderService orderService;
+    private final OrderSagaLog sagaLog;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration retryAfter;
+    private final Duration inProgressTimeout;
+
+    public OrderIdempotency(
+            IdempotencyRecordRepository repository,
+            OrderService orderService,
+            OrderSagaLog sagaLog,
+            ObjectMapper objectMapper,
+            @Value("${order.idempotency.ttl:24h}") Duration ttl,
+            @Value("${order.idempotency.retry-after:1s}") Duration retryAfter,
+            @Value("${order.idempotency.in-progress-timeout:1m}") Duration inProgressTimeout) {
+        this.repository = repository;
+        this.orderService = orderService;
+        this.sagaLog = sagaLog;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.retryAfter = retryAfter;
+        this.inProgressTimeout = inProgressTimeout;
+    }
+
+    /**
+     * The order placed (or replayed) for this key
+     */
+    public record Result(OrderDto order, boolean replayed) {
+    }
+
+    /**
+     * Place the order for this key, or return the one already placed for it
+     *
+     * @throws IllegalArgumentException if the key is blank or too long
+     * @throws IdempotencyKeyException  409 if a request with the same key is
+     *         still running, 422 if the key was used for a different request
+     */
+    public Result createOrder(String key, OrderRequest request) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(
+                    "Idempotency-Key must be 1 to " + MAX_KEY_LENGTH + " characters");
+        }
+        String requestHash = hash(request);
+        String sagaId = UUID.randomUUID().toString();
+
+        LocalDateTime claimedAt;
+        while (true) {
+            Optional<IdempotencyRecord> existing = repository.findByKey(key);
+            if (existing.isEmpty()) {
+                claimedAt = claim(key, requestHash, sagaId);
+                if (claimedAt != null) {
+                    break;
+                }
+                continue;  // Someone claimed it in between: read their record
+            }
+
+            IdempotencyRecord record = existing.get();
+            if (!record.getRequestHash().equals(requestHash)) {
+                throw IdempotencyKeyException.reused(key);
+            }
+            if (record.getStatus() == IdempotencyStatus.COMPLETED) {
+                log.debug("Replaying order {} for Idempotency-Key {}", record.getOrderId(), key);
+                return new Result(readResponse(record), true);
+            }
+            if (record.getCreatedAt().isBefore(LocalDateTime.now().minus(inProgressTimeout))) {
+                Optional<OrderDto> recovered = takeOver(key, record);
+                if (recovered.isPresent()) {
+                    return new Result(recovered.get(), true);
+                }
+                continue;  // Claim dropped (by us or a concurrent retry): claim it again
+            }
+            throw IdempotencyKeyException.inProgress(key, retryAfter);
+        }
+
+        OrderDto order;
+        try {
+            order = orderService.createOrder(request, sagaId);
+        } catch (RuntimeException e) {
+            repository.release(key, claimedAt);
+            throw e;
+        }
+        store(key, claimedAt, order);
+        return new Result(order, false);
+    }
+
+    /**
+     * Delete expired keys (a retry after this places a new order)
+     *
+     * @return number of keys deleted
+     */
+    @Scheduled(initialDelayString = "${order.idempotency.purge-interval:PT1H}",
+            fixedDelayString = "${order.idempotency.purge-interval:PT1H}")
+    public int purgeExpired() {
+        int deleted = repository.deleteExpired(LocalDateTime.now());
+        if (deleted > 0) {
+            log.info("Purged {} expired idempotency keys", deleted);
+        }
+        return deleted;
+    }
+
+    // The claim's createdAt (millisecond precision, so every database stores it
+    // exactly), or null if another request holds the key
+    private LocalDateTime claim(String key, String requestHash, String sagaId) {
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        try {
+            repository.insertInProgress(key, requestHash, sagaId, now, now.plus(ttl));
+            return now;
+        } catch (DataIntegrityViolationException duplicate) {
+            return null;
+        }
+    }
+
+    /*
+     * A claim whose request died. Its saga is abandoned under the saga's row
+     * lock, so the dead request can't save an order after this check:
+     *   order saved  → complete the key with it (the retry gets that order)
+     *   no order     → drop the claim; the recovery worker gives the stock back
+     */
+    private Optional<OrderDto> takeOver(String key, IdempotencyRecord record) {
+        Optional<Long> orderId = record.getSagaId() == null
+                ? Optional.empty()
+                : sagaLog.abandon(record.getSagaId(), "Idempotency-Key " + key + " abandoned");
+        if (orderId.isPresent()) {
+            OrderDto order = orderService.getOrderById(orderId.get());
+            log.warn("Idempotency-Key {} left in progress since {}: recovered order {}",
+                    key, record.getCreatedAt(), order.getId());
+            store(key, record.getCreatedAt(), order);
+            return Optional.of(order);
+        }
+        if (repository.release(key, record.getCreatedAt()) > 0) {
+            log.warn("Dropped Idempotency-Key {} left in progress since {}", key, record.getCreatedAt());
+        }
+        return Optional.empty();
+    }
+
+    // The order exists from here on: a failure to record it must not turn into an
+    // error for the client (the key is completed from the saga log later, see takeOver)
+    private void store(String key, LocalDateTime claimedAt, OrderDto order) {
+        try {
+            int updated = repository.complete(key, claimedAt, order.getId(),
+                    objectMapper.writeValueAsString(order), LocalDateTime.now().plus(ttl));
+            if (updated == 0) {
+                log.warn("Idempotency-Key {} was taken over while order {} was placed", key, order.getId());
+            }
+        } catch (Exception e) {
+            log.error("Could not store the response of order {} for Idempotency-Key {}", order.getId(), key, e);
+        }
+    }
+
+    private OrderDto readResponse(IdempotencyRecord record) {
+        try {
+            return objectMapper.readValue(record.getResponseBody(), OrderDto.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for Idempotency-Key "
+                    + record.getIdempotencyKey() + " is unreadable", e);
+        }
+    }
+
+    private String hash(OrderRequest request) {
+        try {
+            byte[] body = objectMapper.writeValueAsString(request).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Could not fingerprint the order request", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.model.OrderSaga;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Undoes order-placement sagas that didn't complete
+ * 
+ * compensate() is called right away when createOrder fails after the saga
+ * started. The recovery worker (resumeUnfinished) picks up everything that
+ * was left behind: a crash between two steps, a release call that failed,
+ * a saga whose compensation couldn't even be recorded.
+ * 
+ * Backward recovery only: an unfinished saga never saved its order, and
+ * its caller got an error (or no answer), so the stock is given back.
+ * The one exception is a cancelled order: its saga is reopened
+ * (OrderSagaLog.orderCancelled) and compensated the same way.
+ * Releasing is safe to repeat and safe when nothing was reserved
+ * (Product Service remembers the reservation ID).
+ * 
+ * A release that still fails after max-attempts tries moves the saga to
+ * FAILED and is logged at ERROR: retrying it every minute forever would
+ * only hide it.
+ */
+@Component
+@Slf4j
+public class OrderSagaCompensation {
+
+    private final OrderSagaLog sagaLog;
+    private final ProductClient productClient;
+    private final Duration recoveryDelay;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    public OrderSagaCompensation(
+            OrderSagaLog sagaLog,
+            ProductClient productClient,
+            @Value("${order.saga.recovery-delay:1m}") Duration recoveryDelay,
+            @Value("${order.saga.recovery-batch-size:100}") int batchSize,
+            @Value("${order.saga.max-attempts:10}") int maxAttempts) {
+        this.sagaLog = sagaLog;
+        this.productClient = productClient;
+        this.recoveryDelay = recoveryDelay;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Give back the saga's stock. Never throws: whatever fails here is
+     * left for the recovery worker, and the caller's own error stands.
+     */
+    public void compensate(String sagaId, String reason) {
+        try {
+            if (!sagaLog.beginCompensation(sagaId, reason)) {
+                return;
+            }
+            productClient.releaseStock(sagaId);
+            sagaLog.compensated(sagaId);
+            log.info("Order saga {} compensated: {}", sagaId, reason);
+        } catch (Exception e) {
+            try {
+                if (sagaLog.compensationFailed(sagaId, e.getMessage(), maxAttempts)) {
+                    log.error("Order saga {} FAILED: stock release still failing after {} attempts, "
+                            + "reservation {} must be released by hand", sagaId, maxAttempts, sagaId, e);
+                } else {
+                    log.warn("Could not compensate order saga {} yet: {}", sagaId, e.getMessage());
+                }
+            } catch (Exception recordFailure) {
+                log.warn("Could not record the failed compensation of order saga {}", sagaId);
+            }
+        }
+    }
+
+    /**
+     * Compensate every saga left unfinished for longer than the recovery delay
+     * (the delay keeps the worker away from sagas that are still running)
+     * 
+     * Runs once at startup - sagas of a crashed instance are resumed at
+     * once - and then on a fixed delay.
+     * 
+     * @return number of sagas processed
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${order.saga.recovery-interval:PT1M}",
+            fixedDelayString = "${order.saga.recovery-interval:PT1M}")
+    public int resumeUnfinished() {
+        List<OrderSaga> unfinished = sagaLog.findUnfinished(LocalDateTime.now().minus(recoveryDelay), batchSize);
+        for (OrderSaga saga : unfinished) {
+            compensate(saga.getId(), "Recovered unfinished saga (was " + saga.getStatus() + ")");
+        }
+        if (!unfinished.isEmpty()) {
+            log.info("Resumed {} unfinished order sagas", unfinished.size());
+        }
+        return unfinished.size();
+    }
+}
@@ -0,0 +1,203 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.ResourceNotFoundException;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.outbox.OrderEvents;
+import com.ecommerce.order.outbox.Outbox;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Saga state changes - each one a short local transaction
+ * 
+ * No remote calls happen in here, so no transaction ever waits on another
+ * service. Status changes lock the saga row, so the request thread and the
+ * recovery worker can't both act on the same saga.
+ */
+@Component
+@RequiredArgsConstructor
+public class OrderSagaLog {
+
+    // States a saga can still leave (everything but COMPLETED and the final states)
+    static final EnumSet<SagaStatus> UNFINISHED =
+            EnumSet.of(SagaStatus.STARTED, SagaStatus.STOCK_RESERVED, SagaStatus.COMPENSATING);
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OrderSagaRepository sagaRepository;
+    private final OrderRepository orderRepository;
+    private final Outbox outbox;
+
+    /**
+     * Record a new saga BEFORE anything is reserved
+     * 
+     * The caller picks the ID (OrderService.createOrder), so it can be
+     * recorded elsewhere first - see OrderIdempotency.
+     */
+    @Transactional
+    public OrderSaga start(String sagaId, Long userId) {
+        return sagaRepository.save(OrderSaga.builder()
+                .id(sagaId)
+                .userId(userId)
+                .status(SagaStatus.STARTED)
+                .build());
+    }
+
+    @Transactional
+    public void stockReserved(String sagaId) {
+        OrderSaga saga = lock(sagaId);
+        if (saga.getStatus() == SagaStatus.STARTED) {
+            saga.setStatus(SagaStatus.STOCK_RESERVED);
+        }
+    }
+
+    /**
+     * Save the order, mark the saga COMPLETED and record OrderCreated -
+     * in ONE transaction, so none of the three exists without the others
+     * 
+     * @throws IllegalStateException if the saga is already being compensated
+     *         (its stock is gone, so the order must not be saved)
+     */
+    @Transactional
+    public Order complete(String sagaId, Order order) {
+        OrderSaga saga = lock(sagaId);
+        if (saga.getStatus() != SagaStatus.STARTED && saga.getStatus() != SagaStatus.STOCK_RESERVED) {
+            throw new IllegalStateException("Order saga " + sagaId + " is " + saga.getStatus());
+        }
+        Order savedOrder = orderRepository.save(order);
+        saga.setStatus(SagaStatus.COMPLETED);
+        saga.setOrderId(savedOrder.getId());
+        outbox.append(OrderEvents.AGGREGATE_TYPE, savedOrder.getId(), OrderEvents.ORDER_CREATED,
+                new OrderEvents.Created(savedOrder.getId(), savedOrder.getUserId(),
+                        savedOrder.getStatus(), savedOrder.getTotalAmount()));
+        return savedOrder;
+    }
+
+    /**
+     * Move the saga to COMPENSATING
+     * 
+     * @return false if there is nothing to compensate (COMPLETED, or already in a final state)
+     */
+    @Transactional
+    public boolean beginCompensation(String sagaId, String reason) {
+        OrderSaga saga = lock(sagaId);
+        if (!UNFINISHED.contains(saga.getStatus())) {
+            return false;
+        }
+        if (saga.getStatus() != SagaStatus.COMPENSATING) {
+            // Keep the first reason when a compensation is retried
+            saga.setStatus(SagaStatus.COMPENSATING);
+            saga.setLastError(truncate(reason));
+        }
+        return true;
+    }
+
+    /**
+     * The saga's order is being cancelled: reopen the saga so its stock goes back
+     * 
+     * Joins the caller's transaction (MANDATORY), so the saga moves to
+     * COMPENSATING exactly when the order's CANCELLED status commits. The
+     * release itself runs after that commit (OrderSagaCompensation), and the
+     * recovery worker retries it if it fails.
+     * 
+     * @return the saga (= reservation) ID to release, or empty when the order
+     *         has no saga (it was placed before sagas existed)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<String> orderCancelled(Long orderId) {
+        return sagaRepository.findForUpdateByOrderId(orderId)
+                .map(saga -> {
+                    if (saga.getStatus() == SagaStatus.COMPLETED) {
+                        saga.setStatus(SagaStatus.COMPENSATING);
+                        saga.setLastError("Order " + orderId + " cancelled");
+                    }
+                    return saga.getId();
+                });
+    }
+
+    /**
+     * The request running this saga is presumed dead: make sure it can
+     * no longer save an order
+     * 
+     * An unfinished saga moves to COMPENSATING (complete() then refuses it,
+     * and the recovery worker gives its stock back).
+     * 
+     * @return the order the saga saved, or empty when it saved none
+     *         (or was never started)
+     */
+    @Transactional
+    public Optional<Long> abandon(String sagaId, String reason) {
+        return sagaRepository.findForUpdate(sagaId)
+                .flatMap(saga -> {
+                    if (saga.getOrderId() != null) {
+                        return Optional.of(saga.getOrderId());
+                    }
+                    if (saga.getStatus() == SagaStatus.STARTED || saga.getStatus() == SagaStatus.STOCK_RESERVED) {
+                        saga.setStatus(SagaStatus.COMPENSATING);
+                        saga.setLastError(truncate(reason));
+                    }
+                    return Optional.empty();
+                });
+    }
+
+    /**
+     * The stock is back: COMPENSATED, or CANCELLED when the saga had saved
+     * an order (which stays, with status CANCELLED)
+     */
+    @Transactional
+    public void compensated(String sagaId) {
+        OrderSaga saga = lock(sagaId);
+        saga.setStatus(saga.getOrderId() != null ? SagaStatus.CANCELLED : SagaStatus.COMPENSATED);
+    }
+
+    /**
+     * A compensation attempt failed; the saga stays as it is for the next
+     * try, or becomes FAILED once maxAttempts attempts have failed
+     * 
+     * @return true if the saga is now FAILED (nobody retries it any more)
+     */
+    @Transactional
+    public boolean compensationFailed(String sagaId, String error, int maxAttempts) {
+        OrderSaga saga = lock(sagaId);
+        saga.setAttempts(saga.getAttempts() + 1);
+        saga.setLastError(truncate(error));
+        if (saga.getAttempts() < maxAttempts) {
+            return false;
+        }
+        saga.setStatus(SagaStatus.FAILED);
+        return true;
+    }
+
+    /**
+     * Unfinished sagas not touched since "before", oldest first
+     */
+    @Transactional(readOnly = true)
+    public List<OrderSaga> findUnfinished(LocalDateTime before, int limit) {
+        return sagaRepository.findByStatusInAndUpdatedAtBeforeOrderByUpdatedAtAsc(
+                UNFINISHED, before, PageRequest.of(0, limit));
+    }
+
+    private OrderSaga lock(String sagaId) {
+        return sagaRepository.findForUpdate(sagaId)
+                .orElseThrow(() -> new ResourceNotFoundException("Order saga not found with id: " + sagaId));
+    }
+
+    private static String truncate(String message) {
+        if (message == null || message.length() <= MAX_ERROR_LENGTH) {
+            return message;
+        }
+        return message.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -6,16 +6,35 @@ import com.ecommerce.order.dto.*;
 import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderSaga;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.outbox.OrderEvents;
+import com.ecommerce.order.outbox.Outbox;
 import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ╔═══════════════════════════════════════════════════════════════════════════╗
@@ -41,6 +60,12 @@ import java.util.stream.Collectors;
 @Slf4j  // Lombok: Creates a logger named 'log'
 public class OrderService {
 
+    // Max user IDs sent in one GET /api/users/batch call
+    private static final int USER_BATCH_SIZE = 100;
+
+    // Upper bound for ?size= on paged endpoints
+    static final int MAX_PAGE_SIZE = 100;
+
     private final OrderRepository orderRepository;
     
     /*
@@ -52,6 +77,16 @@ public class OrderService {
     private final ProductClient productClient;  // Calls Product Service
     private final UserClient userClient;        // Calls User Service
 
+    private final ParallelLookups parallelLookups;  // Runs user + product lookups concurrently
+
+    private final OrderSagaLog sagaLog;                        // Saga state, one short transaction per step
+    private final OrderSagaCompensation sagaCompensation;      // Gives stock back when a saga fails
+    private final Outbox outbox;                               // Order events, published by OutboxRelay
+    private final OptimisticLockRetry optimisticLockRetry;     // Re-runs status changes that lose the version check
+
+    private final ObjectMapper objectMapper;    // Writes the NDJSON export
+    private final EntityManager entityManager;  // Detaches exported orders
+
     // ═══════════════════════════════════════════════════════════════════════
     // CREATE ORDER - The main orchestration method
     // ═══════════════════════════════════════════════════════════════════════
@@ -60,37 +95,62 @@ public class OrderService {
      * Create a new order
      * 
      * FLOW:
-     * 1. Verify user exists (call User Service)
-     * 2. For each item:
-     *    a. Get product details (call Product Service)
+     * 1+2. IN PARALLEL (one shared deadline, first failure cancels the other):
+     *    - Verify user exists (call User Service)
+     *    - Get details of ALL products in one batch call (call Product Service)
+     * 3. For each item:
+     *    a. Look up its product in the batch result
      *    b. Validate stock is available
-     * 3. Create order entity
-     * 4. Update stock for all products (call Product Service)
-     * 5. Save order
-     * 6. Return order with all details
+     * 4. Create order entity
+     * 5. Start the saga, reserve stock for all products in one call
+     *    (call Product Service, the saga ID is the reservation ID)
+     * 6. Save order and mark the saga COMPLETED
+     * 7. Return order with all details
      * 
      * TRANSACTION:
-     * If anything fails after stock update, we have a problem!
-     * In a real system, you'd use:
-     * - Saga pattern (compensating transactions)
-     * - Or 2-phase commit
-     * - Or messaging (eventual consistency)
+     * NOT @Transactional. Steps 1-5 are remote calls and in-memory work, and
+     * a transaction around them would keep a pooled connection busy for the
+     * whole time those HTTP calls take.
+     * 
+     * SAGA (stock lives in Product Service, the order here - no transaction
+     * can span both). Every step is written to the saga log (OrderSagaLog)
+     * in its own short local transaction before the next one runs:
+     *   STARTED → reserve stock → STOCK_RESERVED → save order + COMPLETED
+     * If anything fails after the saga started, OrderSagaCompensation gives
+     * the stock back. If that fails too, or this instance dies midway, its
+     * recovery worker finishes the job from the saga log.
      */
-    @Transactional
     public OrderDto createOrder(OrderRequest request) {
+        return createOrder(request, UUID.randomUUID().toString());
+    }
+
+    /**
+     * Same, with the saga (= reservation) ID chosen by the caller
+     * 
+     * OrderIdempotency records the ID with its key BEFORE the order is
+     * placed, so the saga log can later tell whether that key got an order.
+     */
+    public OrderDto createOrder(OrderRequest request, String sagaId) {
         log.info("Creating order for user: {}", request.getUserId());
         
         // ─────────────────────────────────────────────────────────────────────
-        // STEP 1: Verify user exists
+        // STEP 1: Verify user exists AND fetch products - at the same time
         // ─────────────────────────────────────────────────────────────────────
-        UserDto user = userClient.getUser(request.getUserId());
+        // The two calls don't depend on each other, so order creation waits
+        // for the slower one instead of both one after the other
+        CompletableFuture<UserDto> userLookup =
+                parallelLookups.submit(() -> userClient.getUser(request.getUserId()));
+        CompletableFuture<Map<Long, ProductDto>> productLookup =
+                parallelLookups.submit(() -> fetchProducts(request.getItems()));
+        parallelLookups.awaitAll(userLookup, productLookup);
+        
+        UserDto user = userLookup.join();
+        Map<Long, ProductDto> productsById = productLookup.join();
         log.info("User verified: {}", user.getEmail());
         
         // ─────────────────────────────────────────────────────────────────────
         // STEP 2: Validate all products and calculate total
         // ─────────────────────────────────────────────────────────────────────
-        BigDecimal totalAmount = BigDecimal.ZERO;
-        
         // Create the order entity
         Order order = Order.builder()
                 .userId(request.getUserId())
@@ -102,8 +162,10 @@ public class OrderService {
         
         // Process each order item
         for (OrderRequest.OrderItemRequest itemRequest : request.getItems()) {
-            // Call Product Service to get product details
-            ProductDto product = productClient.getProduct(itemRequest.getProductId());
+            ProductDto product = productsById.get(itemRequest.getProductId());
+            if (product == null) {
+                throw ResourceNotFoundException.forProduct(itemRequest.getProductId());
+            }
             
             // Validate stock
             if (product.getStockQuantity() < itemRequest.getQuantity()) {
@@ -115,8 +177,7 @@ public class OrderService {
             }
             
             // Calculate subtotal
-            BigDecimal subtotal = product.getPrice()
-                    .multiply(BigDecimal.valueOf(itemRequest.getQuantity()));
+            BigDecimal subtotal = subtotal(product.getPrice(), itemRequest.getQuantity());
             
             // Create order item
             OrderItem orderItem = OrderItem.builder()
@@ -128,49 +189,143 @@ public class OrderService {
                     .build();
             
             order.addItem(orderItem);
-            totalAmount = totalAmount.add(subtotal);
         }
         
-        order.setTotalAmount(totalAmount);
+        order.setTotalAmount(totalAmount(order.getItems()));
         
         // ─────────────────────────────────────────────────────────────────────
-        // STEP 3: Update stock for all products
+        // STEP 3: Record the saga, then reserve stock for all lines in ONE call
         // ─────────────────────────────────────────────────────────────────────
-        for (OrderItem item : order.getItems()) {
-            StockUpdateRequest stockUpdate = new StockUpdateRequest(-item.getQuantity());
-            productClient.updateStock(item.getProductId(), stockUpdate);
-            log.info("Stock updated for product {}: -{}", item.getProductId(), item.getQuantity());
+        // Product Service applies every line in a single transaction:
+        // either all lines are reserved, or it answers 409 and nothing is taken.
+        // The saga ID is the reservation ID, so a retried or late call can't
+        // take the stock twice, and the reservation can always be released.
+        OrderSaga saga = sagaLog.start(sagaId, request.getUserId());
+        List<StockReservationRequest.ReservationItem> reservationItems = order.getItems().stream()
+                .map(item -> new StockReservationRequest.ReservationItem(
+                        item.getProductId(), item.getQuantity()))
+                .collect(Collectors.toList());
+        Order savedOrder;
+        try {
+            productClient.reserveStock(new StockReservationRequest(saga.getId(), reservationItems));
+            sagaLog.stockReserved(saga.getId());
+            log.info("Stock reserved for {} order lines", reservationItems.size());
+            
+            // ─────────────────────────────────────────────────────────────────
+            // STEP 4: Save order + complete the saga, in one short transaction
+            // ─────────────────────────────────────────────────────────────────
+            savedOrder = sagaLog.complete(saga.getId(), order);
+        } catch (RuntimeException e) {
+            // Reservation rejected, timed out, or the order couldn't be saved:
+            // give the stock back (a no-op if nothing was reserved)
+            sagaCompensation.compensate(saga.getId(), e.getMessage());
+            throw e;
         }
-        
-        // ─────────────────────────────────────────────────────────────────────
-        // STEP 4: Save order
-        // ─────────────────────────────────────────────────────────────────────
-        Order savedOrder = orderRepository.save(order);
         log.info("Order created with ID: {}", savedOrder.getId());
         
         return mapToDto(savedOrder, user);
     }
 
+    /**
+     * Fetch every distinct product referenced by the order lines
+     * with a single batch call, keyed by product ID
+     * (a 40-line cart used to mean 40 sequential HTTP calls)
+     */
+    private Map<Long, ProductDto> fetchProducts(List<OrderRequest.OrderItemRequest> items) {
+        List<Long> productIds = items.stream()
+                .map(OrderRequest.OrderItemRequest::getProductId)
+                .distinct()
+                .collect(Collectors.toList());
+        
+        return productClient.getProducts(productIds).stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // READ OPERATIONS
     // ═══════════════════════════════════════════════════════════════════════
 
     public List<OrderDto> getAllOrders() {
-        return orderRepository.findAll().stream()
-                .map(order -> {
-                    try {
-                        UserDto user = userClient.getUser(order.getUserId());
-                        return mapToDto(order, user);
-                    } catch (Exception e) {
-                        // If user service is unavailable, return order without user details
-                        return mapToDto(order, null);
-                    }
-                })
+        return mapToDtosWithUsers(orderRepository.findAllWithItems());
+    }
+
+    /**
+     * One page of orders (offset paging), sorted by ID
+     */
+    public PageResponse<OrderDto> getOrdersPage(int page, int size) {
+        Page<Long> result = orderRepository.findIds(
+                PageRequest.of(Math.max(page, 0), clampPageSize(size), Sort.by("id")));
+        
+        return PageResponse.<OrderDto>builder()
+                .content(mapToDtosWithUsers(findWithItemsInOrder(result.getContent())))
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalElements(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Orders after a cursor (keyset paging)
+     * 
+     * Fetches size + 1 rows to know whether another page exists
+     * without running a COUNT query.
+     */
+    public PageResponse<OrderDto> getOrdersAfter(Long after, int size) {
+        int pageSize = clampPageSize(size);
+        List<Long> ids = orderRepository.findIdsAfter(
+                after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = ids.size() > pageSize;
+        List<Long> pageIds = hasMore ? ids.subList(0, pageSize) : ids;
+        
+        return PageResponse.<OrderDto>builder()
+                .content(mapToDtosWithUsers(findWithItemsInOrder(pageIds)))
+                .size(pageSize)
+                .nextCursor(hasMore ? pageIds.get(pageSize - 1) : null)
+                .build();
+    }
+
+    /**
+     * Second step of "page over IDs, then fetch": load the orders with their
+     * items in one query, in the order of the given IDs
+     */
+    private List<Order> findWithItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Order> ordersById = orderRepository.findWithItemsByIdIn(ids).stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        return ids.stream()
+                .map(ordersById::get)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Export ALL orders (with their items) as NDJSON, one order per line
+     * 
+     * Orders are streamed from the database and written as they are read,
+     * then detached (items too, via cascade) so memory stays flat however
+     * many orders there are. User details are not included - the export is
+     * meant for reconciliation, and looking users up would mean remote calls.
+     */
+    @Transactional(readOnly = true)
+    public void exportOrders(OutputStream out) throws IOException {
+        try (Stream<Order> orders = orderRepository.streamAllByOrderById()) {
+            Iterator<Order> iterator = orders.iterator();
+            while (iterator.hasNext()) {
+                Order order = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(mapToDto(order, null)));
+                out.write('\n');
+                entityManager.detach(order);
+            }
+        }
+        out.flush();
+    }
+
     public OrderDto getOrderById(Long id) {
-        Order order = orderRepository.findById(id)
+        Order order = orderRepository.findWithItemsById(id)
                 .orElseThrow(() -> ResourceNotFoundException.forOrder(id));
         
         UserDto user = null;
@@ -187,17 +342,97 @@ public class OrderService {
         // Verify user exists first
         UserDto user = userClient.getUser(userId);
         
-        return orderRepository.findByUserId(userId).stream()
+        return orderRepository.findWithItemsByUserId(userId).stream()
                 .map(order -> mapToDto(order, user))
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Map orders to DTOs, resolving every distinct user with batch calls
+     * instead of one call per order. Orders whose user could not be
+     * resolved are returned without user details.
+     */
+    private List<OrderDto> mapToDtosWithUsers(List<Order> orders) {
+        Map<Long, UserDto> usersById = fetchUsers(orders.stream()
+                .map(Order::getUserId)
+                .distinct()
+                .collect(Collectors.toList()));
+        
+        return orders.stream()
+                .map(order -> mapToDto(order, usersById.get(order.getUserId())))
+                .collect(Collectors.toList());
+    }
+
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Fetch users in chunks of USER_BATCH_SIZE, keyed by user ID
+     * 
+     * Chunking keeps the ?ids= query string a sane length. If a chunk fails
+     * (e.g. User Service is down) its users are just missing from the map.
+     */
+    private Map<Long, UserDto> fetchUsers(List<Long> userIds) {
+        Map<Long, UserDto> usersById = new HashMap<>();
+        for (int from = 0; from < userIds.size(); from += USER_BATCH_SIZE) {
+            List<Long> chunk = userIds.subList(from, Math.min(from + USER_BATCH_SIZE, userIds.size()));
+            try {
+                for (UserDto user : userClient.getUsers(chunk)) {
+                    usersById.put(user.getId(), user);
+                }
+            } catch (Exception e) {
+                log.warn("Could not fetch user details for {} users", chunk.size());
+            }
+        }
+        return usersById;
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // UPDATE ORDER STATUS
     // ═══════════════════════════════════════════════════════════════════════
 
-    @Transactional
+    /**
+     * Change an order's status (CANCELLED gives its stock back)
+     * 
+     * Order has a @Version: when another request changed the order since it
+     * was read, the change fails its version check and runs again on fresh
+     * data (see OptimisticLockRetry) - e.g. a cancel racing a ship sees the
+     * order SHIPPED on its retry instead of overwriting it.
+     * 
+     * The transaction only touches the database (status, saga, outbox row);
+     * no remote call runs while it holds the row lock and a connection. Stock
+     * goes back AFTER the commit, through the order's saga: releasing its
+     * reservation is idempotent, and a failed release is retried by the
+     * saga recovery worker.
+     */
     public OrderDto updateOrderStatus(Long id, OrderStatus newStatus) {
+        StatusChange change = optimisticLockRetry.inTransaction("updateOrderStatus(" + id + ")",
+                () -> changeStatus(id, newStatus));
+        Order order = change.order();
+        
+        if (change.releaseSagaId() != null) {
+            // Never throws: a failed release leaves the saga COMPENSATING for recovery
+            sagaCompensation.compensate(change.releaseSagaId(), "Order " + id + " cancelled");
+        } else if (newStatus == OrderStatus.CANCELLED) {
+            restoreStock(order);
+        }
+        
+        UserDto user = null;
+        try {
+            user = userClient.getUser(order.getUserId());
+        } catch (Exception e) {
+            log.warn("Could not fetch user details");
+        }
+        
+        return mapToDto(order, user);
+    }
+
+    // The committed order, and the saga whose reservation to release (if any)
+    private record StatusChange(Order order, String releaseSagaId) {
+    }
+
+    private StatusChange changeStatus(Long id, OrderStatus newStatus) {
         Order order = orderRepository.findById(id)
                 .orElseThrow(() -> ResourceNotFoundException.forOrder(id));
         
@@ -209,33 +444,63 @@ public class OrderService {
             );
         }
         
-        // If cancelling, restore stock
-        if (newStatus == OrderStatus.CANCELLED) {
-            for (OrderItem item : order.getItems()) {
-                StockUpdateRequest stockUpdate = new StockUpdateRequest(item.getQuantity());
-                productClient.updateStock(item.getProductId(), stockUpdate);
+        OrderStatus previousStatus = order.getStatus();
+        order.setStatus(newStatus);
+        Order updatedOrder = orderRepository.saveAndFlush(order);
+        // Mapped to a DTO after the transaction
+        Hibernate.initialize(updatedOrder.getItems());
+        
+        // Same transaction: the event is committed exactly when the new status is
+        outbox.append(OrderEvents.AGGREGATE_TYPE, updatedOrder.getId(), OrderEvents.ORDER_STATUS_CHANGED,
+                new OrderEvents.StatusChanged(updatedOrder.getId(), updatedOrder.getUserId(),
+                        previousStatus, newStatus));
+        
+        if (newStatus != OrderStatus.CANCELLED) {
+            return new StatusChange(updatedOrder, null);
+        }
+        // Reopens the order's saga in this transaction, so the release is
+        // recorded (and recoverable) exactly when the cancel commits
+        return new StatusChange(updatedOrder, sagaLog.orderCancelled(id).orElse(null));
+    }
+
+    /*
+     * Orders placed before sagas have no reservation to release: add their
+     * quantities back one line at a time. Runs once, after the commit
+     * (never inside the retried transaction), so a retry can't add twice.
+     */
+    private void restoreStock(Order order) {
+        for (OrderItem item : order.getItems()) {
+            try {
+                productClient.updateStock(item.getProductId(), new StockUpdateRequest(item.getQuantity()));
                 log.info("Stock restored for product {}: +{}", item.getProductId(), item.getQuantity());
+            } catch (Exception e) {
+                log.error("Could not restore stock for product {} (+{}) of cancelled order {}",
+                        item.getProductId(), item.getQuantity(), order.getId(), e);
             }
         }
-        
-        order.setStatus(newStatus);
-        Order updatedOrder = orderRepository.save(order);
-        
-        UserDto user = null;
-        try {
-            user = userClient.getUser(order.getUserId());
-        } catch (Exception e) {
-            log.warn("Could not fetch user details");
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // PRICING
+    // ═══════════════════════════════════════════════════════════════════════
+
+    static BigDecimal subtotal(BigDecimal unitPrice, int quantity) {
+        return unitPrice.multiply(BigDecimal.valueOf(quantity));
+    }
+
+    static BigDecimal totalAmount(List<OrderItem> items) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (OrderItem item : items) {
+            total = total.add(item.getSubtotal());
         }
-        
-        return mapToDto(updatedOrder, user);
+        return total;
     }
 
     // ═══════════════════════════════════════════════════════════════════════
-    // MAPPING
+    // MAPPING (package-private, like the pricing helpers, for the benchmarks module)
     // ═══════════════════════════════════════════════════════════════════════
 
-    private OrderDto mapToDto(Order order, UserDto user) {
+    OrderDto mapToDto(Order order, UserDto user) {
         List<OrderDto.OrderItemDto> itemDtos = order.getItems().stream()
                 .map(item -> OrderDto.OrderItemDto.builder()
                         .id(item.getId())
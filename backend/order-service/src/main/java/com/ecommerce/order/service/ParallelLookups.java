@@ -0,0 +1,228 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.LookupTimeoutException;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.support.ExecutorServiceAdapter;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    PARALLEL LOOKUPS (Fan-out / Fan-in)                    ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Runs independent remote calls AT THE SAME TIME.                          ║
+ * ║                                                                           ║
+ * ║  SEQUENTIAL:  getUser (80ms) → getProducts (120ms)   = 200ms              ║
+ * ║  PARALLEL:    getUser (80ms)                                              ║
+ * ║               getProducts (120ms)                    = 120ms              ║
+ * ║  Latency becomes max() of the calls instead of sum()                      ║
+ * ║                                                                           ║
+ * ║  RULES:                                                                   ║
+ * ║  - Bounded pool + bounded queue: a traffic spike can't create unlimited   ║
+ * ║    threads; when full, the lookup fails at once (LookupTimeoutException)  ║
+ * ║    - never on the request thread, outside the deadline                    ║
+ * ║  - With the virtual-threads profile (Java 21+): one virtual thread per    ║
+ * ║    lookup instead of the pool                                             ║
+ * ║  - One deadline for the whole group (order.lookup.timeout)                ║
+ * ║  - Fail fast: when one call fails, the others are cancelled and the       ║
+ * ║    ORIGINAL exception (e.g. FeignException.NotFound) is rethrown, so      ║
+ * ║    GlobalExceptionHandler answers exactly as before                       ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Slf4j
+public class ParallelLookups {
+
+    private final ExecutorService executor;
+    private final Duration timeout;
+
+    @Autowired
+    public ParallelLookups(
+            @Value("${order.lookup.pool-size:16}") int poolSize,
+            @Value("${order.lookup.queue-capacity:100}") int queueCapacity,
+            @Value("${order.lookup.timeout:3s}") Duration timeout,
+            Environment environment) {
+        // spring.threads.virtual.enabled=true AND running on Java 21+
+        this(timeout, Threading.VIRTUAL.isActive(environment)
+                ? virtualThreadExecutor()
+                : boundedExecutor(poolSize, queueCapacity));
+    }
+
+    // Platform-thread pool (used by unit tests)
+    public ParallelLookups(int poolSize, int queueCapacity, Duration timeout) {
+        this(timeout, boundedExecutor(poolSize, queueCapacity));
+    }
+
+    private ParallelLookups(Duration timeout, ExecutorService executor) {
+        this.executor = executor;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Fixed number of platform threads, bounded queue, and when both are
+     * full the lookup is rejected (see submit)
+     */
+    private static ExecutorService boundedExecutor(int poolSize, int queueCapacity) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(
+                poolSize, poolSize,
+                60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                task -> {
+                    Thread thread = new Thread(task, "order-lookup-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * One new virtual thread per lookup - no pool to size: a lookup blocked
+     * in Feign parks its virtual thread and frees the carrier thread
+     */
+    private static ExecutorService virtualThreadExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("order-lookup-");
+        executor.setVirtualThreads(true);
+        return new ExecutorServiceAdapter(executor);
+    }
+
+    /**
+     * Start a remote call on the lookup pool
+     *
+     * Cancelling the returned future also interrupts the thread running it
+     * (a plain CompletableFuture.supplyAsync can't do that).
+     *
+     * When the pool and its queue are full, the returned future has already
+     * failed with LookupTimeoutException: running the call on the caller's
+     * thread instead would take it out of the shared deadline and out of
+     * reach of cancellation, exactly when the service is overloaded.
+     */
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        Future<?> task;
+        try {
+            task = executor.submit(() -> {
+                try {
+                    result.complete(call.get());
+                } catch (Throwable e) {
+                    result.completeExceptionally(e);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn("Remote lookup rejected: the lookup pool is full");
+            result.completeExceptionally(
+                    new LookupTimeoutException("Too many remote lookups in flight, try again later"));
+            return result;
+        }
+        result.whenComplete((value, error) -> {
+            if (result.isCancelled()) {
+                task.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Wait until every lookup has finished, within one shared deadline
+     *
+     * @throws LookupTimeoutException when the deadline passes first
+     * @throws RuntimeException the original failure of the first lookup that failed
+     */
+    public void awaitAll(CompletableFuture<?>... lookups) {
+        // Fail fast: the first failure cancels the stragglers
+        for (CompletableFuture<?> lookup : lookups) {
+            lookup.whenComplete((value, error) -> {
+                if (error != null) {
+                    cancelAll(lookups);
+                }
+            });
+        }
+
+        try {
+            CompletableFuture.allOf(lookups).get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            cancelAll(lookups);
+            log.warn("Remote lookups did not finish within {}", timeout);
+            throw new LookupTimeoutException("Remote lookups did not finish within " + timeout);
+        } catch (ExecutionException e) {
+            throw rethrow(firstFailure(e.getCause(), lookups));
+        } catch (InterruptedException e) {
+            cancelAll(lookups);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for remote lookups", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Virtual threads aren't pooled, there is nothing to shut down
+        if (executor instanceof ThreadPoolExecutor pool) {
+            pool.shutdownNow();
+        }
+    }
+
+    private static void cancelAll(CompletableFuture<?>... lookups) {
+        for (CompletableFuture<?> lookup : lookups) {
+            lookup.cancel(true);
+        }
+    }
+
+    /**
+     * allOf() may report the CancellationException of a straggler we cancelled
+     * ourselves - find the lookup that really failed instead
+     */
+    private static Throwable firstFailure(Throwable reported, CompletableFuture<?>... lookups) {
+        Throwable cause = unwrap(reported);
+        if (!(cause instanceof CancellationException)) {
+            return cause;
+        }
+        for (CompletableFuture<?> lookup : lookups) {
+            if (lookup.isCompletedExceptionally() && !lookup.isCancelled()) {
+                try {
+                    lookup.join();
+                } catch (CompletionException e) {
+                    return unwrap(e);
+                }
+            }
+        }
+        return cause;
+    }
+
+    private static Throwable unwrap(Throwable error) {
+        while ((error instanceof CompletionException || error instanceof ExecutionException)
+                && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    private static RuntimeException rethrow(Throwable error) {
+        if (error instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        if (error instanceof Error fatal) {
+            throw fatal;
+        }
+        return new IllegalStateException("Remote lookup failed", error);
+    }
+}
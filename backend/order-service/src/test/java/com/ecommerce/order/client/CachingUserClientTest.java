@@ -0,0 +1,145 @@
+package com.ecommerce.order.client;
+
+import com.ecommerce.order.dto.UserDto;
+import feign.FeignException;
+import feign.Request;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.*;
+
+/**
+ * Caching User Client Unit Tests
+ * 
+ * The Feign client is mocked; we check how often it is actually called
+ */
+@ExtendWith(MockitoExtension.class)
+class CachingUserClientTest {
+
+    @Mock
+    private UserClient feignClient;
+
+    private CachingUserClient cachingUserClient;
+
+    private UserDto testUser;
+
+    @BeforeEach
+    void setUp() {
+        cachingUserClient = new CachingUserClient(
+                feignClient, Duration.ofMinutes(5), 100, Duration.ofSeconds(30));
+
+        testUser = UserDto.builder()
+                .id(1L)
+                .email("john@example.com")
+                .firstName("John")
+                .lastName("Doe")
+                .build();
+    }
+
+    @Test
+    @DisplayName("Should call User Service once for repeated lookups")
+    void getUser_CalledTwice_CallsUserServiceOnce() {
+        when(feignClient.getUser(1L)).thenReturn(testUser);
+
+        cachingUserClient.getUser(1L);
+        UserDto result = cachingUserClient.getUser(1L);
+
+        assertThat(result.getEmail()).isEqualTo("john@example.com");
+        verify(feignClient, times(1)).getUser(1L);
+    }
+
+    @Test
+    @DisplayName("Should remember a 404 and throw a new NotFound without calling User Service again")
+    void getUser_WhenNotFound_CachesNegativeResult() {
+        Request request = Request.create(Request.HttpMethod.GET, "http://user-service/api/users/999",
+                Map.of(), null, StandardCharsets.UTF_8, null);
+        FeignException.NotFound notFound = new FeignException.NotFound(
+                "[404] during [GET] to [http://user-service/api/users/999]", request, null, null);
+        when(feignClient.getUser(999L)).thenThrow(notFound);
+
+        Throwable first = catchThrowable(() -> cachingUserClient.getUser(999L));
+        Throwable second = catchThrowable(() -> cachingUserClient.getUser(999L));
+
+        // Never one exception object shared between callers (stack traces, suppressed, ...)
+        assertThat(first).isInstanceOf(FeignException.NotFound.class).isNotSameAs(second);
+        assertThat(second).isInstanceOf(FeignException.NotFound.class).isNotSameAs(notFound)
+                .hasMessage(notFound.getMessage());
+        assertThat(((FeignException) second).status()).isEqualTo(404);
+        verify(feignClient, times(1)).getUser(999L);
+    }
+
+    @Test
+    @DisplayName("Should call User Service once when many threads miss the same user at once")
+    void getUser_ConcurrentMisses_CallsUserServiceOnce() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(feignClient.getUser(1L)).thenAnswer(invocation -> {
+            loading.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return testUser;
+        });
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<UserDto>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(pool.submit(() -> cachingUserClient.getUser(1L)));
+            }
+            assertThat(loading.await(5, TimeUnit.SECONDS)).isTrue();
+            Thread.sleep(50);  // let the other threads reach the cache while the first one loads
+            release.countDown();
+
+            for (Future<UserDto> result : results) {
+                assertThat(result.get(5, TimeUnit.SECONDS)).isEqualTo(testUser);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        verify(feignClient, times(1)).getUser(1L);
+    }
+
+    @Test
+    @DisplayName("Should not cache other failures")
+    void getUser_WhenServiceUnavailable_DoesNotCache() {
+        when(feignClient.getUser(1L))
+                .thenThrow(mock(FeignException.ServiceUnavailable.class))
+                .thenReturn(testUser);
+
+        assertThatThrownBy(() -> cachingUserClient.getUser(1L))
+                .isInstanceOf(FeignException.ServiceUnavailable.class);
+        assertThat(cachingUserClient.getUser(1L)).isEqualTo(testUser);
+    }
+
+    @Test
+    @DisplayName("Should fetch only uncached users in a batch lookup")
+    void getUsers_FetchesOnlyMissingIds() {
+        UserDto secondUser = UserDto.builder().id(2L).email("jane@example.com").build();
+        when(feignClient.getUser(1L)).thenReturn(testUser);
+        when(feignClient.getUsers(List.of(2L))).thenReturn(List.of(secondUser));
+
+        cachingUserClient.getUser(1L);
+        List<UserDto> result = cachingUserClient.getUsers(List.of(1L, 2L));
+
+        assertThat(result).extracting(UserDto::getId).containsExactlyInAnyOrder(1L, 2L);
+        verify(feignClient).getUsers(List.of(2L));
+    }
+}
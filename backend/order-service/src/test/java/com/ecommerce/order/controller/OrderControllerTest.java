@@ -2,8 +2,11 @@ package com.ecommerce.order.controller;
 
 import com.ecommerce.order.dto.OrderDto;
 import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.PageResponse;
+import com.ecommerce.order.exception.IdempotencyKeyException;
 import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.service.OrderIdempotency;
 import com.ecommerce.order.service.OrderService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +20,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.Arrays;
 
 import static org.hamcrest.Matchers.*;
@@ -41,6 +45,9 @@ class OrderControllerTest {
     @MockBean
     private OrderService orderService;
 
+    @MockBean
+    private OrderIdempotency orderIdempotency;
+
     private OrderDto testOrderDto;
 
     @BeforeEach
@@ -81,6 +88,21 @@ class OrderControllerTest {
                     .andExpect(jsonPath("$[0].id", is(1)))
                     .andExpect(jsonPath("$[0].status", is("PENDING")));
         }
+
+        @Test
+        @DisplayName("Returns 200 and a keyset page when after is given")
+        void getOrdersAfter_ReturnsCursorPage() throws Exception {
+            PageResponse<OrderDto> page = PageResponse.<OrderDto>builder()
+                    .content(Arrays.asList(testOrderDto))
+                    .size(1).nextCursor(1L)
+                    .build();
+            when(orderService.getOrdersAfter(0L, 1)).thenReturn(page);
+
+            mockMvc.perform(get("/api/orders").param("after", "0").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.nextCursor", is(1)));
+        }
     }
 
     @Nested
@@ -187,6 +209,77 @@ class OrderControllerTest {
                             .content(objectMapper.writeValueAsString(invalidRequest)))
                     .andExpect(status().isBadRequest());
         }
+
+        @Test
+        @DisplayName("Without an Idempotency-Key the order is placed directly")
+        void createOrder_WithoutIdempotencyKey_PlacesOrder() throws Exception {
+            when(orderService.createOrder(any(OrderRequest.class))).thenReturn(testOrderDto);
+
+            mockMvc.perform(post("/api/orders")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validRequest())))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().doesNotExist("Idempotent-Replayed"));
+
+            verifyNoInteractions(orderIdempotency);
+        }
+
+        @Test
+        @DisplayName("A retry with the same Idempotency-Key gets the stored order back")
+        void createOrder_WithReplayedKey_Returns201AndReplayedHeader() throws Exception {
+            when(orderIdempotency.createOrder(eq("key-1"), any(OrderRequest.class)))
+                    .thenReturn(new OrderIdempotency.Result(testOrderDto, true));
+
+            mockMvc.perform(post("/api/orders")
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validRequest())))
+                    .andExpect(status().isCreated())
+                    .andExpect(header().string("Idempotent-Replayed", "true"))
+                    .andExpect(jsonPath("$.id", is(1)));
+
+            verify(orderService, never()).createOrder(any());
+        }
+
+        @Test
+        @DisplayName("Returns 409 with Retry-After while a request with the same key is still running")
+        void createOrder_WithKeyInProgress_Returns409() throws Exception {
+            when(orderIdempotency.createOrder(eq("key-1"), any(OrderRequest.class)))
+                    .thenThrow(IdempotencyKeyException.inProgress("key-1", Duration.ofMillis(1500)));
+
+            mockMvc.perform(post("/api/orders")
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validRequest())))
+                    .andExpect(status().isConflict())
+                    .andExpect(header().string("Retry-After", "2"));
+        }
+
+        @Test
+        @DisplayName("Returns 422 when the key was used for a different request")
+        void createOrder_WithReusedKey_Returns422() throws Exception {
+            when(orderIdempotency.createOrder(eq("key-1"), any(OrderRequest.class)))
+                    .thenThrow(IdempotencyKeyException.reused("key-1"));
+
+            mockMvc.perform(post("/api/orders")
+                            .header("Idempotency-Key", "key-1")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(validRequest())))
+                    .andExpect(status().isUnprocessableEntity());
+        }
+
+        private OrderRequest validRequest() {
+            return OrderRequest.builder()
+                    .userId(1L)
+                    .shippingAddress("123 Main St")
+                    .items(Arrays.asList(
+                            OrderRequest.OrderItemRequest.builder()
+                                    .productId(1L)
+                                    .quantity(2)
+                                    .build()
+                    ))
+                    .build();
+        }
     }
 
     @Nested
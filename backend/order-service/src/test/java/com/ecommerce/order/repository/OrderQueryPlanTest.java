@@ -0,0 +1,107 @@
+package com.ecommerce.order.repository;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks with EXPLAIN that OrderRepository's finders use an index
+ *
+ * Seeds 50,000 orders (3 items each) and ANALYZEs so the planner has real
+ * statistics, runs the finder, then EXPLAINs the SQL Hibernate generated
+ * (recorded by SqlCapture). A missing index shows up as "tableScan".
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ecommerce.order.repository.SqlCapture")
+class OrderQueryPlanTest {
+
+    private static final int ORDERS = 50_000;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        /*
+         * ANALYZE commits, so the rows outlive each test's rollback: seed once.
+         * The extra property gives this class its own context and database,
+         * so the other repository tests never see these rows.
+         */
+        SqlCapture.clear();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders", Integer.class) > 0) {
+            return;
+        }
+        // 5,000 users with 10 orders each; like production, most orders are DELIVERED
+        jdbcTemplate.update("""
+                INSERT INTO orders (id, user_id, total_amount, status, created_at, updated_at, version)
+                SELECT NEXT VALUE FOR orders_seq, MOD(X, 5000) + 1, 99.99,
+                       CASE MOD(X, 100) WHEN 0 THEN 'PENDING' WHEN 1 THEN 'CONFIRMED'
+                                        WHEN 2 THEN 'SHIPPED' WHEN 3 THEN 'CANCELLED' ELSE 'DELIVERED' END,
+                       DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00'),
+                       DATEADD('MINUTE', X, TIMESTAMP '2024-01-01 00:00:00'), 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, ORDERS);
+        jdbcTemplate.update("""
+                INSERT INTO order_items (id, order_id, product_id, product_name, quantity, unit_price, subtotal)
+                SELECT NEXT VALUE FOR order_items_seq, o.id, MOD(o.id * 3 + r.X, 1000) + 1, 'Product', 1, 33.33, 33.33
+                FROM orders o CROSS JOIN SYSTEM_RANGE(1, 3) r
+                """);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("findByUserId uses the (user_id, status) index")
+    void findByUserId_UsesIndex() {
+        orderRepository.findByUserId(42L);
+
+        assertThat(explain(42L)).contains("IDX_ORDERS_USER_ID_STATUS").doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("findByUserIdAndStatus uses the (user_id, status) index")
+    void findByUserIdAndStatus_UsesIndex() {
+        orderRepository.findByUserIdAndStatus(42L, OrderStatus.DELIVERED);
+
+        assertThat(explain(42L, "DELIVERED"))
+                .contains("IDX_ORDERS_USER_ID_STATUS: USER_ID = ?1 AND STATUS = ?2")
+                .doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("findByStatus uses the (status, created_at) index")
+    void findByStatus_UsesIndex() {
+        orderRepository.findByStatus(OrderStatus.PENDING);
+
+        assertThat(explain("PENDING")).contains("IDX_ORDERS_STATUS_CREATED_AT").doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("Loading an order's items uses the order_id index")
+    void loadItems_UsesIndex() {
+        Long orderId = jdbcTemplate.queryForObject("SELECT MIN(id) FROM orders", Long.class);
+        Order order = orderRepository.findById(orderId).orElseThrow();
+        assertThat(order.getItems().size()).isEqualTo(3);
+
+        assertThat(explain(orderId)).contains("IDX_ORDER_ITEMS_ORDER_ID").doesNotContain("tableScan");
+    }
+
+    /**
+     * EXPLAIN the last SELECT the repository ran, with the same parameters
+     * (on one line - H2 spreads the plan over several)
+     */
+    private String explain(Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + SqlCapture.lastSelect(), String.class, parameters);
+        return plan.replaceAll("\\s+", " ");
+    }
+}
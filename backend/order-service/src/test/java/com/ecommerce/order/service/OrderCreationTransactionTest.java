@@ -0,0 +1,159 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.client.UserClient;
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.dto.ProductDto;
+import com.ecommerce.order.dto.StockReservationRequest;
+import com.ecommerce.order.dto.StockReservationResponse;
+import com.ecommerce.order.dto.UserDto;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.outbox.OrderEvents;
+import com.ecommerce.order.outbox.Outbox;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * createOrder through the real Spring proxy and a real database
+ *
+ * Checks that no database transaction is open while Product Service is
+ * called (a transaction would pin a pooled connection for the whole HTTP
+ * call), that the order is still saved with its items, and that the saga
+ * log ends up COMPLETED or COMPENSATED.
+ * Runs without the usual test transaction (NOT_SUPPORTED), like a request.
+ */
+@DataJpaTest
+@Import({OrderService.class, OrderSagaLog.class, OrderSagaCompensation.class, Outbox.class, OptimisticLockRetry.class,
+        OrderCreationTransactionTest.Beans.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderCreationTransactionTest {
+
+    @TestConfiguration
+    static class Beans {
+        @Bean
+        ParallelLookups parallelLookups() {
+            return new ParallelLookups(2, 10, Duration.ofSeconds(5));
+        }
+
+        @Bean
+        ObjectMapper objectMapper() {
+            return new ObjectMapper();
+        }
+    }
+
+    @Autowired
+    private OrderService orderService;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderSagaRepository sagaRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @MockBean
+    private ProductClient productClient;
+
+    @MockBean
+    private UserClient userClient;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+        sagaRepository.deleteAll();
+        orderRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Stock is reserved outside any transaction, then the order is saved")
+    void createOrder_ReservesStockOutsideTransaction() {
+        AtomicBoolean transactionDuringReservation = new AtomicBoolean(true);
+        when(userClient.getUser(1L)).thenReturn(UserDto.builder().id(1L).email("john@example.com")
+                .firstName("John").lastName("Doe").address("123 Main St").build());
+        when(productClient.getProducts(List.of(1L, 2L))).thenReturn(List.of(product(1L), product(2L)));
+        when(productClient.reserveStock(any(StockReservationRequest.class))).thenAnswer(invocation -> {
+            transactionDuringReservation.set(TransactionSynchronizationManager.isActualTransactionActive());
+            return new StockReservationResponse(true, List.of());
+        });
+
+        OrderDto created = orderService.createOrder(OrderRequest.builder()
+                .userId(1L)
+                .items(List.of(
+                        OrderRequest.OrderItemRequest.builder().productId(1L).quantity(2).build(),
+                        OrderRequest.OrderItemRequest.builder().productId(2L).quantity(1).build()))
+                .build());
+
+        assertThat(transactionDuringReservation).isFalse();
+        assertThat(orderRepository.findWithItemsById(created.getId()))
+                .hasValueSatisfying(order -> assertThat(order.getItems().size()).isEqualTo(2));
+        assertThat(sagaRepository.findAll()).singleElement().satisfies(saga -> {
+            assertThat(saga.getStatus()).isEqualTo(SagaStatus.COMPLETED);
+            assertThat(saga.getOrderId()).isEqualTo(created.getId());
+        });
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getEventType()).isEqualTo(OrderEvents.ORDER_CREATED);
+            assertThat(event.getAggregateId()).isEqualTo(String.valueOf(created.getId()));
+        });
+    }
+
+    @Test
+    @DisplayName("A rejected reservation leaves no order and a compensated saga")
+    void createOrder_WhenReservationRejected_CompensatesSaga() {
+        when(userClient.getUser(1L)).thenReturn(UserDto.builder().id(1L).email("john@example.com").build());
+        when(productClient.getProducts(List.of(1L))).thenReturn(List.of(product(1L)));
+        when(productClient.reserveStock(any(StockReservationRequest.class)))
+                .thenThrow(new IllegalStateException("Insufficient stock"));
+
+        assertThatThrownBy(() -> orderService.createOrder(OrderRequest.builder()
+                .userId(1L)
+                .shippingAddress("123 Main St")
+                .items(List.of(OrderRequest.OrderItemRequest.builder().productId(1L).quantity(1).build()))
+                .build()))
+                .hasMessage("Insufficient stock");
+
+        assertThat(orderRepository.count()).isZero();
+        assertThat(outboxRepository.count()).isZero();
+        OrderSaga saga = sagaRepository.findAll().get(0);
+        assertThat(saga.getStatus()).isEqualTo(SagaStatus.COMPENSATED);
+        assertThat(saga.getLastError()).isEqualTo("Insufficient stock");
+        verify(productClient).releaseStock(saga.getId());
+    }
+
+    private static ProductDto product(Long id) {
+        return ProductDto.builder()
+                .id(id)
+                .name("Product " + id)
+                .price(new BigDecimal("10.00"))
+                .stockQuantity(100)
+                .build();
+    }
+}
@@ -0,0 +1,261 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.OrderRequest;
+import com.ecommerce.order.exception.IdempotencyKeyException;
+import com.ecommerce.order.model.IdempotencyRecord;
+import com.ecommerce.order.model.IdempotencyStatus;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Idempotency-Key handling against a real database, with OrderService mocked
+ *
+ * Runs without the usual test transaction (NOT_SUPPORTED): every key
+ * operation commits on its own, like during a request.
+ */
+@DataJpaTest
+@Import({OrderIdempotency.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "order.idempotency.retry-after=2s",
+        "order.idempotency.in-progress-timeout=1m"
+})
+class OrderIdempotencyTest {
+
+    private static final String SAGA_ID = "saga-1";
+
+    @Autowired
+    private OrderIdempotency idempotency;
+
+    @Autowired
+    private IdempotencyRecordRepository repository;
+
+    @MockBean
+    private OrderService orderService;
+
+    @MockBean
+    private OrderSagaLog sagaLog;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should place the order once and replay the stored response on a retry")
+    void createOrder_WhenRetried_ReplaysStoredOrder() {
+        when(orderService.createOrder(any(), anyString())).thenReturn(order(7L));
+
+        OrderIdempotency.Result first = idempotency.createOrder("key-1", request(2));
+        OrderIdempotency.Result retry = idempotency.createOrder("key-1", request(2));
+
+        assertThat(first.replayed()).isFalse();
+        assertThat(retry.replayed()).isTrue();
+        assertThat(retry.order()).isEqualTo(first.order());
+        verify(orderService, times(1)).createOrder(any(), anyString());
+        assertThat(repository.findByKey("key-1")).hasValueSatisfying(record -> {
+            assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+            assertThat(record.getOrderId()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should refuse a key reused for a different request with 422")
+    void createOrder_WithDifferentBody_Throws422() {
+        when(orderService.createOrder(any(), anyString())).thenReturn(order(7L));
+        idempotency.createOrder("key-1", request(2));
+
+        assertThatThrownBy(() -> idempotency.createOrder("key-1", request(3)))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.UNPROCESSABLE_ENTITY));
+        verify(orderService, times(1)).createOrder(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should release the key when placing the order fails, so a retry runs again")
+    void createOrder_WhenPlacementFails_ReleasesKey() {
+        when(orderService.createOrder(any(), anyString()))
+                .thenThrow(new IllegalArgumentException("Insufficient stock"))
+                .thenReturn(order(7L));
+
+        assertThatThrownBy(() -> idempotency.createOrder("key-1", request(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThat(repository.findByKey("key-1")).isEmpty();
+
+        assertThat(idempotency.createOrder("key-1", request(2)).replayed()).isFalse();
+        verify(orderService, times(2)).createOrder(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should answer 409 with Retry-After while the same key is in progress")
+    void createOrder_WhenKeyInProgress_Throws409() {
+        claimedAt("key-1", request(2), LocalDateTime.now(), SAGA_ID);
+
+        assertThatThrownBy(() -> idempotency.createOrder("key-1", request(2)))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class, e -> {
+                    assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT);
+                    assertThat(e.getRetryAfter()).isEqualTo(Duration.ofSeconds(2));
+                });
+        verifyNoInteractions(orderService, sagaLog);
+    }
+
+    @Test
+    @DisplayName("Should turn a concurrent duplicate away, then replay the order once placed")
+    void createOrder_ConcurrentDuplicate_Gets409ThenReplays() throws Exception {
+        CountDownLatch placing = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(orderService.createOrder(any(), anyString())).thenAnswer(invocation -> {
+            placing.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return order(7L);
+        });
+
+        CompletableFuture<OrderIdempotency.Result> first =
+                CompletableFuture.supplyAsync(() -> idempotency.createOrder("key-1", request(2)));
+        assertThat(placing.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThatThrownBy(() -> idempotency.createOrder("key-1", request(2)))
+                .isInstanceOfSatisfying(IdempotencyKeyException.class,
+                        e -> assertThat(e.getStatus()).isEqualTo(HttpStatus.CONFLICT));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS).replayed()).isFalse();
+        assertThat(idempotency.createOrder("key-1", request(2))).satisfies(result -> {
+            assertThat(result.replayed()).isTrue();
+            assertThat(result.order().getId()).isEqualTo(7L);
+        });
+        verify(orderService, times(1)).createOrder(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("Should record the saga ID with the claim before placing the order")
+    void createOrder_ClaimsKeyWithSagaId() {
+        ArgumentCaptor<String> sagaId = ArgumentCaptor.forClass(String.class);
+        when(orderService.createOrder(any(), sagaId.capture())).thenAnswer(invocation -> {
+            assertThat(repository.findByKey("key-1")).hasValueSatisfying(record -> {
+                assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.IN_PROGRESS);
+                assertThat(record.getSagaId()).isEqualTo(invocation.getArgument(1));
+            });
+            return order(7L);
+        });
+
+        idempotency.createOrder("key-1", request(2));
+
+        assertThat(repository.findByKey("key-1").orElseThrow().getSagaId()).isEqualTo(sagaId.getValue());
+    }
+
+    @Test
+    @DisplayName("Should complete an abandoned claim with the order its saga saved, not order again")
+    void createOrder_WhenAbandonedSagaSavedOrder_ReplaysIt() {
+        claimedAt("key-1", request(2), LocalDateTime.now().minusMinutes(5), SAGA_ID);
+        when(sagaLog.abandon(eq(SAGA_ID), any())).thenReturn(Optional.of(7L));
+        when(orderService.getOrderById(7L)).thenReturn(order(7L));
+
+        OrderIdempotency.Result result = idempotency.createOrder("key-1", request(2));
+
+        assertThat(result.replayed()).isTrue();
+        assertThat(result.order().getId()).isEqualTo(7L);
+        verify(orderService, never()).createOrder(any(), anyString());
+        assertThat(repository.findByKey("key-1")).hasValueSatisfying(record -> {
+            assertThat(record.getStatus()).isEqualTo(IdempotencyStatus.COMPLETED);
+            assertThat(record.getOrderId()).isEqualTo(7L);
+        });
+    }
+
+    @Test
+    @DisplayName("Should take over an abandoned claim whose saga saved no order")
+    void createOrder_WhenAbandonedSagaSavedNothing_PlacesOrder() {
+        claimedAt("key-1", request(2), LocalDateTime.now().minusMinutes(5), SAGA_ID);
+        when(sagaLog.abandon(eq(SAGA_ID), any())).thenReturn(Optional.empty());
+        when(orderService.createOrder(any(), anyString())).thenReturn(order(7L));
+
+        assertThat(idempotency.createOrder("key-1", request(2)).replayed()).isFalse();
+        verify(sagaLog).abandon(eq(SAGA_ID), any());
+        verify(orderService).createOrder(any(), argThat(sagaId -> !sagaId.equals(SAGA_ID)));
+    }
+
+    @Test
+    @DisplayName("Should refuse a blank or oversized key")
+    void createOrder_WithInvalidKey_Throws() {
+        assertThatThrownBy(() -> idempotency.createOrder(" ", request(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> idempotency.createOrder("k".repeat(OrderIdempotency.MAX_KEY_LENGTH + 1), request(2)))
+                .isInstanceOf(IllegalArgumentException.class);
+        verifyNoInteractions(orderService);
+    }
+
+    @Test
+    @DisplayName("Should purge only expired keys")
+    void purgeExpired_DeletesExpiredKeys() {
+        LocalDateTime now = LocalDateTime.now();
+        repository.insertInProgress("expired", "hash", SAGA_ID, now.minusDays(2), now.minusDays(1));
+        repository.insertInProgress("live", "hash", SAGA_ID, now, now.plusDays(1));
+
+        assertThat(idempotency.purgeExpired()).isEqualTo(1);
+        assertThat(repository.findAll()).extracting(IdempotencyRecord::getIdempotencyKey)
+                .containsExactly("live");
+    }
+
+    // An IN_PROGRESS claim for this request, made by "another" request at createdAt
+    private void claimedAt(String key, OrderRequest request, LocalDateTime createdAt, String sagaId) {
+        when(orderService.createOrder(any(), anyString())).thenReturn(order(1L));
+        idempotency.createOrder(key, request);
+        IdempotencyRecord record = repository.findByKey(key).orElseThrow();
+        repository.deleteAll();
+        repository.insertInProgress(key, record.getRequestHash(), sagaId,
+                createdAt.truncatedTo(ChronoUnit.MILLIS), createdAt.plusDays(1));
+        reset(orderService);
+    }
+
+    private static OrderRequest request(int quantity) {
+        return OrderRequest.builder()
+                .userId(1L)
+                .shippingAddress("123 Main St")
+                .items(List.of(OrderRequest.OrderItemRequest.builder()
+                        .productId(1L)
+                        .quantity(quantity)
+                        .build()))
+                .build();
+    }
+
+    private static OrderDto order(Long id) {
+        return OrderDto.builder()
+                .id(id)
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("19.98"))
+                .shippingAddress("123 Main St")
+                .build();
+    }
+}
@@ -0,0 +1,209 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.client.UserClient;
+import com.ecommerce.order.dto.OrderDto;
+import com.ecommerce.order.dto.PageResponse;
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.outbox.Outbox;
+import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Guards against N+1 queries when listing orders, and against one
+ * INSERT round trip per line when saving them
+ *
+ * Runs the real OrderService against H2 (remote clients mocked) and counts
+ * the JDBC statements Hibernate prepared. Every listing must cost a fixed
+ * number of statements, however many orders it returns.
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderQueryCountTest {
+
+    private static final int ORDERS = 30;
+    private static final int ITEMS_PER_ORDER = 3;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private OrderService orderService;
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, mock(ProductClient.class), mock(UserClient.class),
+                new ParallelLookups(2, 10, Duration.ofSeconds(5)),
+                mock(OrderSagaLog.class), mock(OrderSagaCompensation.class), mock(Outbox.class),
+                mock(OptimisticLockRetry.class), new ObjectMapper().findAndRegisterModules(),
+                entityManager.getEntityManager());
+
+        for (int i = 0; i < ORDERS; i++) {
+            Order order = Order.builder()
+                    .userId(1L)
+                    .status(i % 2 == 0 ? OrderStatus.PENDING : OrderStatus.SHIPPED)
+                    .totalAmount(new BigDecimal("30.00"))
+                    .build();
+            for (int j = 0; j < ITEMS_PER_ORDER; j++) {
+                order.addItem(OrderItem.builder()
+                        .productId((long) j + 1)
+                        .productName("Product " + j)
+                        .quantity(1)
+                        .unitPrice(BigDecimal.TEN)
+                        .subtotal(BigDecimal.TEN)
+                        .build());
+            }
+            entityManager.persist(order);
+        }
+        // Start from an empty persistence context, like a new request
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    @DisplayName("Saving a 50-line order sends the items as one JDBC batch, not 50 inserts")
+    void saveLargeOrder_BatchesItemInserts() {
+        Order order = Order.builder()
+                .userId(2L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("500.00"))
+                .build();
+        for (int j = 0; j < 50; j++) {
+            order.addItem(OrderItem.builder()
+                    .productId((long) j + 1)
+                    .productName("Product " + j)
+                    .quantity(1)
+                    .unitPrice(BigDecimal.TEN)
+                    .subtotal(BigDecimal.TEN)
+                    .build());
+        }
+
+        orderRepository.save(order);
+        entityManager.flush();
+
+        // Orders INSERT + ONE batched order_items INSERT + sequence calls
+        // (at most one per sequence; with IDENTITY this was 51 statements)
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(51);
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    @Test
+    @DisplayName("Lazy items on a plain finder cost one query per order (the N+1 problem)")
+    void plainFinder_IssuesOneQueryPerOrder() {
+        orderRepository.findByUserId(1L).forEach(order -> order.getItems().size());
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + ORDERS);
+    }
+
+    @Test
+    @DisplayName("getAllOrders loads orders and items in one query")
+    void getAllOrders_OneQuery() {
+        List<OrderDto> orders = orderService.getAllOrders();
+
+        assertAllItemsLoaded(orders, ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getOrdersByUserId loads orders and items in one query")
+    void getOrdersByUserId_OneQuery() {
+        List<OrderDto> orders = orderService.getOrdersByUserId(1L);
+
+        assertAllItemsLoaded(orders, ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("findWithItemsByStatus loads orders and items in one query")
+    void findWithItemsByStatus_OneQuery() {
+        List<Order> orders = orderRepository.findWithItemsByStatus(OrderStatus.PENDING);
+        orders.forEach(order -> order.getItems().size());
+
+        assertThat(orders).hasSize(ORDERS / 2);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("getOrdersPage: page of IDs, COUNT, then one fetch - and pages in the database")
+    void getOrdersPage_ThreeQueries() {
+        PageResponse<OrderDto> page = orderService.getOrdersPage(1, 10);
+
+        assertAllItemsLoaded(page.getContent(), 10);
+        assertThat(page.getTotalElements()).isEqualTo(ORDERS);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(3);
+        // Only the page's orders were loaded, not the whole table
+        assertThat(statistics.getEntityLoadCount()).isEqualTo(10 + 10 * ITEMS_PER_ORDER);
+    }
+
+    @Test
+    @DisplayName("getOrdersAfter: IDs after the cursor, then one fetch")
+    void getOrdersAfter_TwoQueries() {
+        PageResponse<OrderDto> page = orderService.getOrdersAfter(0L, 10);
+
+        assertAllItemsLoaded(page.getContent(), 10);
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("exportOrders streams orders and their items in one query")
+    void exportOrders_OneQuery() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        orderService.exportOrders(out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        List<OrderDto> orders = new ArrayList<>();
+        for (String line : lines) {
+            orders.add(objectMapper.readValue(line, OrderDto.class));
+        }
+        assertAllItemsLoaded(orders, ORDERS);
+        assertThat(orders).extracting(OrderDto::getId).isSorted().doesNotHaveDuplicates();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Listed orders are loaded read-only (no dirty-checking snapshots)")
+    void listedOrders_AreReadOnly() {
+        List<Order> orders = orderRepository.findWithItemsByUserId(1L);
+
+        Session session = entityManager.getEntityManager().unwrap(Session.class);
+        assertThat(orders).allSatisfy(order -> assertThat(session.isReadOnly(order)).isTrue());
+    }
+
+    private static void assertAllItemsLoaded(List<OrderDto> orders, int expectedOrders) {
+        assertThat(orders).hasSize(expectedOrders);
+        assertThat(orders).allSatisfy(order -> assertThat(order.getItems()).hasSize(ITEMS_PER_ORDER));
+    }
+}
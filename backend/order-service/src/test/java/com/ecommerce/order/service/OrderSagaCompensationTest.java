@@ -0,0 +1,105 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.client.ProductClient;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.SagaStatus;
+import feign.FeignException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Order Saga Compensation Unit Tests
+ */
+@ExtendWith(MockitoExtension.class)
+class OrderSagaCompensationTest {
+
+    @Mock
+    private OrderSagaLog sagaLog;
+
+    @Mock
+    private ProductClient productClient;
+
+    private OrderSagaCompensation compensation;
+
+    @BeforeEach
+    void setUp() {
+        compensation = new OrderSagaCompensation(sagaLog, productClient, Duration.ofMinutes(1), 100, 3);
+    }
+
+    @Test
+    @DisplayName("Should release the reservation and mark the saga compensated")
+    void compensate_ReleasesStock() {
+        when(sagaLog.beginCompensation("saga-1", "timeout")).thenReturn(true);
+
+        compensation.compensate("saga-1", "timeout");
+
+        verify(productClient).releaseStock("saga-1");
+        verify(sagaLog).compensated("saga-1");
+    }
+
+    @Test
+    @DisplayName("Should not release anything for a finished saga")
+    void compensate_WhenFinished_DoesNothing() {
+        when(sagaLog.beginCompensation("saga-1", "timeout")).thenReturn(false);
+
+        compensation.compensate("saga-1", "timeout");
+
+        verify(productClient, never()).releaseStock(anyString());
+        verify(sagaLog, never()).compensated(anyString());
+    }
+
+    @Test
+    @DisplayName("Should leave the saga for the recovery worker when the release fails")
+    void compensate_WhenReleaseFails_RecordsFailure() {
+        when(sagaLog.beginCompensation("saga-1", "timeout")).thenReturn(true);
+        doThrow(mock(FeignException.ServiceUnavailable.class)).when(productClient).releaseStock("saga-1");
+
+        compensation.compensate("saga-1", "timeout");
+
+        verify(sagaLog, never()).compensated(anyString());
+        verify(sagaLog).compensationFailed(eq("saga-1"), any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Should stop retrying once the saga has run out of attempts")
+    void compensate_WhenAttemptsRunOut_GivesUp() {
+        when(sagaLog.beginCompensation("saga-1", "timeout")).thenReturn(true);
+        doThrow(mock(FeignException.ServiceUnavailable.class)).when(productClient).releaseStock("saga-1");
+        when(sagaLog.compensationFailed(eq("saga-1"), any(), eq(3))).thenReturn(true);
+
+        compensation.compensate("saga-1", "timeout");
+
+        verify(sagaLog, never()).compensated(anyString());
+        verify(sagaLog).compensationFailed(eq("saga-1"), any(), eq(3));
+    }
+
+    @Test
+    @DisplayName("Should compensate every unfinished saga older than the recovery delay")
+    void resumeUnfinished_CompensatesOldSagas() {
+        OrderSaga stuck = OrderSaga.builder().id("saga-1").status(SagaStatus.STOCK_RESERVED).build();
+        OrderSaga retry = OrderSaga.builder().id("saga-2").status(SagaStatus.COMPENSATING).build();
+        when(sagaLog.findUnfinished(any(LocalDateTime.class), eq(100))).thenReturn(List.of(stuck, retry));
+        when(sagaLog.beginCompensation(anyString(), anyString())).thenReturn(true);
+
+        int resumed = compensation.resumeUnfinished();
+
+        assertThat(resumed).isEqualTo(2);
+        verify(productClient).releaseStock("saga-1");
+        verify(productClient).releaseStock("saga-2");
+        verify(sagaLog).findUnfinished(argThat(before -> before.isBefore(LocalDateTime.now().minusSeconds(59))), eq(100));
+    }
+}
@@ -0,0 +1,210 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.model.Order;
+import com.ecommerce.order.model.OrderSaga;
+import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.model.SagaStatus;
+import com.ecommerce.order.outbox.OrderEvents;
+import com.ecommerce.order.outbox.Outbox;
+import com.ecommerce.order.repository.OrderRepository;
+import com.ecommerce.order.repository.OrderSagaRepository;
+import com.ecommerce.order.repository.OutboxEventRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Saga state transitions against a real database
+ */
+@DataJpaTest
+@Import({OrderSagaLog.class, Outbox.class, JacksonAutoConfiguration.class})
+class OrderSagaLogTest {
+
+    @Autowired
+    private OrderSagaLog sagaLog;
+
+    @Autowired
+    private OrderSagaRepository sagaRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @Test
+    @DisplayName("Should save the order, complete the saga and record OrderCreated together")
+    void complete_SavesOrderAndCompletesSaga() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        sagaLog.stockReserved(saga.getId());
+
+        Order saved = sagaLog.complete(saga.getId(), order());
+
+        assertThat(orderRepository.findById(saved.getId())).isPresent();
+        assertThat(sagaRepository.findById(saga.getId())).hasValueSatisfying(completed -> {
+            assertThat(completed.getStatus()).isEqualTo(SagaStatus.COMPLETED);
+            assertThat(completed.getOrderId()).isEqualTo(saved.getId());
+        });
+        assertThat(outboxRepository.findAll()).singleElement().satisfies(event -> {
+            assertThat(event.getEventType()).isEqualTo(OrderEvents.ORDER_CREATED);
+            assertThat(event.getPayload()).contains("\"orderId\":" + saved.getId());
+        });
+    }
+
+    @Test
+    @DisplayName("Should not save the order once compensation has begun")
+    void complete_WhenCompensating_Throws() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        assertThat(sagaLog.beginCompensation(saga.getId(), "timeout")).isTrue();
+
+        assertThatThrownBy(() -> sagaLog.complete(saga.getId(), order()))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(orderRepository.count()).isZero();
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not compensate a completed saga")
+    void beginCompensation_WhenCompleted_ReturnsFalse() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        sagaLog.complete(saga.getId(), order());
+
+        assertThat(sagaLog.beginCompensation(saga.getId(), "late failure")).isFalse();
+        assertThat(sagaRepository.findById(saga.getId()).orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Cancelling an order reopens its completed saga for compensation")
+    void orderCancelled_ReopensCompletedSaga() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        Order saved = sagaLog.complete(saga.getId(), order());
+
+        assertThat(sagaLog.orderCancelled(saved.getId())).contains(saga.getId());
+        assertThat(sagaRepository.findById(saga.getId()).orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.COMPENSATING);
+        // ...so the release that follows (or the recovery worker) can run
+        assertThat(sagaLog.beginCompensation(saga.getId(), "retry")).isTrue();
+    }
+
+    @Test
+    @DisplayName("A cancelled order's saga ends CANCELLED, a saga without an order COMPENSATED")
+    void compensated_TellsCancelledOrdersApart() {
+        OrderSaga cancelled = sagaLog.start("saga-cancelled", 1L);
+        Order saved = sagaLog.complete(cancelled.getId(), order());
+        sagaLog.orderCancelled(saved.getId());
+        OrderSaga failed = sagaLog.start("saga-failed", 1L);
+        sagaLog.beginCompensation(failed.getId(), "rejected");
+
+        sagaLog.compensated(cancelled.getId());
+        sagaLog.compensated(failed.getId());
+
+        assertThat(sagaRepository.findById("saga-cancelled").orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.CANCELLED);
+        assertThat(sagaRepository.findById("saga-failed").orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.COMPENSATED);
+    }
+
+    @Test
+    @DisplayName("An order placed before sagas has no saga to reopen")
+    void orderCancelled_WithoutSaga_ReturnsEmpty() {
+        Order saved = orderRepository.save(order());
+
+        assertThat(sagaLog.orderCancelled(saved.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Abandoning a saga that saved its order returns that order")
+    void abandon_WhenCompleted_ReturnsOrderId() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        Order saved = sagaLog.complete(saga.getId(), order());
+
+        assertThat(sagaLog.abandon("saga-1", "key abandoned")).contains(saved.getId());
+        assertThat(sagaRepository.findById("saga-1").orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("Abandoning an unfinished saga stops it from ever saving its order")
+    void abandon_WhenUnfinished_BeginsCompensation() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        sagaLog.stockReserved(saga.getId());
+
+        assertThat(sagaLog.abandon("saga-1", "key abandoned")).isEmpty();
+        assertThat(sagaRepository.findById("saga-1").orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.COMPENSATING);
+        assertThatThrownBy(() -> sagaLog.complete("saga-1", order()))
+                .isInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    @DisplayName("Abandoning a saga that never started finds no order")
+    void abandon_WhenNeverStarted_ReturnsEmpty() {
+        assertThat(sagaLog.abandon("saga-1", "key abandoned")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should keep the first reason and count failed attempts")
+    void compensationFailed_KeepsSagaCompensating() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        sagaLog.beginCompensation(saga.getId(), "timeout");
+        assertThat(sagaLog.compensationFailed(saga.getId(), "product-service down", 3)).isFalse();
+        sagaLog.beginCompensation(saga.getId(), "Recovered unfinished saga");
+
+        OrderSaga reloaded = sagaRepository.findById(saga.getId()).orElseThrow();
+        assertThat(reloaded.getStatus()).isEqualTo(SagaStatus.COMPENSATING);
+        assertThat(reloaded.getAttempts()).isEqualTo(1);
+        assertThat(reloaded.getLastError()).isEqualTo("product-service down");
+    }
+
+    @Test
+    @DisplayName("Should mark the saga FAILED once max-attempts releases have failed")
+    void compensationFailed_AtMaxAttempts_MarksFailed() {
+        OrderSaga saga = sagaLog.start("saga-1", 1L);
+        sagaLog.beginCompensation(saga.getId(), "timeout");
+
+        assertThat(sagaLog.compensationFailed(saga.getId(), "down", 2)).isFalse();
+        assertThat(sagaLog.compensationFailed(saga.getId(), "still down", 2)).isTrue();
+
+        assertThat(sagaRepository.findById(saga.getId()).orElseThrow().getStatus())
+                .isEqualTo(SagaStatus.FAILED);
+        // Not picked up again, and nothing left to compensate
+        assertThat(sagaLog.findUnfinished(LocalDateTime.now().plusMinutes(1), 10)).isEmpty();
+        assertThat(sagaLog.beginCompensation(saga.getId(), "retry")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should only find unfinished sagas")
+    void findUnfinished_SkipsFinishedSagas() {
+        OrderSaga started = sagaLog.start("saga-started", 1L);
+        OrderSaga completed = sagaLog.start("saga-completed", 1L);
+        sagaLog.complete(completed.getId(), order());
+        OrderSaga compensated = sagaLog.start("saga-compensated", 1L);
+        sagaLog.beginCompensation(compensated.getId(), "rejected");
+        sagaLog.compensated(compensated.getId());
+        sagaRepository.flush();
+
+        assertThat(sagaLog.findUnfinished(LocalDateTime.now().plusMinutes(1), 10))
+                .extracting(OrderSaga::getId)
+                .containsExactly(started.getId());
+        assertThat(sagaLog.findUnfinished(LocalDateTime.now().minusMinutes(1), 10)).isEmpty();
+    }
+
+    private static Order order() {
+        return Order.builder()
+                .userId(1L)
+                .status(OrderStatus.PENDING)
+                .totalAmount(new BigDecimal("10.00"))
+                .shippingAddress("123 Main St")
+                .build();
+    }
+}
@@ -6,22 +6,43 @@ import com.ecommerce.order.dto.*;
 import com.ecommerce.order.exception.ResourceNotFoundException;
 import com.ecommerce.order.model.Order;
 import com.ecommerce.order.model.OrderItem;
+import com.ecommerce.order.model.OrderSaga;
 import com.ecommerce.order.model.OrderStatus;
+import com.ecommerce.order.outbox.OrderEvents;
+import com.ecommerce.order.outbox.Outbox;
 import com.ecommerce.order.repository.OrderRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -50,6 +71,8 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class OrderServiceTest {
 
+    private static final String SAGA_ID = "saga-1";
+
     @Mock
     private OrderRepository orderRepository;
 
@@ -59,6 +82,27 @@ class OrderServiceTest {
     @Mock  // Mock the Feign client for User Service
     private UserClient userClient;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private OrderSagaLog sagaLog;
+
+    @Mock
+    private OrderSagaCompensation sagaCompensation;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Spy  // A real ObjectMapper (with java.time support) for the export tests
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy  // Real thread pool, so createOrder really fans out
+    private ParallelLookups parallelLookups = new ParallelLookups(4, 10, Duration.ofSeconds(5));
+
     @InjectMocks
     private OrderService orderService;
 
@@ -116,6 +160,13 @@ class OrderServiceTest {
     @DisplayName("Create Order")
     class CreateOrderTests {
 
+        @BeforeEach
+        void startSaga() {
+            // lenient: tests that fail validation never get as far as the saga
+            lenient().when(sagaLog.start(anyString(), anyLong()))
+                    .thenReturn(OrderSaga.builder().id(SAGA_ID).userId(1L).build());
+        }
+
         @Test
         @DisplayName("Should create order successfully with valid data")
         void createOrder_WithValidData_ReturnsCreatedOrder() {
@@ -133,10 +184,10 @@ class OrderServiceTest {
 
             // Mock Feign client calls
             when(userClient.getUser(1L)).thenReturn(testUser);
-            when(productClient.getProduct(1L)).thenReturn(testProduct);
-            when(productClient.updateStock(eq(1L), any(StockUpdateRequest.class)))
-                    .thenReturn(testProduct);
-            when(orderRepository.save(any(Order.class))).thenReturn(testOrder);
+            when(productClient.getProducts(List.of(1L))).thenReturn(List.of(testProduct));
+            when(productClient.reserveStock(any(StockReservationRequest.class)))
+                    .thenReturn(new StockReservationResponse(true, List.of()));
+            when(sagaLog.complete(eq(SAGA_ID), any(Order.class))).thenReturn(testOrder);
 
             // Act
             OrderDto result = orderService.createOrder(request);
@@ -148,8 +199,15 @@ class OrderServiceTest {
 
             // Verify Feign clients were called
             verify(userClient, times(1)).getUser(1L);
-            verify(productClient, times(1)).getProduct(1L);
-            verify(productClient, times(1)).updateStock(eq(1L), any(StockUpdateRequest.class));
+            verify(productClient, times(1)).getProducts(List.of(1L));
+            verify(productClient, never()).getProduct(anyLong());
+            verify(productClient, times(1)).reserveStock(argThat(reservation ->
+                    SAGA_ID.equals(reservation.getReservationId())
+                            && reservation.getItems().size() == 1
+                            && reservation.getItems().get(0).getProductId().equals(1L)
+                            && reservation.getItems().get(0).getQuantity() == 2));
+            verify(sagaLog).stockReserved(SAGA_ID);
+            verify(sagaCompensation, never()).compensate(anyString(), any());
         }
 
         @Test
@@ -166,14 +224,52 @@ class OrderServiceTest {
                     .build();
 
             // Mock Feign client to throw exception (simulating 404 from User Service)
+            // (a real exception: it now crosses threads, which a mocked Throwable can't)
             when(userClient.getUser(999L))
-                    .thenThrow(mock(FeignException.NotFound.class));
+                    .thenThrow(new FeignException.NotFound("User not found",
+                            Request.create(Request.HttpMethod.GET, "/api/users/999",
+                                    Map.of(), null, StandardCharsets.UTF_8, null),
+                            null, null));
 
             assertThatThrownBy(() -> orderService.createOrder(request))
                     .isInstanceOf(FeignException.NotFound.class);
 
-            // Verify product service was never called
-            verify(productClient, never()).getProduct(anyLong());
+            // Product lookup runs in parallel, but nothing is reserved or saved
+            verify(productClient, never()).reserveStock(any(StockReservationRequest.class));
+            verify(sagaLog, never()).start(anyString(), anyLong());
+        }
+
+        @Test
+        @DisplayName("Should look up user and products concurrently")
+        void createOrder_LooksUpUserAndProductsConcurrently() {
+            OrderRequest request = OrderRequest.builder()
+                    .userId(1L)
+                    .items(List.of(OrderRequest.OrderItemRequest.builder()
+                            .productId(1L)
+                            .quantity(2)
+                            .build()))
+                    .build();
+
+            // Each lookup only returns once BOTH have started:
+            // run one after the other, this would hit the 2s wait and fail
+            CountDownLatch bothStarted = new CountDownLatch(2);
+            when(userClient.getUser(1L)).thenAnswer(invocation -> {
+                bothStarted.countDown();
+                assertThat(bothStarted.await(2, TimeUnit.SECONDS)).isTrue();
+                return testUser;
+            });
+            when(productClient.getProducts(List.of(1L))).thenAnswer(invocation -> {
+                bothStarted.countDown();
+                assertThat(bothStarted.await(2, TimeUnit.SECONDS)).isTrue();
+                return List.of(testProduct);
+            });
+            when(productClient.reserveStock(any(StockReservationRequest.class)))
+                    .thenReturn(new StockReservationResponse(true, List.of()));
+            when(sagaLog.complete(eq(SAGA_ID), any(Order.class))).thenReturn(testOrder);
+
+            OrderDto result = orderService.createOrder(request);
+
+            assertThat(result).isNotNull();
         }
 
         @Test
@@ -190,11 +286,117 @@ class OrderServiceTest {
                     .build();
 
             when(userClient.getUser(1L)).thenReturn(testUser);
-            when(productClient.getProduct(999L))
-                    .thenThrow(mock(FeignException.NotFound.class));
+            when(productClient.getProducts(List.of(999L))).thenReturn(List.of());
 
             assertThatThrownBy(() -> orderService.createOrder(request))
-                    .isInstanceOf(FeignException.NotFound.class);
+                    .isInstanceOf(ResourceNotFoundException.class)
+                    .hasMessageContaining("999");
+        }
+
+        @Test
+        @DisplayName("Should fetch all products of a multi-line order in one call")
+        void createOrder_WithManyItems_FetchesProductsInOneBatch() {
+            ProductDto secondProduct = ProductDto.builder()
+                    .id(2L)
+                    .name("Second Product")
+                    .price(new BigDecimal("10.00"))
+                    .stockQuantity(50)
+                    .build();
+
+            OrderRequest request = OrderRequest.builder()
+                    .userId(1L)
+                    .items(Arrays.asList(
+                            OrderRequest.OrderItemRequest.builder().productId(1L).quantity(1).build(),
+                            OrderRequest.OrderItemRequest.builder().productId(2L).quantity(3).build(),
+                            OrderRequest.OrderItemRequest.builder().productId(1L).quantity(1).build()
+                    ))
+                    .build();
+
+            when(userClient.getUser(1L)).thenReturn(testUser);
+            when(productClient.getProducts(List.of(1L, 2L)))
+                    .thenReturn(List.of(testProduct, secondProduct));
+            when(sagaLog.complete(eq(SAGA_ID), any(Order.class))).thenAnswer(inv -> inv.getArgument(1));
+
+            OrderDto result = orderService.createOrder(request);
+
+            // 99.99 + 3 * 10.00 + 99.99
+            assertThat(result.getTotalAmount()).isEqualByComparingTo(new BigDecimal("229.98"));
+            verify(productClient, times(1)).getProducts(List.of(1L, 2L));
+            verify(productClient, never()).getProduct(anyLong());
+            verify(productClient, times(1)).reserveStock(argThat(reservation ->
+                    reservation.getItems().size() == 3));
+        }
+
+        @Test
+        @DisplayName("Should not save order when stock reservation is rejected")
+        void createOrder_WhenReservationRejected_DoesNotSaveOrder() {
+            OrderRequest request = OrderRequest.builder()
+                    .userId(1L)
+                    .items(Arrays.asList(
+                            OrderRequest.OrderItemRequest.builder().productId(1L).quantity(1).build()
+                    ))
+                    .build();
+
+            when(userClient.getUser(1L)).thenReturn(testUser);
+            when(productClient.getProducts(List.of(1L))).thenReturn(List.of(testProduct));
+            when(productClient.reserveStock(any(StockReservationRequest.class)))
+                    .thenThrow(mock(FeignException.Conflict.class));
+
+            assertThatThrownBy(() -> orderService.createOrder(request))
+                    .isInstanceOf(FeignException.Conflict.class);
+
+            // Nothing was reserved, but the release is harmless and closes the saga
+            verify(sagaLog, never()).complete(anyString(), any(Order.class));
+            verify(sagaCompensation).compensate(eq(SAGA_ID), any());
+        }
+
+        @Test
+        @DisplayName("Should compensate the saga when saving the order fails")
+        void createOrder_WhenSaveFails_CompensatesSaga() {
+            OrderRequest request = OrderRequest.builder()
+                    .userId(1L)
+                    .items(Arrays.asList(
+                            OrderRequest.OrderItemRequest.builder().productId(1L).quantity(3).build()
+                    ))
+                    .build();
+
+            when(userClient.getUser(1L)).thenReturn(testUser);
+            when(productClient.getProducts(List.of(1L))).thenReturn(List.of(testProduct));
+            when(productClient.reserveStock(any(StockReservationRequest.class)))
+                    .thenReturn(new StockReservationResponse(true, List.of()));
+            when(sagaLog.complete(eq(SAGA_ID), any(Order.class)))
+                    .thenThrow(new DataIntegrityViolationException("insert failed"));
+
+            assertThatThrownBy(() -> orderService.createOrder(request))
+                    .isInstanceOf(DataIntegrityViolationException.class);
+
+            verify(sagaLog).stockReserved(SAGA_ID);
+            verify(sagaCompensation).compensate(SAGA_ID, "insert failed");
+        }
+
+        @Test
+        @DisplayName("Should compensate the saga when the reservation call times out")
+        void createOrder_WhenReservationTimesOut_CompensatesSaga() {
+            OrderRequest request = OrderRequest.builder()
+                    .userId(1L)
+                    .items(Arrays.asList(
+                            OrderRequest.OrderItemRequest.builder().productId(1L).quantity(1).build()
+                    ))
+                    .build();
+
+            when(userClient.getUser(1L)).thenReturn(testUser);
+            when(productClient.getProducts(List.of(1L))).thenReturn(List.of(testProduct));
+            // Whether the stock was taken is unknown: only a release by ID settles it
+            when(productClient.reserveStock(any(StockReservationRequest.class)))
+                    .thenThrow(new RetryableException(-1, "Read timed out", Request.HttpMethod.POST,
+                            (Long) null, Request.create(Request.HttpMethod.POST, "/api/products/stock/reserve",
+                                    Map.of(), null, StandardCharsets.UTF_8, null)));
+
+            assertThatThrownBy(() -> orderService.createOrder(request))
+                    .isInstanceOf(RetryableException.class);
+
+            verify(sagaLog, never()).stockReserved(anyString());
+            verify(sagaCompensation).compensate(SAGA_ID, "Read timed out");
         }
 
         @Test
@@ -218,7 +420,7 @@ class OrderServiceTest {
                     .build();
 
             when(userClient.getUser(1L)).thenReturn(testUser);
-            when(productClient.getProduct(1L)).thenReturn(lowStockProduct);
+            when(productClient.getProducts(List.of(1L))).thenReturn(List.of(lowStockProduct));
 
             assertThatThrownBy(() -> orderService.createOrder(request))
                     .isInstanceOf(IllegalArgumentException.class)
@@ -230,6 +432,115 @@ class OrderServiceTest {
     // GET ORDER TESTS
     // ═══════════════════════════════════════════════════════════════════════
 
+    @Nested
+    @DisplayName("Get All Orders")
+    class GetAllOrdersTests {
+
+        @Test
+        @DisplayName("Should resolve users with one batch call instead of one per order")
+        void getAllOrders_ResolvesUsersInOneBatch() {
+            Order secondOrder = Order.builder()
+                    .id(2L)
+                    .userId(1L)
+                    .totalAmount(new BigDecimal("10.00"))
+                    .status(OrderStatus.PENDING)
+                    .build();
+
+            when(orderRepository.findAllWithItems()).thenReturn(Arrays.asList(testOrder, secondOrder));
+            when(userClient.getUsers(List.of(1L))).thenReturn(List.of(testUser));
+
+            List<OrderDto> result = orderService.getAllOrders();
+
+            assertThat(result).hasSize(2);
+            assertThat(result).extracting(OrderDto::getUserEmail)
+                    .containsOnly("john@example.com");
+            verify(userClient, times(1)).getUsers(List.of(1L));
+            verify(userClient, never()).getUser(anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return orders without user details when user service fails")
+        void getAllOrders_WhenUserServiceFails_ReturnsOrdersWithoutUserDetails() {
+            when(orderRepository.findAllWithItems()).thenReturn(Arrays.asList(testOrder));
+            when(userClient.getUsers(anyList()))
+                    .thenThrow(mock(FeignException.ServiceUnavailable.class));
+
+            List<OrderDto> result = orderService.getAllOrders();
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getUserEmail()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return one offset page with totals")
+        void getOrdersPage_ReturnsPageWithTotals() {
+            when(orderRepository.findIds(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(List.of(1L), PageRequest.of(0, 1), 2));
+            when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(testOrder));
+            when(userClient.getUsers(List.of(1L))).thenReturn(List.of(testUser));
+
+            PageResponse<OrderDto> result = orderService.getOrdersPage(0, 1);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getContent().get(0).getUserEmail()).isEqualTo("john@example.com");
+            assertThat(result.getTotalElements()).isEqualTo(2);
+            assertThat(result.getTotalPages()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should return next cursor only when more orders follow")
+        void getOrdersAfter_ReturnsNextCursor() {
+            when(orderRepository.findIdsAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(1L, 2L));
+            when(orderRepository.findWithItemsByIdIn(List.of(1L))).thenReturn(List.of(testOrder));
+            when(userClient.getUsers(List.of(1L))).thenReturn(List.of(testUser));
+
+            PageResponse<OrderDto> result = orderService.getOrdersAfter(0L, 1);
+
+            assertThat(result.getContent()).extracting(OrderDto::getId).containsExactly(1L);
+            assertThat(result.getNextCursor()).isEqualTo(1L);
+        }
+
+        @Test
+        @DisplayName("Should keep the page's ID order when fetching orders with items")
+        void getOrdersAfter_KeepsIdOrder() {
+            Order secondOrder = Order.builder().id(2L).userId(1L).totalAmount(BigDecimal.TEN).build();
+            when(orderRepository.findIdsAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(List.of(1L, 2L));
+            // IN (...) gives no ordering guarantee
+            when(orderRepository.findWithItemsByIdIn(List.of(1L, 2L)))
+                    .thenReturn(List.of(secondOrder, testOrder));
+            when(userClient.getUsers(List.of(1L))).thenReturn(List.of(testUser));
+
+            PageResponse<OrderDto> result = orderService.getOrdersAfter(0L, 2);
+
+            assertThat(result.getContent()).extracting(OrderDto::getId).containsExactly(1L, 2L);
+            assertThat(result.getNextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Export Orders")
+    class ExportOrdersTests {
+
+        @Test
+        @DisplayName("Should write one JSON line per order without calling User Service")
+        void exportOrders_WritesNdjsonAndDetaches() throws Exception {
+            when(orderRepository.streamAllByOrderById()).thenReturn(Stream.of(testOrder));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            orderService.exportOrders(out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).hasSize(1);
+            OrderDto exported = objectMapper.readValue(lines[0], OrderDto.class);
+            assertThat(exported.getId()).isEqualTo(1L);
+            assertThat(exported.getItems()).hasSize(1);
+            verify(entityManager).detach(testOrder);
+            verifyNoInteractions(userClient);
+        }
+    }
+
     @Nested
     @DisplayName("Get Order By ID")
     class GetOrderByIdTests {
@@ -237,7 +548,7 @@ class OrderServiceTest {
         @Test
         @DisplayName("Should return order when found")
         void getOrderById_WhenExists_ReturnsOrder() {
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(testOrder));
             when(userClient.getUser(1L)).thenReturn(testUser);
 
             OrderDto result = orderService.getOrderById(1L);
@@ -250,7 +561,7 @@ class OrderServiceTest {
         @Test
         @DisplayName("Should throw exception when order not found")
         void getOrderById_WhenNotFound_ThrowsException() {
-            when(orderRepository.findById(999L)).thenReturn(Optional.empty());
+            when(orderRepository.findWithItemsById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> orderService.getOrderById(999L))
                     .isInstanceOf(ResourceNotFoundException.class);
@@ -259,7 +570,7 @@ class OrderServiceTest {
         @Test
         @DisplayName("Should return order without user details when user service fails")
         void getOrderById_WhenUserServiceFails_ReturnsOrderWithoutUserDetails() {
-            when(orderRepository.findById(1L)).thenReturn(Optional.of(testOrder));
+            when(orderRepository.findWithItemsById(1L)).thenReturn(Optional.of(testOrder));
             when(userClient.getUser(1L))
                     .thenThrow(mock(FeignException.ServiceUnavailable.class));
 
@@ -279,6 +590,12 @@ class OrderServiceTest {
     @DisplayName("Update Order Status")
     class UpdateOrderStatusTests {
 
+        @BeforeEach
+        void runRetriedWorkDirectly() {
+            when(optimisticLockRetry.inTransaction(anyString(), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        }
+
         @Test
         @DisplayName("Should update status to CONFIRMED")
         void updateOrderStatus_ToConfirmed_UpdatesSuccessfully() {
@@ -299,17 +616,46 @@ class OrderServiceTest {
                     .build();
 
             when(orderRepository.findById(1L)).thenReturn(Optional.of(pendingOrder));
-            when(orderRepository.save(any(Order.class))).thenReturn(confirmedOrder);
+            when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(confirmedOrder);
             when(userClient.getUser(1L)).thenReturn(testUser);
 
             OrderDto result = orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED);
 
             assertThat(result.getStatus()).isEqualTo(OrderStatus.CONFIRMED);
+            verify(outbox).append(OrderEvents.AGGREGATE_TYPE, 1L, OrderEvents.ORDER_STATUS_CHANGED,
+                    new OrderEvents.StatusChanged(1L, 1L, OrderStatus.PENDING, OrderStatus.CONFIRMED));
+        }
+
+        @Test
+        @DisplayName("Cancelling releases the saga's reservation after the commit")
+        void updateOrderStatus_ToCancelled_ReleasesSagaReservation() {
+            Order orderWithItems = Order.builder()
+                    .id(1L)
+                    .userId(1L)
+                    .status(OrderStatus.PENDING)
+                    .items(Arrays.asList(testOrderItem))
+                    .totalAmount(new BigDecimal("199.98"))
+                    .build();
+            testOrderItem.setOrder(orderWithItems);
+
+            when(orderRepository.findById(1L)).thenReturn(Optional.of(orderWithItems));
+            when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(orderWithItems);
+            when(sagaLog.orderCancelled(1L)).thenReturn(Optional.of("saga-1"));
+            when(userClient.getUser(1L)).thenReturn(testUser);
+
+            orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
+
+            // Released once the transaction has returned - not per attempt inside it
+            InOrder inOrder = inOrder(optimisticLockRetry, sagaCompensation, userClient);
+            inOrder.verify(optimisticLockRetry).inTransaction(anyString(), any());
+            inOrder.verify(sagaCompensation).compensate(eq("saga-1"), anyString());
+            inOrder.verify(userClient).getUser(1L);
+            verify(productClient, never()).updateStock(anyLong(), any());
         }
 
         @Test
-        @DisplayName("Should restore stock when order is cancelled")
-        void updateOrderStatus_ToCancelled_RestoresStock() {
+        @DisplayName("Cancelling an order placed before sagas adds its stock back per line")
+        void updateOrderStatus_ToCancelled_WithoutSaga_RestoresStock() {
             Order orderWithItems = Order.builder()
                     .id(1L)
                     .userId(1L)
@@ -324,7 +670,7 @@ class OrderServiceTest {
             when(orderRepository.findById(1L)).thenReturn(Optional.of(orderWithItems));
             when(productClient.updateStock(eq(1L), any(StockUpdateRequest.class)))
                     .thenReturn(testProduct);
-            when(orderRepository.save(any(Order.class))).thenReturn(orderWithItems);
+            when(orderRepository.saveAndFlush(any(Order.class))).thenReturn(orderWithItems);
             when(userClient.getUser(1L)).thenReturn(testUser);
 
             orderService.updateOrderStatus(1L, OrderStatus.CANCELLED);
@@ -349,6 +695,7 @@ class OrderServiceTest {
                     orderService.updateOrderStatus(1L, OrderStatus.CONFIRMED))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Cannot change status");
+            verifyNoInteractions(outbox);
         }
     }
 
@@ -364,7 +711,7 @@ class OrderServiceTest {
         @DisplayName("Should return orders for user")
         void getOrdersByUserId_ReturnsUserOrders() {
             when(userClient.getUser(1L)).thenReturn(testUser);
-            when(orderRepository.findByUserId(1L)).thenReturn(Arrays.asList(testOrder));
+            when(orderRepository.findWithItemsByUserId(1L)).thenReturn(Arrays.asList(testOrder));
 
             List<OrderDto> result = orderService.getOrdersByUserId(1L);
 
@@ -375,8 +722,12 @@ class OrderServiceTest {
         @Test
         @DisplayName("Should throw exception when user not found")
         void getOrdersByUserId_WhenUserNotFound_ThrowsException() {
+            // (a real exception: it now crosses threads, which a mocked Throwable can't)
             when(userClient.getUser(999L))
-                    .thenThrow(mock(FeignException.NotFound.class));
+                    .thenThrow(new FeignException.NotFound("User not found",
+                            Request.create(Request.HttpMethod.GET, "/api/users/999",
+                                    Map.of(), null, StandardCharsets.UTF_8, null),
+                            null, null));
 
             assertThatThrownBy(() -> orderService.getOrdersByUserId(999L))
                     .isInstanceOf(FeignException.NotFound.class);
@@ -0,0 +1,104 @@
+package com.ecommerce.order.service;
+
+import com.ecommerce.order.exception.LookupTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Parallel Lookups Unit Tests
+ * 
+ * Uses a real thread pool; "slow" calls just block on a latch
+ */
+class ParallelLookupsTest {
+
+    private final ParallelLookups parallelLookups = new ParallelLookups(4, 10, Duration.ofMillis(500));
+
+    // Released at the end of each test so no pool thread stays blocked
+    private final CountDownLatch never = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        never.countDown();
+        parallelLookups.shutdown();
+    }
+
+    @Test
+    @DisplayName("Should rethrow the original failure and cancel the other lookups")
+    void awaitAll_WhenOneFails_CancelsStragglers() {
+        CompletableFuture<String> slow = parallelLookups.submit(this::blockUntilReleased);
+        CompletableFuture<String> failing = parallelLookups.submit(() -> {
+            throw new IllegalArgumentException("boom");
+        });
+
+        assertThatThrownBy(() -> parallelLookups.awaitAll(slow, failing))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("boom");
+        assertThat(slow).isCancelled();
+    }
+
+    @Test
+    @DisplayName("Should give up after the deadline and cancel every lookup")
+    void awaitAll_WhenDeadlinePasses_ThrowsTimeout() {
+        CompletableFuture<String> slow = parallelLookups.submit(this::blockUntilReleased);
+        CompletableFuture<String> fast = parallelLookups.submit(() -> "done");
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> parallelLookups.awaitAll(slow, fast))
+                .isInstanceOf(LookupTimeoutException.class);
+
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(5));
+        assertThat(slow).isCancelled();
+    }
+
+    @Test
+    @DisplayName("Should reject lookups when the pool is full instead of running them on the caller")
+    void submit_WhenPoolIsFull_FailsWithinDeadline() {
+        // 4 threads busy + 10 queued: the pool is full
+        for (int i = 0; i < 14; i++) {
+            parallelLookups.submit(this::blockUntilReleased);
+        }
+        AtomicBoolean ran = new AtomicBoolean();
+        CompletableFuture<Boolean> rejected = parallelLookups.submit(() -> ran.getAndSet(true));
+        CompletableFuture<String> other = parallelLookups.submit(this::blockUntilReleased);
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> parallelLookups.awaitAll(rejected, other))
+                .isInstanceOf(LookupTimeoutException.class);
+
+        // Failed at once, well inside the 500ms deadline, and never ran here
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(500));
+        assertThat(rejected).isCompletedExceptionally();
+        assertThat(ran).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should complete when every lookup succeeds")
+    void awaitAll_WhenAllSucceed_Returns() {
+        CompletableFuture<String> first = parallelLookups.submit(() -> "user");
+        CompletableFuture<Integer> second = parallelLookups.submit(() -> 42);
+
+        parallelLookups.awaitAll(first, second);
+
+        assertThat(first.join()).isEqualTo("user");
+        assertThat(second.join()).isEqualTo(42);
+    }
+
+    private String blockUntilReleased() {
+        try {
+            never.await(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "late";
+    }
+}
@@ -0,0 +1,155 @@
+package com.ecommerce.product.cache;
+
+import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.util.AfterCommit;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                            PRODUCT CACHE                                  ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  An in-memory cache in front of the most-read product queries.            ║
+ * ║                                                                           ║
+ * ║  WHY CAFFEINE?                                                            ║
+ * ║  - Bounded: never holds more than max-size entries                        ║
+ * ║  - W-TinyLFU eviction: keeps the products that are read OFTEN, not just   ║
+ * ║    the ones read most recently (one big scan can't flush the hot set)     ║
+ * ║  - TTL: every entry is reloaded at least every "ttl"                      ║
+ * ║  - recordStats(): hit/miss/eviction counters for Micrometer               ║
+ * ║                                                                           ║
+ * ║  TWO CACHES:                                                              ║
+ * ║  - byId:       product ID → ProductDto                                    ║
+ * ║  - byCategory: category   → List<ProductDto>                              ║
+ * ║                                                                           ║
+ * ║  STOCK:                                                                   ║
+ * ║  With includeStock = false, cached copies have NO stock quantity.         ║
+ * ║  ProductService adds the live stock on every read, so the cache can       ║
+ * ║  never make checkout see stock that is already gone.                      ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+public class ProductCache {
+
+    private final Cache<Long, ProductDto> byId;
+    private final Cache<String, List<ProductDto>> byCategory;
+    private final boolean includeStock;
+
+    public ProductCache(long maxSize, Duration ttl, boolean includeStock) {
+        this.byId = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.byCategory = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        this.includeStock = includeStock;
+    }
+
+    /**
+     * true  → cached products carry their stock quantity
+     * false → cached products have stockQuantity = null, callers add live stock
+     */
+    public boolean includesStock() {
+        return includeStock;
+    }
+
+    /**
+     * Return the cached product, or call the loader and cache its result
+     *
+     * If the loader throws (e.g. ResourceNotFoundException) nothing is cached
+     * and the exception reaches the caller unchanged.
+     */
+    public ProductDto getById(Long id, Function<Long, ProductDto> loader) {
+        return byId.get(id, key -> forCache(loader.apply(key)));
+    }
+
+    public List<ProductDto> getByCategory(String category, Function<String, List<ProductDto>> loader) {
+        return byCategory.get(category, key -> loader.apply(key).stream()
+                .map(this::forCache)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * A product's details changed (or it was created/deleted)
+     *
+     * Evictions happen after commit (see AfterCommit): evicting earlier
+     * would let another request re-load the OLD row into the cache.
+     *
+     * Category lists are all dropped: we don't always know which category
+     * the product was in before, and they reload cheaply.
+     */
+    public void evictProduct(Long id) {
+        AfterCommit.run(() -> {
+            byId.invalidate(id);
+            byCategory.invalidateAll();
+        });
+    }
+
+    /**
+     * Products were created (bulk import) - no cached product is stale,
+     * but every category list may now be missing some
+     */
+    public void evictCategoryLists() {
+        AfterCommit.run(byCategory::invalidateAll);
+    }
+
+    /**
+     * Many products changed at once (bulk update) - one eviction after commit
+     */
+    public void evictProducts(Collection<Long> ids) {
+        AfterCommit.run(() -> {
+            byId.invalidateAll(ids);
+            byCategory.invalidateAll();
+        });
+    }
+
+    /**
+     * Only stock changed - nothing to do unless stock is part of the cache
+     */
+    public void evictStock(Collection<Long> ids) {
+        if (!includeStock) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            byId.invalidateAll(ids);
+            byCategory.invalidateAll();
+        });
+    }
+
+    public void evictAll() {
+        AfterCommit.run(() -> {
+            byId.invalidateAll();
+            byCategory.invalidateAll();
+        });
+    }
+
+    // Exposed so CacheConfig can register the stats with Micrometer
+    public Cache<Long, ProductDto> byIdCache() {
+        return byId;
+    }
+
+    public Cache<String, List<ProductDto>> byCategoryCache() {
+        return byCategory;
+    }
+
+    /**
+     * Copy that is safe to share: callers never get a reference they could
+     * change inside the cache, and stock is stripped when it isn't cached.
+     */
+    private ProductDto forCache(ProductDto product) {
+        ProductDto.ProductDtoBuilder copy = product.toBuilder();
+        if (!includeStock) {
+            copy.stockQuantity(null);
+        }
+        return copy.build();
+    }
+}
@@ -0,0 +1,47 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.cache.ProductCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                           CACHE CONFIGURATION                             ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Builds the ProductCache from application.yml (product.cache.*)           ║
+ * ║  and publishes its statistics as Micrometer metrics:                      ║
+ * ║                                                                           ║
+ * ║  cache.gets{cache=products, result=hit|miss}                              ║
+ * ║  cache.evictions{cache=products}                                          ║
+ * ║  cache.size{cache=products}                                               ║
+ * ║  (same for cache=productsByCategory)                                      ║
+ * ║                                                                           ║
+ * ║  View them at /actuator/metrics/cache.gets                                ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    public ProductCache productCache(
+            @Value("${product.cache.max-size:10000}") long maxSize,
+            @Value("${product.cache.ttl:10m}") Duration ttl,
+            @Value("${product.cache.include-stock:false}") boolean includeStock,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+
+        ProductCache cache = new ProductCache(maxSize, ttl, includeStock);
+
+        // Only when a MeterRegistry exists (Actuator on the classpath)
+        meterRegistry.ifAvailable(registry -> {
+            CaffeineCacheMetrics.monitor(registry, cache.byIdCache(), "products");
+            CaffeineCacheMetrics.monitor(registry, cache.byCategoryCache(), "productsByCategory");
+        });
+        return cache;
+    }
+}
@@ -0,0 +1,190 @@
+package com.ecommerce.product.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    CONNECTION HOLD TRACKER                                ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Which of OUR methods keeps a pooled connection the longest?              ║
+ * ║                                                                           ║
+ * ║  Hikari's own metrics say HOW LONG connections are held                   ║
+ * ║  (hikaricp.connections.usage) but not BY WHOM. This wrapper notes the     ║
+ * ║  calling method when a connection is taken from the pool, and the time    ║
+ * ║  when it goes back:                                                       ║
+ * ║                                                                           ║
+ * ║  getConnection()  ──►  caller = ProductService.reserveStock, start clock  ║
+ * ║  close()          ──►  record hold time for that caller                   ║
+ * ║                                                                           ║
+ * ║  Results:                                                                 ║
+ * ║  - db.connection.hold{pool, method}   Micrometer timer (count/total/max)  ║
+ * ║  - /actuator/connectionholds          methods ranked by longest hold      ║
+ * ║  - a WARN log line for every hold above the warn threshold                ║
+ * ║                                                                           ║
+ * ║  A connection that is NEVER returned (a real leak) is Hikari's job:       ║
+ * ║  spring.datasource.hikari.leak-detection-threshold logs its stack trace.  ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Slf4j
+public class ConnectionHoldTracker {
+
+    private static final String UNKNOWN = "unknown";
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final String basePackage;
+    private final long warnThresholdNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, HoldStats> holdsByMethod = new ConcurrentHashMap<>();
+
+    /**
+     * @param basePackage   callers are looked up in this package ("com.ecommerce.product")
+     * @param warnThreshold holds longer than this are logged
+     * @param meterRegistry where to publish db.connection.hold (may be null)
+     */
+    public ConnectionHoldTracker(String basePackage, Duration warnThreshold, MeterRegistry meterRegistry) {
+        this.basePackage = basePackage + ".";
+        this.warnThresholdNanos = warnThreshold.toNanos();
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * One method's connection holds, slowest first in the report
+     */
+    public record HoldSummary(String method, long count, double averageMillis, double maxMillis) {
+    }
+
+    /**
+     * Wrap a pool so every connection taken from it is tracked
+     */
+    public DataSource track(String pool, DataSource target) {
+        return new DelegatingDataSource(target) {
+            @Override
+            public Connection getConnection() throws SQLException {
+                return tracked(pool, super.getConnection());
+            }
+
+            @Override
+            public Connection getConnection(String username, String password) throws SQLException {
+                return tracked(pool, super.getConnection(username, password));
+            }
+        };
+    }
+
+    /**
+     * Methods ranked by their longest single hold
+     */
+    public List<HoldSummary> longestHolds(int limit) {
+        return holdsByMethod.entrySet().stream()
+                .map(entry -> entry.getValue().summary(entry.getKey()))
+                .sorted(Comparator.comparingDouble(HoldSummary::maxMillis).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Forget everything recorded so far (e.g. before a load test)
+     */
+    public void reset() {
+        holdsByMethod.clear();
+    }
+
+    private Connection tracked(String pool, Connection connection) {
+        String method = callingMethod();
+        long start = System.nanoTime();
+        boolean[] closed = {false};
+
+        return (Connection) Proxy.newProxyInstance(
+                Connection.class.getClassLoader(),
+                new Class<?>[]{Connection.class},
+                (proxy, invoked, args) -> {
+                    if ("close".equals(invoked.getName()) && !closed[0]) {
+                        closed[0] = true;
+                        record(pool, method, System.nanoTime() - start);
+                    }
+                    try {
+                        return invoked.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getTargetException();
+                    }
+                });
+    }
+
+    private void record(String pool, String method, long nanos) {
+        holdsByMethod.computeIfAbsent(method, key -> new HoldStats()).add(nanos);
+
+        if (meterRegistry != null) {
+            Timer.builder("db.connection.hold")
+                    .description("How long a pooled connection was held, by calling method")
+                    .tags("pool", pool, "method", method)
+                    .register(meterRegistry)
+                    .record(nanos, TimeUnit.NANOSECONDS);
+        }
+        if (nanos > warnThresholdNanos) {
+            log.warn("{} held a {} connection for {} ms", method, pool,
+                    TimeUnit.NANOSECONDS.toMillis(nanos));
+        }
+    }
+
+    /**
+     * The first frame in our own code, skipping the tracker, the router and
+     * Spring's generated proxies: "ProductService.getProductsPage"
+     */
+    private String callingMethod() {
+        return STACK_WALKER.walk(frames -> frames
+                .filter(frame -> isApplicationFrame(frame.getClassName()))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + frame.getMethodName())
+                .orElse(UNKNOWN));
+    }
+
+    private boolean isApplicationFrame(String className) {
+        return className.startsWith(basePackage)
+                && !className.contains("$$")
+                && !isClassOrNested(className, ConnectionHoldTracker.class)
+                && !isClassOrNested(className, ReadWriteRoutingDataSource.class);
+    }
+
+    private static boolean isClassOrNested(String className, Class<?> type) {
+        return className.equals(type.getName()) || className.startsWith(type.getName() + "$");
+    }
+
+    private static String simpleName(String className) {
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+
+    private static final class HoldStats {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        void add(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+            maxNanos.accumulateAndGet(nanos, Math::max);
+        }
+
+        HoldSummary summary(String method) {
+            long holds = count.sum();
+            double averageMillis = holds == 0 ? 0 : totalNanos.sum() / 1e6 / holds;
+            return new HoldSummary(method, holds, averageMillis, maxNanos.get() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.ecommerce.product.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                  DATASOURCE CONFIGURATION (primary + replica)             ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Browsing (reads) is most of our traffic. A READ REPLICA takes it off     ║
+ * ║  the primary database, and more replicas can be added as traffic grows.   ║
+ * ║                                                                           ║
+ * ║  @Transactional(readOnly = true)  ──►  replica pool                        ║
+ * ║  @Transactional / no transaction  ──►  primary pool                        ║
+ * ║                                                                           ║
+ * ║  The replica is optional: without product.datasource.replica.jdbc-url     ║
+ * ║  everything goes to the primary, exactly as before.                       ║
+ * ║                                                                           ║
+ * ║  LazyConnectionDataSourceProxy: a transaction only takes a real pooled   ║
+ * ║  connection when it runs its first statement - so the read-only flag is   ║
+ * ║  known by then, and a transaction answered from the product cache never   ║
+ * ║  takes a connection at all.                                               ║
+ * ║                                                                           ║
+ * ║  REPLICATION LAG: a replica may be a moment behind. Anything that must    ║
+ * ║  see its own write (stock reservation, updates) runs in a read-write      ║
+ * ║  transaction and therefore on the primary.                                ║
+ * ║                                                                           ║
+ * ║  POOL METRICS (Actuator binds every HikariDataSource bean, by pool name): ║
+ * ║  hikaricp.connections.active / idle / pending{pool=product-primary}       ║
+ * ║  hikaricp.connections.acquire   time spent WAITING for a connection       ║
+ * ║  hikaricp.connections.usage     time a connection was HELD                ║
+ * ║  hikaricp.connections.timeout   requests that gave up waiting             ║
+ * ║  Who held it: see ConnectionHoldTracker (/actuator/connectionholds).      ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Configuration
+public class DataSourceConfig {
+
+    static final String PRIMARY_POOL = "product-primary";
+    static final String REPLICA_POOL = "product-replica";
+
+    /**
+     * The primary pool, configured by spring.datasource.* and
+     * spring.datasource.hikari.* exactly like Spring Boot's own
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(PRIMARY_POOL);
+        return dataSource;
+    }
+
+    /**
+     * The replica pool (product.datasource.replica.jdbc-url, username,
+     * password and any other Hikari setting)
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.datasource.replica", name = "jdbc-url")
+    @ConfigurationProperties("product.datasource.replica")
+    public HikariDataSource replicaDataSource() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setPoolName(REPLICA_POOL);
+        return dataSource;
+    }
+
+    /**
+     * Records which method held each connection, and for how long
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "product.datasource.hold-tracking", name = "enabled", matchIfMissing = true)
+    public ConnectionHoldTracker connectionHoldTracker(
+            @Value("${product.datasource.hold-tracking.warn-threshold:1s}") Duration warnThreshold,
+            ObjectProvider<MeterRegistry> meterRegistry) {
+        return new ConnectionHoldTracker("com.ecommerce.product", warnThreshold, meterRegistry.getIfAvailable());
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "product.datasource.hold-tracking", name = "enabled", matchIfMissing = true)
+    public ConnectionHoldEndpoint connectionHoldEndpoint(ConnectionHoldTracker tracker) {
+        return new ConnectionHoldEndpoint(tracker);
+    }
+
+    /**
+     * The DataSource JPA and JDBC actually use
+     */
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("primaryDataSource") DataSource primaryPool,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaPool,
+            ObjectProvider<ConnectionHoldTracker> tracker) {
+        DataSource primary = track(tracker, PRIMARY_POOL, primaryPool);
+        DataSource replicaDataSource = replicaPool.getIfAvailable();
+        if (replicaDataSource == null) {
+            return new LazyConnectionDataSourceProxy(primary);
+        }
+        replicaDataSource = track(tracker, REPLICA_POOL, replicaDataSource);
+
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                ReadWriteRoutingDataSource.Route.PRIMARY, primary,
+                ReadWriteRoutingDataSource.Route.REPLICA, replicaDataSource));
+        routing.setDefaultTargetDataSource(primary);
+        routing.afterPropertiesSet();
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+
+    private static DataSource track(ObjectProvider<ConnectionHoldTracker> tracker, String pool, DataSource dataSource) {
+        ConnectionHoldTracker holdTracker = tracker.getIfAvailable();
+        return holdTracker == null ? dataSource : holdTracker.track(pool, dataSource);
+    }
+}
@@ -0,0 +1,23 @@
+package com.ecommerce.product.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Picks the replica pool for @Transactional(readOnly = true), the primary for everything else
+ *
+ * Must sit behind a LazyConnectionDataSourceProxy: the transaction manager
+ * opens the connection BEFORE it marks the transaction read-only, so the
+ * choice has to wait until the first statement runs.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route { PRIMARY, REPLICA }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly()
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+}
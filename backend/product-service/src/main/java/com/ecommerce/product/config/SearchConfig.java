@@ -0,0 +1,42 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.ProductSuggester;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                          SEARCH CONFIGURATION                             ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  One in-memory Lucene index per Product Service instance.                 ║
+ * ║                                                                           ║
+ * ║  LIFECYCLE:                                                               ║
+ * ║  - Startup: ProductService.rebuildSearchIndex() fills it from the         ║
+ * ║    products table                                                         ║
+ * ║  - create/update/delete: the product is re-indexed after commit           ║
+ * ║  - Shutdown: close() releases the index                                   ║
+ * ║                                                                           ║
+ * ║  The typeahead ProductSuggester is filled the same way, and also         ║
+ * ║  reloaded every product.suggest.refresh-interval (@EnableScheduling)      ║
+ * ║  to pick up new sales figures.                                            ║
+ * ║  (@EnableScheduling here also runs the outbox relay, see OutboxRelay.)    ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Configuration
+@EnableScheduling
+public class SearchConfig {
+
+    @Bean(destroyMethod = "close")
+    public ProductSearchIndex productSearchIndex() {
+        return new ProductSearchIndex();
+    }
+
+    @Bean(destroyMethod = "close")
+    public ProductSuggester productSuggester(
+            @Value("${product.suggest.rebuild-threshold:1000}") int rebuildThreshold) {
+        return new ProductSuggester(rebuildThreshold);
+    }
+}
@@ -1,14 +1,26 @@
 package com.ecommerce.product.controller;
 
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.BulkUpdateResponse;
+import com.ecommerce.product.dto.PageResponse;
 import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.StockReservationRequest;
+import com.ecommerce.product.dto.StockReservationResponse;
 import com.ecommerce.product.dto.StockUpdateRequest;
+import com.ecommerce.product.importer.ProductBulkUpdater;
+import com.ecommerce.product.importer.ProductImporter;
+import com.ecommerce.product.search.ProductSuggester;
 import com.ecommerce.product.service.ProductService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
 import java.util.List;
 
 /**
@@ -26,10 +38,15 @@ import java.util.List;
  * ║  ├────────────┼───────────────────┼─────────────────────────────────────┤ ║
  * ║  │ GET        │ /api/products     │ Get all products                    │ ║
  * ║  │ GET        │ /api/products/1   │ Get product with id=1               │ ║
+ * ║  │ GET/POST   │ /api/products/batch │ Get several products at once      │ ║
+ * ║  │ GET        │ /api/products/export │ Stream all products (NDJSON)     │ ║
  * ║  │ POST       │ /api/products     │ Create new product                  │ ║
+ * ║  │ POST       │ /api/products/bulk │ Import many products (JSON / CSV)  │ ║
  * ║  │ PUT        │ /api/products/1   │ Update product with id=1            │ ║
  * ║  │ DELETE     │ /api/products/1   │ Delete product with id=1            │ ║
  * ║  │ PATCH      │ /api/products/1/stock │ Update only stock quantity      │ ║
+ * ║  │ PATCH      │ /api/products/bulk │ Change price/stock of many products│ ║
+ * ║  │ POST       │ /api/products/stock/reserve │ Reserve order stock       │ ║
  * ║  └────────────┴───────────────────┴─────────────────────────────────────┘ ║
  * ║                                                                           ║
  * ║  INTERVIEW TIP:                                                           ║
@@ -56,6 +73,12 @@ public class ProductController {
     // Injected by Spring (constructor injection via @RequiredArgsConstructor)
     private final ProductService productService;
 
+    // Bulk import (POST /api/products/bulk)
+    private final ProductImporter productImporter;
+
+    // Bulk price / stock changes (PATCH /api/products/bulk)
+    private final ProductBulkUpdater productBulkUpdater;
+
     // ═══════════════════════════════════════════════════════════════════════
     // GET ENDPOINTS (Read operations)
     // ═══════════════════════════════════════════════════════════════════════
@@ -74,6 +97,36 @@ public class ProductController {
         // ResponseEntity.ok(body) = status 200 + body
     }
 
+    /**
+     * GET /api/products?page=0&size=20
+     * Retrieve one page of products (offset paging)
+     * 
+     * @GetMapping(params = "page") - Only matches when ?page= is present,
+     * so plain GET /api/products keeps returning the full list.
+     * 
+     * Returns: 200 OK with { content, page, size, totalElements, totalPages }
+     */
+    @GetMapping(params = "page")
+    public ResponseEntity<PageResponse<ProductDto>> getProductsPage(
+            @RequestParam("page") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.getProductsPage(page, size));
+    }
+
+    /**
+     * GET /api/products?after=1040&size=20
+     * Retrieve the products after a cursor (keyset paging, for deep scrolling)
+     * 
+     * Start with after=0, then pass the returned nextCursor as "after".
+     * nextCursor is missing on the last page.
+     */
+    @GetMapping(params = "after")
+    public ResponseEntity<PageResponse<ProductDto>> getProductsAfter(
+            @RequestParam("after") Long after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.getProductsAfter(after, size));
+    }
+
     /**
      * GET /api/products/1
      * Retrieve single product by ID
@@ -87,20 +140,95 @@ public class ProductController {
         return ResponseEntity.ok(product);
     }
 
+    /**
+     * GET /api/products/batch?ids=1,2,3
+     * Retrieve several products in ONE request
+     * 
+     * Spring splits the comma-separated "ids" parameter into a List<Long>.
+     * IDs that don't exist are left out of the response.
+     */
+    @GetMapping("/batch")
+    public ResponseEntity<List<ProductDto>> getProductsByIds(
+            @RequestParam("ids") List<Long> ids) {
+        List<ProductDto> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * POST /api/products/batch
+     * Same as the GET version, but IDs are sent in the body
+     * 
+     * Used by Order Service - a big cart can have more IDs than
+     * comfortably fit in a URL.
+     * 
+     * Request Body:
+     * [1, 2, 3]
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDto>> getProductsByIdsBatch(
+            @RequestBody List<Long> ids) {
+        List<ProductDto> products = productService.getProductsByIds(ids);
+        return ResponseEntity.ok(products);
+    }
+
+    /**
+     * GET /api/products/export
+     * Stream the WHOLE catalog as NDJSON (newline-delimited JSON)
+     * 
+     * Output (one product per line, no surrounding [ ]):
+     * {"id":1,"name":"iPhone 15",...}
+     * {"id":2,"name":"Galaxy S24",...}
+     * 
+     * We write straight to the response output stream instead of returning
+     * a List, so the response is sent while rows are still being read and
+     * neither side has to hold the whole catalog in memory.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public void exportProducts(HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_NDJSON_VALUE);
+        productService.exportProducts(response.getOutputStream());
+    }
+
     /**
      * GET /api/products/search?keyword=phone
-     * Search products by name
+     * Full-text search over name, category and description (best match first)
      * 
      * @RequestParam - Extracts query parameter from URL
      * Example: /api/products/search?keyword=phone → keyword = "phone"
+     * Prefixes match: ?keyword=head finds "Headphones"
      */
     @GetMapping("/search")
     public ResponseEntity<List<ProductDto>> searchProducts(
-            @RequestParam String keyword) {
+            @RequestParam("keyword") String keyword) {
         List<ProductDto> products = productService.searchProducts(keyword);
         return ResponseEntity.ok(products);
     }
 
+    /**
+     * GET /api/products/search?keyword=phone&page=0&size=20
+     * One page of search results, with the total number of matches
+     */
+    @GetMapping(value = "/search", params = "page")
+    public ResponseEntity<PageResponse<ProductDto>> searchProductsPage(
+            @RequestParam("keyword") String keyword,
+            @RequestParam("page") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(productService.searchProductsPage(keyword, page, size));
+    }
+
+    /**
+     * GET /api/products/suggest?prefix=wir&limit=10
+     * Typeahead: names with a word starting with the prefix, most sold first
+     * 
+     * Served from memory (no database query), meant to be called per keystroke.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<List<ProductSuggester.Suggestion>> suggestProducts(
+            @RequestParam("prefix") String prefix,
+            @RequestParam(value = "limit", defaultValue = "10") int limit) {
+        return ResponseEntity.ok(productService.suggestProducts(prefix, limit));
+    }
+
     /**
      * GET /api/products/category/Electronics
      * Get products by category
@@ -142,6 +270,42 @@ public class ProductController {
         // Status 201 (Created) is more correct than 200 for POST
     }
 
+    /**
+     * POST /api/products/bulk  (Content-Type: application/json)
+     * Import many products at once - a JSON array of the same objects
+     * POST /api/products takes
+     * 
+     * The body is read straight from the request stream (no @RequestBody),
+     * so a catalog of 500k products is never held in memory as a whole.
+     * 
+     * Returns: 200 OK with a per-row report:
+     * {
+     *   "received": 3, "imported": 2, "failed": 1, "completed": true,
+     *   "errors": [ { "row": 2, "message": "Validation failed",
+     *                 "fieldErrors": { "price": "Price must be positive" } } ]
+     * }
+     *          400 Bad Request when the body isn't a JSON array (nothing imported)
+     */
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkImportResponse> importProductsJson(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImporter.importJson(request.getInputStream()));
+    }
+
+    /**
+     * POST /api/products/bulk  (Content-Type: text/csv)
+     * Same import, as CSV with a header line:
+     * 
+     * name,description,price,stockQuantity,category
+     * iPhone 15,Latest iPhone,999.99,100,Electronics
+     * 
+     * Returns: the same report as the JSON version;
+     *          400 Bad Request when the header is wrong (nothing imported)
+     */
+    @PostMapping(value = "/bulk", consumes = "text/csv")
+    public ResponseEntity<BulkImportResponse> importProductsCsv(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productImporter.importCsv(request.getInputStream()));
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // PUT/PATCH ENDPOINTS (Update operations)
     // ═══════════════════════════════════════════════════════════════════════
@@ -181,6 +345,62 @@ public class ProductController {
         return ResponseEntity.ok(updatedProduct);
     }
 
+    /**
+     * PATCH /api/products/bulk
+     * Change price and/or stock of many products in one request
+     * (nightly repricing, warehouse syncs)
+     * 
+     * Request Body (streamed, like the bulk import):
+     * [
+     *   { "id": 1, "price": 19.99 },
+     *   { "id": 2, "stockDelta": -3 },
+     *   { "id": 3, "stockAbsolute": 120, "price": 5.00 }
+     * ]
+     * 
+     * Returns: 200 OK with { received, updated, failed, completed, errors }
+     *          400 Bad Request when the body isn't a JSON array (nothing applied)
+     */
+    @PatchMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<BulkUpdateResponse> updateProductsBulk(HttpServletRequest request) throws IOException {
+        return ResponseEntity.ok(productBulkUpdater.updateJson(request.getInputStream()));
+    }
+
+    /**
+     * POST /api/products/stock/reserve
+     * Take stock for ALL lines of an order in one call
+     * 
+     * Called by Order Service when an order is placed.
+     * Either every line is reserved, or none is.
+     * 
+     * Request Body:
+     * { "items": [ { "productId": 1, "quantity": 2 } ] }
+     * 
+     * Returns: 200 OK when everything was reserved
+     *          409 Conflict (with per-line "lines") when something wasn't
+     */
+    @PostMapping("/stock/reserve")
+    public ResponseEntity<StockReservationResponse> reserveStock(
+            @Valid @RequestBody StockReservationRequest request) {
+        StockReservationResponse response = productService.reserveStock(request);
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * POST /api/products/stock/release/{reservationId}
+     * Give back the stock of a reservation made with a reservationId
+     * 
+     * Called by Order Service when an order can't be completed.
+     * Safe to repeat: the stock is only given back once, and releasing an
+     * unknown ID makes a later reserve with that ID fail.
+     * 
+     * Returns: 204 No Content
+     */
+    @PostMapping("/stock/release/{reservationId}")
+    public ResponseEntity<Void> releaseStock(@PathVariable("reservationId") String reservationId) {
+        productService.releaseStock(reservationId);
+        return ResponseEntity.noContent().build();
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // DELETE ENDPOINTS (Delete operations)
     // ═══════════════════════════════════════════════════════════════════════
@@ -0,0 +1,57 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                         BULK IMPORT RESPONSE                              ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  The outcome of POST /api/products/bulk.                                  ║
+ * ║                                                                           ║
+ * ║  Rows are independent: valid rows are created even when others fail,     ║
+ * ║  and "errors" tells you which rows to fix and send again.                 ║
+ * ║                                                                           ║
+ * ║  completed = false → the input broke off (e.g. malformed JSON); rows      ║
+ * ║                      before that point were still imported                ║
+ * ║  errorsTruncated   → more rows failed than are listed (max-errors)        ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkImportResponse {
+
+    private long received;
+
+    private long imported;
+
+    private long failed;
+
+    private boolean completed;
+
+    private boolean errorsTruncated;
+
+    private List<RowError> errors;
+
+    /**
+     * Why one row was not imported
+     *
+     * row = position in the input, starting at 1 (the CSV header isn't counted)
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class RowError {
+        private long row;
+        private String message;
+        private Map<String, String> fieldErrors; // Same keys as ProductDto, like a 400 from POST /api/products
+    }
+}
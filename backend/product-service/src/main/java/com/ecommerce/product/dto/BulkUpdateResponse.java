@@ -0,0 +1,35 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                         BULK UPDATE RESPONSE                              ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  The outcome of PATCH /api/products/bulk - same shape as the import      ║
+ * ║  report (see BulkImportResponse), with "updated" instead of "imported".   ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkUpdateResponse {
+
+    private long received;
+
+    private long updated;
+
+    private long failed;
+
+    private boolean completed;
+
+    private boolean errorsTruncated;
+
+    private List<BulkImportResponse.RowError> errors;
+}
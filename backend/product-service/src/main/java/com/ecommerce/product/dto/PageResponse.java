@@ -0,0 +1,51 @@
+package com.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                           PAGE RESPONSE                                   ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  One "slice" of a large list, instead of the whole table at once.         ║
+ * ║                                                                           ║
+ * ║  TWO WAYS TO PAGE:                                                        ║
+ * ║                                                                           ║
+ * ║  OFFSET (?page=2&size=20)                                                 ║
+ * ║  - SQL: ... ORDER BY id LIMIT 20 OFFSET 40                                ║
+ * ║  - Gives totalElements / totalPages (nice for page numbers in a UI)       ║
+ * ║  - Gets SLOWER the deeper you go: the DB still walks the skipped rows     ║
+ * ║                                                                           ║
+ * ║  KEYSET / CURSOR (?after=1040&size=20)                                    ║
+ * ║  - SQL: ... WHERE id > 1040 ORDER BY id LIMIT 20                          ║
+ * ║  - Jumps straight to the right spot via the primary key index             ║
+ * ║  - Same speed on page 1 and page 10,000 (great for "infinite scroll")     ║
+ * ║  - Pass nextCursor as "after" to get the next page; null = no more pages  ║
+ * ║                                                                           ║
+ * ║  Fields that don't apply to the chosen mode are left out of the JSON.     ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class PageResponse<T> {
+
+    private List<T> content;
+
+    private Integer size;
+
+    // Offset paging only
+    private Integer page;
+    private Long totalElements;
+    private Integer totalPages;
+
+    // Keyset paging only: the "after" value for the next page (null on the last page)
+    private Long nextCursor;
+}
@@ -0,0 +1,68 @@
+package com.ecommerce.product.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                      PRODUCT BULK UPDATE (one line)                       ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  One line of PATCH /api/products/bulk - change price and/or stock of      ║
+ * ║  one product. Fields left out are not touched.                            ║
+ * ║                                                                           ║
+ * ║  { "id": 7, "price": 19.99 }              → new price                     ║
+ * ║  { "id": 7, "stockDelta": -3 }            → stock = stock - 3             ║
+ * ║  { "id": 7, "stockAbsolute": 120 }        → stock = 120 (warehouse count) ║
+ * ║  { "id": 7, "price": 5, "stockDelta": 10 } → both                         ║
+ * ║                                                                           ║
+ * ║  stockDelta and stockAbsolute can't be combined.                          ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProductBulkUpdate {
+
+    @NotNull(message = "Product id is required")
+    private Long id;
+
+    @Positive(message = "Price must be positive")
+    private BigDecimal price;
+
+    private Integer stockDelta;
+
+    @Min(value = 0, message = "Stock cannot be negative")
+    private Integer stockAbsolute;
+
+    // Validation only (reported as fieldErrors.stockChange / fieldErrors.anyChange)
+    @JsonIgnore
+    @AssertTrue(message = "Use either stockDelta or stockAbsolute, not both")
+    public boolean isStockChange() {
+        return stockDelta == null || stockAbsolute == null;
+    }
+
+    @JsonIgnore
+    @AssertTrue(message = "Nothing to update: give price, stockDelta or stockAbsolute")
+    public boolean isAnyChange() {
+        return price != null || stockDelta != null || stockAbsolute != null;
+    }
+
+    /**
+     * What happened to one line, in request order
+     */
+    public enum Outcome {
+        UPDATED,        // Applied
+        NOT_FOUND,      // No product with this ID
+        NEGATIVE_STOCK  // The change would take stock below 0 - nothing applied
+    }
+}
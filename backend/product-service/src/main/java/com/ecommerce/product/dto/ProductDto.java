@@ -35,7 +35,7 @@ import java.time.LocalDateTime;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-@Builder
+@Builder(toBuilder = true)  // toBuilder(): copy an existing DTO and change a few fields
 public class ProductDto {
 
     private Long id;  // For responses (not required in create requests)
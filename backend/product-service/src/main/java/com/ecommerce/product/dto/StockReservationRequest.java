@@ -0,0 +1,76 @@
+package com.ecommerce.product.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                        STOCK RESERVATION REQUEST                          ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Reserves stock for ALL lines of an order in one call.                    ║
+ * ║                                                                           ║
+ * ║  WHY NOT StockUpdateRequest?                                              ║
+ * ║  - StockUpdateRequest = one product, one HTTP call                        ║
+ * ║  - An order with 10 lines would need 10 calls (and 10 transactions)       ║
+ * ║  - Here every line succeeds together, or none of them do                  ║
+ * ║                                                                           ║
+ * ║  Example Request:                                                         ║
+ * ║  POST /api/products/stock/reserve                                         ║
+ * ║  {                                                                        ║
+ * ║    "reservationId": "7f1c...",   (optional, makes the call idempotent)    ║
+ * ║    "items": [                                                             ║
+ * ║      { "productId": 1, "quantity": 2 },                                   ║
+ * ║      { "productId": 3, "quantity": 1 }                                    ║
+ * ║    ]                                                                      ║
+ * ║  }                                                                        ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationRequest {
+
+    /*
+     * Optional, chosen by the caller. With an ID, retrying the same
+     * reservation is safe (stock is only taken once) and the reservation
+     * can be given back with POST /api/products/stock/release/{id}
+     */
+    @Size(max = 64, message = "Reservation ID must be at most 64 characters")
+    private String reservationId;
+
+    @NotEmpty(message = "At least one item is required")
+    @Valid  // Validates each ReservationItem too
+    private List<ReservationItem> items;
+
+    // Without a reservation ID (not idempotent)
+    public StockReservationRequest(List<ReservationItem> items) {
+        this(null, items);
+    }
+
+    /**
+     * One line of the reservation: take "quantity" units of "productId"
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class ReservationItem {
+
+        @NotNull(message = "Product ID is required")
+        private Long productId;
+
+        @NotNull(message = "Quantity is required")
+        @Min(value = 1, message = "Quantity must be at least 1")
+        private Integer quantity;
+    }
+}
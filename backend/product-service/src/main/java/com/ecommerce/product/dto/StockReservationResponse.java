@@ -0,0 +1,49 @@
+package com.ecommerce.product.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                       STOCK RESERVATION RESPONSE                          ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  The outcome of a reservation, line by line.                              ║
+ * ║                                                                           ║
+ * ║  reserved = true  → every line was taken from stock                       ║
+ * ║  reserved = false → NOTHING was taken (the transaction rolled back),      ║
+ * ║                     "lines" tells you which ones could not be served      ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservationResponse {
+
+    private boolean reserved;
+
+    private List<LineResult> lines;
+
+    /**
+     * Result for a single line, in the same order as the request
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class LineResult {
+        private Long productId;
+        private Integer quantity;
+        private LineStatus status;
+    }
+
+    public enum LineStatus {
+        RESERVED,           // Enough stock, quantity taken
+        INSUFFICIENT_STOCK, // Product exists but doesn't have enough stock
+        NOT_FOUND           // No product with this ID
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.product.exception;
 
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.FieldError;
@@ -98,6 +99,61 @@ public class GlobalExceptionHandler {
         return new ResponseEntity<>(error, HttpStatus.BAD_REQUEST);
     }
 
+    /**
+     * Handle InsufficientStockException (multi-line stock reservation failed)
+     * 
+     * 409 Conflict: the request was valid, but the current stock levels
+     * can't satisfy it. The per-line result is included so the caller
+     * can tell which products were short.
+     */
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<Map<String, Object>> handleInsufficientStock(
+            InsufficientStockException ex) {
+        
+        Map<String, Object> error = createErrorResponse(
+            HttpStatus.CONFLICT,
+            ex.getMessage()
+        );
+        error.put("lines", ex.getResult().getLines());
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handle ReservationReleasedException (reserve after its release)
+     * 
+     * 409 Conflict: the caller already gave this reservation up
+     */
+    @ExceptionHandler(ReservationReleasedException.class)
+    public ResponseEntity<Map<String, Object>> handleReservationReleased(
+            ReservationReleasedException ex) {
+        
+        Map<String, Object> error = createErrorResponse(
+            HttpStatus.CONFLICT,
+            ex.getMessage()
+        );
+        
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
+    /**
+     * Handle OptimisticLockingFailureException (version check failed)
+     *
+     * 409 Conflict: the product kept being changed by other requests, even
+     * after OptimisticLockRetry's attempts - sending the request again is safe
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailure(
+            OptimisticLockingFailureException ex) {
+
+        Map<String, Object> error = createErrorResponse(
+            HttpStatus.CONFLICT,
+            "The product was changed by another request. Please try again."
+        );
+
+        return new ResponseEntity<>(error, HttpStatus.CONFLICT);
+    }
+
     /**
      * Handle IllegalArgumentException (business logic validation errors)
      */
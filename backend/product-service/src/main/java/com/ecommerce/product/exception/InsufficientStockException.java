@@ -0,0 +1,26 @@
+package com.ecommerce.product.exception;
+
+import com.ecommerce.product.dto.StockReservationResponse;
+import lombok.Getter;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                     INSUFFICIENT STOCK EXCEPTION                          ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Thrown when a multi-line stock reservation cannot be fully served.       ║
+ * ║                                                                           ║
+ * ║  Being a RuntimeException, it makes @Transactional roll back every line   ║
+ * ║  that was already decremented - the reservation is all-or-nothing.        ║
+ * ║  It carries the per-line result so the client can see what failed.       ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Getter
+public class InsufficientStockException extends RuntimeException {
+
+    private final StockReservationResponse result;
+
+    public InsufficientStockException(StockReservationResponse result) {
+        super("Stock reservation failed for one or more products");
+        this.result = result;
+    }
+}
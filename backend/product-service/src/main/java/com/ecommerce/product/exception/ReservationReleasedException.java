@@ -0,0 +1,14 @@
+package com.ecommerce.product.exception;
+
+/**
+ * A reserve arrived for a reservation ID that was already released
+ * 
+ * The caller gave up on this reservation (and released it) before the
+ * reserve got here, so the stock must NOT be taken any more.
+ */
+public class ReservationReleasedException extends RuntimeException {
+
+    public ReservationReleasedException(String reservationId) {
+        super("Stock reservation " + reservationId + " was already released");
+    }
+}
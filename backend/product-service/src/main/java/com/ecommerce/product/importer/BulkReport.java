@@ -0,0 +1,76 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.BulkUpdateResponse;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Running totals of a bulk request plus its first maxErrors row errors
+ * (shared by ProductImporter and ProductBulkUpdater)
+ */
+final class BulkReport {
+
+    private final int maxErrors;
+    private final List<BulkImportResponse.RowError> errors = new ArrayList<>();
+    long received;
+    long succeeded;
+    long failed;
+    boolean completed;
+
+    BulkReport(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    void fail(long row, String message, Map<String, String> fieldErrors) {
+        failed++;
+        if (errors.size() < maxErrors) {
+            errors.add(new BulkImportResponse.RowError(row, message, fieldErrors));
+        }
+    }
+
+    /**
+     * Bean validation of one row; same checks and messages as @Valid
+     * on the single-item endpoints
+     *
+     * @return true when the row is valid (otherwise the failure is recorded)
+     */
+    <T> boolean validate(Validator validator, long row, T value) {
+        Map<String, String> fieldErrors = new TreeMap<>();
+        for (ConstraintViolation<T> violation : validator.validate(value)) {
+            fieldErrors.putIfAbsent(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (fieldErrors.isEmpty()) {
+            return true;
+        }
+        fail(row, "Validation failed", fieldErrors);
+        return false;
+    }
+
+    BulkImportResponse toImportResponse() {
+        return BulkImportResponse.builder()
+                .received(received)
+                .imported(succeeded)
+                .failed(failed)
+                .completed(completed)
+                .errorsTruncated(failed > errors.size())
+                .errors(errors)
+                .build();
+    }
+
+    BulkUpdateResponse toUpdateResponse() {
+        return BulkUpdateResponse.builder()
+                .received(received)
+                .updated(succeeded)
+                .failed(failed)
+                .completed(completed)
+                .errorsTruncated(failed > errors.size())
+                .errors(errors)
+                .build();
+    }
+}
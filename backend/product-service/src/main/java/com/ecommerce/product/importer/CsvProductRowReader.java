@@ -0,0 +1,164 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.ProductDto;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Streams CSV (RFC 4180: comma separated, "quoted" fields may contain
+ * commas, line breaks and "" for a quote), UTF-8
+ *
+ * The first line is the header. Columns may come in any order:
+ *   name, price, stockQuantity  - required
+ *   description, category       - optional
+ * (matched case-insensitively; stock_quantity works too)
+ *
+ * Blank lines are skipped. An empty cell is the same as a missing value.
+ */
+public class CsvProductRowReader implements RowReader<ProductDto> {
+
+    private static final Map<String, String> COLUMNS = Map.of(
+            "name", "name",
+            "description", "description",
+            "price", "price",
+            "stockquantity", "stockQuantity",
+            "category", "category");
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("name", "price", "stockQuantity");
+
+    private final BufferedReader reader;
+    private final List<String> header;
+    private long rowNumber;
+
+    /**
+     * @throws IllegalArgumentException when the header is missing, has an unknown
+     *         column or lacks a required one (checked before any row is read)
+     */
+    public CsvProductRowReader(InputStream in) throws IOException {
+        this.reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<String> headerCells = readRecord();
+        if (headerCells == null) {
+            reader.close();
+            throw new IllegalArgumentException("CSV header line is missing");
+        }
+        this.header = new ArrayList<>(headerCells.size());
+        for (String cell : headerCells) {
+            String column = COLUMNS.get(normalize(cell));
+            if (column == null) {
+                reader.close();
+                throw new IllegalArgumentException("Unknown CSV column: '" + cell.trim() + "'");
+            }
+            header.add(column);
+        }
+        for (String required : REQUIRED_COLUMNS) {
+            if (!header.contains(required)) {
+                reader.close();
+                throw new IllegalArgumentException("CSV column '" + required + "' is required");
+            }
+        }
+    }
+
+    @Override
+    public Row<ProductDto> next() throws IOException {
+        List<String> cells = readRecord();
+        if (cells == null) {
+            return null;
+        }
+        long number = ++rowNumber;
+        if (cells.size() != header.size()) {
+            return Row.failed(number, "Expected " + header.size() + " columns, found " + cells.size());
+        }
+
+        ProductDto product = new ProductDto();
+        for (int i = 0; i < cells.size(); i++) {
+            String column = header.get(i);
+            String value = cells.get(i).isBlank() ? null : cells.get(i).trim();
+            try {
+                switch (column) {
+                    case "name" -> product.setName(value);
+                    case "description" -> product.setDescription(value);
+                    case "price" -> product.setPrice(value != null ? new BigDecimal(value) : null);
+                    case "stockQuantity" -> product.setStockQuantity(value != null ? Integer.valueOf(value) : null);
+                    case "category" -> product.setCategory(value);
+                    default -> throw new IllegalStateException(column);
+                }
+            } catch (NumberFormatException e) {
+                return Row.failed(number, "Invalid value for '" + column + "'");
+            }
+        }
+        return Row.of(number, product);
+    }
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * One CSV record (a quoted field may span several lines),
+     * or null at the end of the input; blank lines are skipped
+     */
+    private List<String> readRecord() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+        } while (line.isBlank());
+
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        boolean quoted = false;
+        int i = 0;
+        while (true) {
+            if (i == line.length()) {
+                if (!quoted) {
+                    break;
+                }
+                // Line break inside a quoted field: the field continues on the next line
+                line = reader.readLine();
+                if (line == null) {
+                    throw new IOException("Unterminated quoted field in CSV row " + (rowNumber + 1));
+                }
+                cell.append('\n');
+                i = 0;
+                continue;
+            }
+            char c = line.charAt(i++);
+            if (quoted) {
+                if (c != '"') {
+                    cell.append(c);
+                } else if (i < line.length() && line.charAt(i) == '"') {
+                    cell.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                cells.add(cell.toString());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString());
+        return cells;
+    }
+
+    private static String normalize(String column) {
+        // \uFEFF: the byte order mark Excel puts in front of the first column
+        return column.replace("\uFEFF", "").trim().replace("_", "").replace(" ", "").toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,74 @@
+package com.ecommerce.product.importer;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.exc.MismatchedInputException;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams a JSON array of objects: [ {"name": ..., "price": ...}, ... ]
+ *
+ * The array is never bound as a whole - the parser walks it one element
+ * at a time. Each element is first read as a tree, so a wrong value in one
+ * row (e.g. "price": "abc") fails only that row; broken JSON syntax
+ * ends the request.
+ */
+public class JsonRowReader<T> implements RowReader<T> {
+
+    private final ObjectMapper objectMapper;
+    private final Class<T> rowType;
+    private final JsonParser parser;
+    private long rowNumber;
+
+    /**
+     * @throws IllegalArgumentException when the body isn't a JSON array
+     */
+    public JsonRowReader(ObjectMapper objectMapper, InputStream in, Class<T> rowType) throws IOException {
+        this.objectMapper = objectMapper;
+        this.rowType = rowType;
+        this.parser = objectMapper.getFactory().createParser(in);
+        JsonToken first;
+        try {
+            first = parser.nextToken();
+        } catch (JsonProcessingException e) {
+            parser.close();
+            throw new IllegalArgumentException("Request body is not valid JSON: " + e.getOriginalMessage());
+        }
+        if (first != JsonToken.START_ARRAY) {
+            parser.close();
+            throw new IllegalArgumentException("Request body must be a JSON array");
+        }
+    }
+
+    @Override
+    public Row<T> next() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            return null;
+        }
+        long number = ++rowNumber;
+        JsonNode node = parser.readValueAsTree();
+        if (!node.isObject()) {
+            return Row.failed(number, "Expected a JSON object");
+        }
+        try {
+            return Row.of(number, objectMapper.treeToValue(node, rowType));
+        } catch (MismatchedInputException e) {
+            return Row.failed(number, e.getPath().isEmpty()
+                    ? e.getOriginalMessage()
+                    : "Invalid value for '" + e.getPath().get(e.getPath().size() - 1).getFieldName() + "'");
+        } catch (JsonProcessingException e) {
+            return Row.failed(number, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -0,0 +1,132 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.BulkUpdateResponse;
+import com.ecommerce.product.dto.ProductBulkUpdate;
+import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                        PRODUCT BULK UPDATER                               ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Backs PATCH /api/products/bulk (nightly repricing, warehouse syncs).      ║
+ * ║                                                                           ║
+ * ║  Same streaming model as ProductImporter:                                 ║
+ * ║  request body ──row by row──> validate ──> chunk (chunk-size lines)       ║
+ * ║                        ProductService.applyBulkUpdates(chunk)             ║
+ * ║                        = one transaction, ONE JDBC batch of UPDATEs       ║
+ * ║                                                                           ║
+ * ║  No product is loaded into memory: a 200k-line sync is 200 short          ║
+ * ║  transactions of 1000 batched UPDATEs, instead of 200k                    ║
+ * ║  PUT requests that each read, change and write one product.               ║
+ * ║                                                                           ║
+ * ║  Lines for unknown products, or that would make stock negative, are      ║
+ * ║  reported and skipped; the other lines of their chunk still apply.        ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Slf4j
+public class ProductBulkUpdater {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ProductBulkUpdater(
+            ProductService productService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${product.bulk-update.chunk-size:1000}") int chunkSize,
+            @Value("${product.bulk-update.max-errors:1000}") int maxErrors) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Apply a JSON array of ProductBulkUpdate lines
+     *
+     * @throws IllegalArgumentException when the body isn't a JSON array (nothing applied)
+     */
+    public BulkUpdateResponse updateJson(InputStream in) throws IOException {
+        BulkReport report = new BulkReport(maxErrors);
+        List<RowReader.Row<ProductBulkUpdate>> chunk = new ArrayList<>(chunkSize);
+
+        try (RowReader<ProductBulkUpdate> reader = new JsonRowReader<>(objectMapper, in, ProductBulkUpdate.class)) {
+            RowReader.Row<ProductBulkUpdate> row;
+            while ((row = reader.next()) != null) {
+                report.received++;
+                if (row.error() != null) {
+                    report.fail(row.number(), row.error(), null);
+                    continue;
+                }
+                if (!report.validate(validator, row.number(), row.value())) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    apply(chunk, report);
+                    chunk.clear();
+                }
+            }
+            report.completed = true;
+        } catch (IOException e) {
+            // Broken input (or the client went away): keep what was read before it
+            log.warn("Bulk update stopped after row {}: {}", report.received, e.getMessage());
+            report.received++;
+            report.fail(report.received, "Malformed input: " + e.getMessage(), null);
+        }
+
+        apply(chunk, report);
+        log.info("Bulk update: {} received, {} updated, {} failed",
+                report.received, report.succeeded, report.failed);
+        return report.toUpdateResponse();
+    }
+
+    private void apply(List<RowReader.Row<ProductBulkUpdate>> rows, BulkReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            record(rows, productService.applyBulkUpdates(rows.stream().map(RowReader.Row::value).toList()), report);
+        } catch (DataAccessException chunkFailure) {
+            // The chunk rolled back as a whole (e.g. a price too large for the column): retry line by line
+            for (RowReader.Row<ProductBulkUpdate> row : rows) {
+                try {
+                    record(List.of(row), productService.applyBulkUpdates(List.of(row.value())), report);
+                } catch (DataAccessException e) {
+                    report.fail(row.number(),
+                            "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage(),
+                            null);
+                }
+            }
+        }
+    }
+
+    private static void record(List<RowReader.Row<ProductBulkUpdate>> rows,
+                               List<ProductBulkUpdate.Outcome> outcomes, BulkReport report) {
+        for (int i = 0; i < rows.size(); i++) {
+            RowReader.Row<ProductBulkUpdate> row = rows.get(i);
+            switch (outcomes.get(i)) {
+                case UPDATED -> report.succeeded++;
+                case NOT_FOUND -> report.fail(row.number(), "Product not found with id: " + row.value().getId(), null);
+                case NEGATIVE_STOCK -> report.fail(row.number(), "Stock would become negative", null);
+            }
+        }
+    }
+}
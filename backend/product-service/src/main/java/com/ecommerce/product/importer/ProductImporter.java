@@ -0,0 +1,140 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                          PRODUCT IMPORTER                                 ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Backs POST /api/products/bulk (JSON array or CSV).                       ║
+ * ║                                                                           ║
+ * ║  STREAMING, BOUNDED MEMORY:                                               ║
+ * ║  request body ──row by row──> validate ──> chunk (chunk-size rows)        ║
+ * ║                                              │                            ║
+ * ║                        ProductService.importProducts(chunk)               ║
+ * ║                        = one transaction, batched INSERTs, clear()        ║
+ * ║  At any time only one chunk is in memory - never the whole file, never   ║
+ * ║  every entity created so far - so heap use doesn't grow with row count.   ║
+ * ║                                                                           ║
+ * ║  PER-ROW ERRORS:                                                          ║
+ * ║  - Unparsable / invalid rows are reported and skipped, the rest go on     ║
+ * ║  - A chunk the database rejects (e.g. a constraint) is retried row by     ║
+ * ║    row, so only the offending rows fail                                   ║
+ * ║  - At most max-errors errors are listed; the counts are always exact      ║
+ * ║                                                                           ║
+ * ║  Chunks already committed stay committed: a failed import is fixed by     ║
+ * ║  re-sending only the rows listed in "errors".                             ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Slf4j
+public class ProductImporter {
+
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final int chunkSize;
+    private final int maxErrors;
+
+    public ProductImporter(
+            ProductService productService,
+            ObjectMapper objectMapper,
+            Validator validator,
+            @Value("${product.bulk-import.chunk-size:500}") int chunkSize,
+            @Value("${product.bulk-import.max-errors:1000}") int maxErrors) {
+        this.productService = productService;
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+        this.chunkSize = chunkSize;
+        this.maxErrors = maxErrors;
+    }
+
+    /**
+     * Import a JSON array of products
+     *
+     * @throws IllegalArgumentException when the body isn't a JSON array (nothing imported)
+     */
+    public BulkImportResponse importJson(InputStream in) throws IOException {
+        return importRows(new JsonRowReader<>(objectMapper, in, ProductDto.class));
+    }
+
+    /**
+     * Import CSV with a header line
+     *
+     * @throws IllegalArgumentException when the header is wrong (nothing imported)
+     */
+    public BulkImportResponse importCsv(InputStream in) throws IOException {
+        return importRows(new CsvProductRowReader(in));
+    }
+
+    private BulkImportResponse importRows(RowReader<ProductDto> reader) throws IOException {
+        BulkReport report = new BulkReport(maxErrors);
+        List<RowReader.Row<ProductDto>> chunk = new ArrayList<>(chunkSize);
+
+        try (reader) {
+            RowReader.Row<ProductDto> row;
+            while ((row = reader.next()) != null) {
+                report.received++;
+                if (row.error() != null) {
+                    report.fail(row.number(), row.error(), null);
+                    continue;
+                }
+                if (!report.validate(validator, row.number(), row.value())) {
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() == chunkSize) {
+                    save(chunk, report);
+                    chunk.clear();
+                }
+            }
+            report.completed = true;
+        } catch (IOException e) {
+            // Broken input (or the client went away): keep what was read before it
+            log.warn("Bulk import stopped after row {}: {}", report.received, e.getMessage());
+            report.received++;
+            report.fail(report.received, "Malformed input: " + e.getMessage(), null);
+        }
+
+        save(chunk, report);
+        log.info("Bulk import: {} received, {} imported, {} failed",
+                report.received, report.succeeded, report.failed);
+        return report.toImportResponse();
+    }
+
+    private void save(List<RowReader.Row<ProductDto>> rows, BulkReport report) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        try {
+            report.succeeded += productService.importProducts(rows.stream()
+                    .map(RowReader.Row::value)
+                    .toList());
+        } catch (DataAccessException chunkFailure) {
+            // The chunk rolled back as a whole: find the bad rows one by one
+            for (RowReader.Row<ProductDto> row : rows) {
+                try {
+                    report.succeeded += productService.importProducts(List.of(row.value()));
+                } catch (DataAccessException e) {
+                    report.fail(row.number(),
+                            "Could not be saved: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage(),
+                            null);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ecommerce.product.importer;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads a bulk request one row at a time, so only the current row is in memory
+ *
+ * A row that can't be turned into a T (e.g. price "abc") comes back with an
+ * error instead of a value, and reading goes on. An IOException means the
+ * input itself is broken and nothing after it can be read.
+ *
+ * @param <T> what one row becomes (ProductDto for imports, ProductBulkUpdate for updates)
+ */
+public interface RowReader<T> extends Closeable {
+
+    /**
+     * @return the next row, or null at the end of the input
+     */
+    Row<T> next() throws IOException;
+
+    /**
+     * @param number position in the input, starting at 1
+     * @param value the parsed row (null when error is set)
+     * @param error why the row couldn't be parsed
+     */
+    record Row<T>(long number, T value, String error) {
+
+        static <T> Row<T> of(long number, T value) {
+            return new Row<>(number, value, null);
+        }
+
+        static <T> Row<T> failed(long number, String error) {
+            return new Row<>(number, null, error);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.ecommerce.product.model;
+
+import com.ecommerce.product.outbox.EventMessage;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    OUTBOX EVENT (transactional outbox)                    ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  One row per domain event, e.g. "stock of product 42 changed by -3".      ║
+ * ║                                                                           ║
+ * ║  Written in the SAME transaction as the change it describes:              ║
+ * ║  - change committed   → event committed                                   ║
+ * ║  - change rolled back → event rolled back                                 ║
+ * ║  No "saved but never announced", no "announced but never saved".          ║
+ * ║                                                                           ║
+ * ║  OutboxRelay later publishes unpublished rows and sets publishedAt.       ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Entity
+@Table(name = "outbox_events", indexes = {
+        // Relay: "unpublished events, oldest first" / purge of old published ones
+        @Index(name = "idx_outbox_events_published_at_id", columnList = "published_at, id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class OutboxEvent {
+
+    // Sequence (see Product.id): a multi-line reservation's events are one batch
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "outbox_events_seq")
+    @SequenceGenerator(name = "outbox_events_seq", sequenceName = "outbox_events_seq", allocationSize = 50)
+    private Long id;
+
+    // What changed: "Product" + its ID
+    @Column(name = "aggregate_type", nullable = false, length = 32)
+    private String aggregateType;
+
+    @Column(name = "aggregate_id", nullable = false, length = 64)
+    private String aggregateId;
+
+    // e.g. "StockChanged"
+    @Column(name = "event_type", nullable = false, length = 64)
+    private String eventType;
+
+    // The event as JSON
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Null until the relay has published it
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+
+    public EventMessage toMessage() {
+        return new EventMessage(id, aggregateType, aggregateId, eventType, payload, createdAt);
+    }
+}
@@ -45,18 +45,39 @@ import java.time.LocalDateTime;
  * 
  * @Entity - "This class represents a database table"
  * @Table  - Customize table name (optional, defaults to class name)
+ * 
+ * INDEXES (one per finder in ProductRepository - without them every
+ * finder reads the whole table):
+ * - (category, price): findByCategory - the leftmost column alone is
+ *   enough, and price comes pre-sorted within a category
+ * - (price):           findByPriceBetween (a range on the first column)
+ * - (stock_quantity):  findByStockQuantityGreaterThan
+ * ProductQueryPlanTest checks with EXPLAIN that they are really used.
  */
 @Entity
-@Table(name = "products")
+@Table(name = "products", indexes = {
+        @Index(name = "idx_products_category_price", columnList = "category, price"),
+        @Index(name = "idx_products_price", columnList = "price"),
+        @Index(name = "idx_products_stock_quantity", columnList = "stock_quantity")
+})
 public class Product {
 
     /*
      * @Id - "This field is the PRIMARY KEY"
      * @GeneratedValue - "Database auto-generates this value"
-     *   - IDENTITY strategy: Uses database's auto-increment
+     *   - SEQUENCE strategy: IDs come from the products_seq sequence
+     *   - allocationSize = 50: one sequence call reserves 50 IDs, which
+     *     Hibernate hands out from memory (the "pooled" optimizer)
+     * 
+     * WHY NOT IDENTITY (auto-increment)?
+     * With IDENTITY the ID only exists after the INSERT ran, so Hibernate
+     * must execute every insert on its own, right away - JDBC batching
+     * (hibernate.jdbc.batch_size) is silently switched off. With a
+     * sequence the IDs are known up front and 50 inserts go out as one batch.
      */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "products_seq")
+    @SequenceGenerator(name = "products_seq", sequenceName = "products_seq", allocationSize = 50)
     private Long id;
 
     /*
@@ -94,12 +115,32 @@ public class Product {
     @Builder.Default  // Lombok: Use this default when using builder()
     private Integer stockQuantity = 0;
 
+    /*
+     * Units sold so far (increased by every stock reservation)
+     * Used to rank typeahead suggestions by popularity
+     */
+    @Column(name = "sold_count", nullable = false)
+    @Builder.Default
+    private Long soldCount = 0L;
+
     /*
      * Product category for filtering
      */
     @Column(length = 50)
     private String category;
 
+    /*
+     * @Version - optimistic locking
+     * Hibernate adds "AND version = ?" to every UPDATE of this row and
+     * bumps the value. If someone else changed the product since we read
+     * it, the UPDATE matches 0 rows and fails instead of silently
+     * overwriting their change (see OptimisticLockRetry).
+     * The JDBC stock updates (ProductStockRepositoryImpl) bump it too.
+     */
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
     /*
      * Audit fields: Track when records are created/modified
      * 
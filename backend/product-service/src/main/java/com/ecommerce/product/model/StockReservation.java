@@ -0,0 +1,104 @@
+package com.ecommerce.product.model;
+
+import jakarta.persistence.CollectionTable;
+import jakarta.persistence.Column;
+import jakarta.persistence.ElementCollection;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.FetchType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.JoinColumn;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    STOCK RESERVATION (idempotency record)                 ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Remembers a reservation made with a reservationId, so that:              ║
+ * ║                                                                           ║
+ * ║  - a RETRIED reserve with the same ID doesn't take the stock twice        ║
+ * ║  - a release gives back exactly what was taken, and only once             ║
+ * ║  - a release that arrives BEFORE its reserve (the reserve call timed      ║
+ * ║    out on the caller's side but was still in flight) leaves a RELEASED    ║
+ * ║    record behind, and the late reserve is then refused                    ║
+ * ║                                                                           ║
+ * ║  The ID is chosen by the caller (Order Service uses its saga ID).         ║
+ * ║                                                                           ║
+ * ║  RELEASED records are deleted after product.stock-reservation.retention   ║
+ * ║  (see StockReservationPurge); RESERVED ones stay, since cancelling the    ║
+ * ║  order releases them later.                                               ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Entity
+@Table(name = "stock_reservations", indexes = {
+        // Purge: "released before the retention cutoff"
+        @Index(name = "idx_stock_reservations_status_updated_at", columnList = "status, updated_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class StockReservation {
+
+    @Id
+    @Column(length = 64)
+    private String id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    // What was taken from stock (empty for a release that came first)
+    @ElementCollection(fetch = FetchType.EAGER)
+    @CollectionTable(name = "stock_reservation_lines", joinColumns = @JoinColumn(name = "reservation_id"))
+    @Builder.Default
+    private List<Line> lines = new ArrayList<>();
+
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public enum Status {
+        RESERVED,  // Stock is taken
+        RELEASED   // Stock was given back (or never taken); final
+    }
+
+    @Embeddable
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Line {
+
+        @Column(name = "product_id", nullable = false)
+        private Long productId;
+
+        @Column(nullable = false)
+        private Integer quantity;
+    }
+}
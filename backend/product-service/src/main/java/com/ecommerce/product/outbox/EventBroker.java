@@ -0,0 +1,21 @@
+package com.ecommerce.product.outbox;
+
+import java.util.List;
+
+/**
+ * Where OutboxRelay publishes product events
+ *
+ * The default is InMemoryEventBroker (product.outbox.broker=in-memory). To
+ * use a real broker (Kafka, RabbitMQ, ...) set product.outbox.broker to
+ * something else and register a bean implementing this interface.
+ */
+public interface EventBroker {
+
+    /**
+     * Publish a batch of events, in order
+     *
+     * Return only once the broker has accepted ALL of them; throw otherwise.
+     * A failed batch is published again on the next run (at-least-once).
+     */
+    void publish(List<EventMessage> batch);
+}
@@ -0,0 +1,17 @@
+package com.ecommerce.product.outbox;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox event as handed to the broker
+ *
+ * @param id            unique per service; consumers use it to drop duplicates
+ * @param aggregateType "Product"
+ * @param aggregateId   the product ID
+ * @param type          e.g. "StockChanged"
+ * @param payload       the event as JSON
+ * @param occurredAt    when the change was committed
+ */
+public record EventMessage(Long id, String aggregateType, String aggregateId, String type,
+                           String payload, LocalDateTime occurredAt) {
+}
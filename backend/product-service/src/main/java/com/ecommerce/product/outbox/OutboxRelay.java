@@ -0,0 +1,94 @@
+package com.ecommerce.product.outbox;
+
+import com.ecommerce.product.model.OutboxEvent;
+import com.ecommerce.product.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                          OUTBOX RELAY                                     ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Moves outbox events to the EventBroker, in batches.                      ║
+ * ║                                                                           ║
+ * ║  Each run (every product.outbox.poll-interval):                           ║
+ * ║  1. read up to batch-size unpublished events, oldest first                ║
+ * ║  2. publish them in ONE broker call                                       ║
+ * ║  3. mark them published with ONE UPDATE                                   ║
+ * ║  4. repeat until the outbox is drained                                    ║
+ * ║  No transaction is open during the broker call, so a slow broker never   ║
+ * ║  holds a pooled connection.                                               ║
+ * ║                                                                           ║
+ * ║  AT-LEAST-ONCE: a crash between 2 and 3 (or several instances relaying    ║
+ * ║  at once) publishes a batch twice. Consumers drop duplicates by event ID. ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private final OutboxEventRepository repository;
+    private final EventBroker broker;
+    private final int batchSize;
+    private final Duration retention;
+
+    public OutboxRelay(
+            OutboxEventRepository repository,
+            EventBroker broker,
+            @Value("${product.outbox.batch-size:100}") int batchSize,
+            @Value("${product.outbox.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.broker = broker;
+        this.batchSize = batchSize;
+        this.retention = retention;
+    }
+
+    /**
+     * Publish everything that's waiting
+     *
+     * If the broker fails, the batch stays unpublished and the exception
+     * ends this run; the next run starts again from that batch.
+     *
+     * @return number of events published
+     */
+    @Scheduled(initialDelayString = "${product.outbox.poll-interval:PT1S}",
+            fixedDelayString = "${product.outbox.poll-interval:PT1S}")
+    public int relay() {
+        int published = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = repository.findByPublishedAtIsNullOrderByIdAsc(PageRequest.of(0, batchSize));
+            if (batch.isEmpty()) {
+                break;
+            }
+            broker.publish(batch.stream().map(OutboxEvent::toMessage).toList());
+            repository.markPublished(batch.stream().map(OutboxEvent::getId).toList(), LocalDateTime.now());
+            published += batch.size();
+        } while (batch.size() == batchSize);
+
+        if (published > 0) {
+            log.debug("Published {} outbox events", published);
+        }
+        return published;
+    }
+
+    /**
+     * Delete published events older than the retention period
+     */
+    @Scheduled(initialDelayString = "${product.outbox.purge-interval:PT1H}",
+            fixedDelayString = "${product.outbox.purge-interval:PT1H}")
+    public int purgePublished() {
+        int deleted = repository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (deleted > 0) {
+            log.info("Purged {} published outbox events", deleted);
+        }
+        return deleted;
+    }
+}
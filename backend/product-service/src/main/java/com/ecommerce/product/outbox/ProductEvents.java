@@ -0,0 +1,34 @@
+package com.ecommerce.product.outbox;
+
+/**
+ * Payloads of the events product-service publishes
+ */
+public final class ProductEvents {
+
+    public static final String AGGREGATE_TYPE = "Product";
+
+    public static final String STOCK_CHANGED = "StockChanged";
+
+    private ProductEvents() {
+    }
+
+    /**
+     * Why the stock of a product changed
+     */
+    public enum StockChangeReason {
+        UPDATED,   // PUT /api/products/{id}/stock or PATCH /api/products/bulk
+        RESERVED,  // taken by an order
+        RELEASED   // given back by a cancelled / failed order
+    }
+
+    /**
+     * @param quantityChange negative when stock was taken; null when stock was
+     *                       set to an absolute level (bulk stockAbsolute)
+     * @param stockQuantity  the new stock level, or null when the change was
+     *                       applied by a batch UPDATE that doesn't read the row
+     * @param reservationId  set for RESERVED / RELEASED with a reservation ID
+     */
+    public record StockChanged(Long productId, Integer quantityChange, Integer stockQuantity,
+                               StockChangeReason reason, String reservationId) {
+    }
+}
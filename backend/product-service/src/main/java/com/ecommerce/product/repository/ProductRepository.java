@@ -1,10 +1,21 @@
 package com.ecommerce.product.repository;
 
+import com.ecommerce.product.dto.ProductDto;
 import com.ecommerce.product.model.Product;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * ╔═══════════════════════════════════════════════════════════════════════════╗
@@ -37,7 +48,7 @@ import java.util.List;
  *   - Also translates database exceptions to Spring exceptions
  */
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long> {
+public interface ProductRepository extends JpaRepository<Product, Long>, ProductStockRepository {
 
     /*
      * ═══════════════════════════════════════════════════════════════════════
@@ -79,6 +90,107 @@ public interface ProductRepository extends JpaRepository<Product, Long> {
     // Find products that are in stock
     List<Product> findByStockQuantityGreaterThan(Integer minStock);
 
+    /*
+     * ═══════════════════════════════════════════════════════════════════════
+     * STOCK-ONLY LOOKUPS (used with the product cache)
+     * ═══════════════════════════════════════════════════════════════════════
+     * 
+     * Interface-based PROJECTION: the return type only has getId() and
+     * getStockQuantity(), so Spring selects just those two columns:
+     * 
+     * findStockLevelById(5)
+     * → SELECT p.id, p.stock_quantity FROM products p WHERE p.id = 5
+     * 
+     * The cache keeps the product details; these give the live stock.
+     */
+    interface StockLevel {
+        Long getId();
+        Integer getStockQuantity();
+    }
+
+    Optional<StockLevel> findStockLevelById(Long id);
+
+    List<StockLevel> findStockLevelsByIdIn(Collection<Long> ids);
+
+    /*
+     * ═══════════════════════════════════════════════════════════════════════
+     * DTO PROJECTIONS (read endpoints)
+     * ═══════════════════════════════════════════════════════════════════════
+     * 
+     * A CONSTRUCTOR EXPRESSION builds the response DTO straight from the
+     * selected columns:
+     * 
+     * SELECT new ProductDto(p.id, p.name, ...) FROM Product p
+     * 
+     * No Product entity is created, so nothing lands in the persistence
+     * context: no dirty-checking snapshot, no flush check, no entity→DTO copy.
+     * Use these for reads; load entities only when you're going to change them.
+     */
+    String PRODUCT_DTO = "new com.ecommerce.product.dto.ProductDto("
+            + "p.id, p.name, p.description, p.price, p.stockQuantity, p.category, p.createdAt, p.updatedAt)";
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p")
+    List<ProductDto> findAllDtos();
+
+    @Query(value = "SELECT " + PRODUCT_DTO + " FROM Product p",
+            countQuery = "SELECT COUNT(p) FROM Product p")
+    Page<ProductDto> findDtoPage(Pageable pageable);
+
+    /*
+     * Keyset ("cursor") paging:
+     * findDtosAfter(1040, PageRequest.of(0, 20))
+     * → SELECT ... FROM products WHERE id > 1040 ORDER BY id LIMIT 20
+     * 
+     * Returning a List (not a Page) means Spring skips the COUNT(*) query.
+     */
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.id > :after ORDER BY p.id")
+    List<ProductDto> findDtosAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.id = :id")
+    Optional<ProductDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.id IN :ids")
+    List<ProductDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT " + PRODUCT_DTO + " FROM Product p WHERE p.category = :category")
+    List<ProductDto> findDtosByCategory(@Param("category") String category);
+
+    /*
+     * ═══════════════════════════════════════════════════════════════════════
+     * STREAMING (for exports)
+     * ═══════════════════════════════════════════════════════════════════════
+     * 
+     * Stream<Product> instead of List<Product>:
+     * - Rows are read from the JDBC ResultSet as the stream is consumed
+     * - The whole table is NEVER held in memory at once
+     * 
+     * HINT_FETCH_SIZE: how many rows the driver pulls per network round trip
+     * HINT_READ_ONLY:  Hibernate keeps no "dirty checking" snapshot per entity
+     * 
+     * RULES: must be called inside a @Transactional method, and the stream
+     * must be closed (try-with-resources) to release the connection/cursor.
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Product p ORDER BY p.id")
+    Stream<Product> streamAllByOrderById();
+
+    /*
+     * Just what the typeahead suggester needs (id, name, units sold) for every
+     * product - no descriptions, prices or timestamps are read
+     */
+    interface SuggestionSource {
+        Long getId();
+        String getName();
+        Long getSoldCount();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT p.id AS id, p.name AS name, p.soldCount AS soldCount FROM Product p")
+    Stream<SuggestionSource> streamSuggestionSources();
+
     /*
      * You can also write custom queries using @Query annotation
      * if the method name gets too complex:
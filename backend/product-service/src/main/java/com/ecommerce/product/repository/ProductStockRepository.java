@@ -0,0 +1,47 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.dto.ProductBulkUpdate;
+import com.ecommerce.product.dto.StockReservationRequest;
+
+import java.util.List;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                  PRODUCT STOCK REPOSITORY (Custom Fragment)               ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Stock operations that query derivation can't express.                    ║
+ * ║                                                                           ║
+ * ║  HOW SPRING DATA FRAGMENTS WORK:                                          ║
+ * ║  - ProductRepository extends this interface                               ║
+ * ║  - Spring finds ProductStockRepositoryImpl (same name + "Impl")           ║
+ * ║  - Calls to these methods are routed to our hand-written class            ║
+ * ║  - Callers still only see ONE ProductRepository                           ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+public interface ProductStockRepository {
+
+    /**
+     * Decrement stock for every item with a conditional UPDATE,
+     * sent to the database as ONE JDBC batch.
+     * 
+     * Returns the update count per item, in request order:
+     * 1 = decremented, 0 = unknown product or not enough stock
+     */
+    int[] decrementStock(List<StockReservationRequest.ReservationItem> items);
+
+    /**
+     * Give stock back (undo decrementStock), also as ONE JDBC batch
+     * 
+     * Returns the update count per item: 0 = the product no longer exists
+     */
+    int[] incrementStock(List<StockReservationRequest.ReservationItem> items);
+
+    /**
+     * Apply price / stock changes without loading the products,
+     * as ONE JDBC batch (PATCH /api/products/bulk)
+     * 
+     * Returns the update count per line: 0 = unknown product, or the
+     * change would take stock below 0 (then nothing of that line is applied)
+     */
+    int[] applyBulkUpdates(List<ProductBulkUpdate> updates);
+}
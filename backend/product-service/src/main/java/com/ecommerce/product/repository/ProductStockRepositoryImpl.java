@@ -0,0 +1,145 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.dto.ProductBulkUpdate;
+import com.ecommerce.product.dto.StockReservationRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * JDBC implementation of {@link ProductStockRepository}
+ * 
+ * WHY PLAIN JDBC HERE?
+ * The JPA way (findById → setStockQuantity → save) reads the row, changes it
+ * in Java and writes it back. Two concurrent orders can both read stock=5,
+ * both write stock=4, and one decrement is lost.
+ * 
+ * A conditional UPDATE does the check and the change in ONE statement:
+ * 
+ *   UPDATE products SET stock_quantity = stock_quantity - 2
+ *   WHERE id = 7 AND stock_quantity >= 2
+ * 
+ * The database locks the row while it runs, so there is no lost update,
+ * and "0 rows updated" tells us the line could not be served.
+ * The same statement adds the quantity to sold_count (suggestion popularity)
+ * and bumps version, so a concurrent JPA read-modify-write of the same
+ * product (e.g. updateStock) fails its version check instead of
+ * overwriting this change.
+ * 
+ * JdbcTemplate joins the surrounding @Transactional (same connection
+ * as JPA), so a rollback undoes these updates too.
+ */
+@RequiredArgsConstructor
+public class ProductStockRepositoryImpl implements ProductStockRepository {
+
+    private static final String DECREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity - ?, " +
+            "sold_count = sold_count + ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND stock_quantity >= ?";
+
+    private static final String INCREMENT_STOCK_SQL =
+            "UPDATE products SET stock_quantity = stock_quantity + ?, " +
+            "sold_count = GREATEST(sold_count - ?, 0), updated_at = ?, version = version + 1 " +
+            "WHERE id = ?";
+
+    /*
+     * One statement for every kind of bulk line - a NULL parameter keeps
+     * the column as it is:
+     *   price          = new price, or unchanged
+     *   stock_quantity = stockAbsolute, or stock_quantity + stockDelta (0 if none)
+     * The WHERE clause refuses a change that would make stock negative.
+     */
+    private static final String BULK_UPDATE_SQL =
+            "UPDATE products SET price = COALESCE(?, price), " +
+            "stock_quantity = COALESCE(?, stock_quantity + ?), updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND COALESCE(?, stock_quantity + ?) >= 0";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    public int[] decrementStock(List<StockReservationRequest.ReservationItem> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.batchUpdate(DECREMENT_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockReservationRequest.ReservationItem item = items.get(i);
+                ps.setInt(1, item.getQuantity());
+                ps.setInt(2, item.getQuantity());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, item.getProductId());
+                ps.setInt(5, item.getQuantity());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    @Override
+    public int[] incrementStock(List<StockReservationRequest.ReservationItem> items) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.batchUpdate(INCREMENT_STOCK_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                StockReservationRequest.ReservationItem item = items.get(i);
+                ps.setInt(1, item.getQuantity());
+                ps.setInt(2, item.getQuantity());
+                ps.setTimestamp(3, now);
+                ps.setLong(4, item.getProductId());
+            }
+
+            @Override
+            public int getBatchSize() {
+                return items.size();
+            }
+        });
+    }
+
+    @Override
+    public int[] applyBulkUpdates(List<ProductBulkUpdate> updates) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        return jdbcTemplate.batchUpdate(BULK_UPDATE_SQL, new BatchPreparedStatementSetter() {
+            @Override
+            public void setValues(PreparedStatement ps, int i) throws SQLException {
+                ProductBulkUpdate update = updates.get(i);
+                int delta = update.getStockDelta() != null ? update.getStockDelta() : 0;
+                if (update.getPrice() != null) {
+                    ps.setBigDecimal(1, update.getPrice());
+                } else {
+                    ps.setNull(1, Types.DECIMAL);
+                }
+                setNullableInt(ps, 2, update.getStockAbsolute());
+                ps.setInt(3, delta);
+                ps.setTimestamp(4, now);
+                ps.setLong(5, update.getId());
+                setNullableInt(ps, 6, update.getStockAbsolute());
+                ps.setInt(7, delta);
+            }
+
+            @Override
+            public int getBatchSize() {
+                return updates.size();
+            }
+        });
+    }
+
+    private static void setNullableInt(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value != null) {
+            ps.setInt(index, value);
+        } else {
+            ps.setNull(index, Types.INTEGER);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.ecommerce.product.repository;
+
+import com.ecommerce.product.model.StockReservation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reservations made with a reservationId (see StockReservation)
+ */
+@Repository
+public interface StockReservationRepository extends JpaRepository<StockReservation, String> {
+
+    /*
+     * A bulk DELETE skips the @ElementCollection, so the lines of the
+     * reservations about to be purged go first (see deleteReleasedBefore)
+     */
+    @Modifying
+    @Query(value = "DELETE FROM stock_reservation_lines WHERE reservation_id IN "
+            + "(SELECT id FROM stock_reservations WHERE status = 'RELEASED' AND updated_at < :before)",
+            nativeQuery = true)
+    int deleteReleasedLinesBefore(@Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query("DELETE FROM StockReservation r WHERE r.status = com.ecommerce.product.model.StockReservation.Status.RELEASED "
+            + "AND r.updatedAt < :before")
+    int deleteReleasedBefore(@Param("before") LocalDateTime before);
+}
@@ -0,0 +1,303 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.util.AfterCommit;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.TokenStream;
+import org.apache.lucene.analysis.standard.StandardAnalyzer;
+import org.apache.lucene.analysis.tokenattributes.CharTermAttribute;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.store.ByteBuffersDirectory;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                      PRODUCT SEARCH INDEX (Lucene)                        ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  An in-memory INVERTED INDEX over name, category and description.         ║
+ * ║                                                                           ║
+ * ║  WHY NOT  name LIKE '%phone%'?                                            ║
+ * ║  - A leading % can't use an index: every search reads EVERY row           ║
+ * ║  - It only looks at the name, and it can't rank the results               ║
+ * ║                                                                           ║
+ * ║  INVERTED INDEX:                                                          ║
+ * ║  "wireless" → [3, 17, 42]      Each word points to the products that      ║
+ * ║  "phone"    → [1, 17]          contain it, so a search only touches       ║
+ * ║  "case"     → [17, 99]         the products that actually match.          ║
+ * ║                                                                           ║
+ * ║  MATCHING (every word of the keyword must match somewhere):               ║
+ * ║  - Words are split and lower-cased ("iPhone-15 Case" → iphone, 15, case)  ║
+ * ║  - Prefixes match too: "head" finds "headphones"                          ║
+ * ║  - Ranking: name ×3, category ×2, description ×1; whole words beat        ║
+ * ║    prefixes                                                               ║
+ * ║                                                                           ║
+ * ║  The index only holds IDs for lookup: ProductService loads the products   ║
+ * ║  themselves from the database, so prices and stock are always current.    ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+public class ProductSearchIndex implements AutoCloseable {
+
+    static final String ID = "id";
+    static final String NAME = "name";
+    static final String CATEGORY = "category";
+    static final String DESCRIPTION = "description";
+
+    // Field → boost: a hit in the name counts more than one in the description
+    private static final Map<String, Float> FIELD_BOOSTS = Map.of(
+            NAME, 3.0f,
+            CATEGORY, 2.0f,
+            DESCRIPTION, 1.0f);
+
+    // A whole-word hit ranks above a prefix hit ("case" vs "casual")
+    private static final float PREFIX_BOOST = 0.5f;
+
+    private final Analyzer analyzer = new StandardAnalyzer();
+    private final IndexWriter writer;
+    private final SearcherManager searcherManager;
+
+    public ProductSearchIndex() {
+        try {
+            this.writer = new IndexWriter(new ByteBuffersDirectory(), new IndexWriterConfig(analyzer));
+            this.searcherManager = new SearcherManager(writer, null);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not create the product search index", e);
+        }
+    }
+
+    /**
+     * One page of matching product IDs, best match first
+     */
+    public record SearchResult(List<Long> ids, long totalHits) {
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // WRITING
+    // ═══════════════════════════════════════════════════════════════════════
+
+    /**
+     * Replace the whole index (used once at startup)
+     */
+    public void rebuild(Iterator<Product> products) {
+        try {
+            writer.deleteAll();
+            while (products.hasNext()) {
+                Product product = products.next();
+                writer.addDocument(toDocument(product));
+            }
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not rebuild the product search index", e);
+        }
+    }
+
+    /**
+     * A product was created or changed - (re)index it once the transaction commits
+     */
+    public void index(Product product) {
+        Document document = toDocument(product);
+        Term idTerm = idTerm(product.getId());
+        afterCommit(() -> {
+            writer.updateDocument(idTerm, document);
+            searcherManager.maybeRefreshBlocking();
+        });
+    }
+
+    /**
+     * Many products were created at once (bulk import) - index them once
+     * the transaction commits, with a single refresh for the whole list
+     */
+    public void indexAll(List<Product> products) {
+        List<Document> documents = products.stream().map(ProductSearchIndex::toDocument).toList();
+        List<Term> idTerms = products.stream().map(product -> idTerm(product.getId())).toList();
+        afterCommit(() -> {
+            for (int i = 0; i < documents.size(); i++) {
+                writer.updateDocument(idTerms.get(i), documents.get(i));
+            }
+            searcherManager.maybeRefreshBlocking();
+        });
+    }
+
+    /**
+     * A product was deleted - drop it once the transaction commits
+     */
+    public void remove(Long id) {
+        Term idTerm = idTerm(id);
+        afterCommit(() -> {
+            writer.deleteDocuments(idTerm);
+            searcherManager.maybeRefreshBlocking();
+        });
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // SEARCHING
+    // ═══════════════════════════════════════════════════════════════════════
+
+    /**
+     * Find products matching EVERY word of the keyword, ranked by relevance
+     *
+     * @param offset number of hits to skip (page * size), a long so a
+     *               far-away page can't overflow into a negative offset
+     * @param limit  max IDs to return
+     */
+    public SearchResult search(String keyword, long offset, int limit) {
+        Query query = buildQuery(keyword);
+        if (query == null) {
+            return new SearchResult(List.of(), 0);
+        }
+
+        try {
+            IndexSearcher searcher = searcherManager.acquire();
+            try {
+                int totalHits = searcher.count(query);
+                // Past the last hit (or a negative offset): nothing to rank
+                if (offset < 0 || offset >= totalHits) {
+                    return new SearchResult(List.of(), totalHits);
+                }
+                int wanted = (int) Math.min(offset + limit, totalHits);
+                if (wanted <= offset) {
+                    return new SearchResult(List.of(), totalHits);
+                }
+                
+                // Only the top "wanted" hits are ranked and kept
+                ScoreDoc[] hits = searcher.search(query, wanted).scoreDocs;
+                StoredFields storedFields = searcher.storedFields();
+                int first = (int) offset;
+                List<Long> ids = new ArrayList<>(Math.max(hits.length - first, 0));
+                for (int i = first; i < hits.length; i++) {
+                    Document document = storedFields.document(hits[i].doc);
+                    ids.add(Long.parseLong(document.get(ID)));
+                }
+                return new SearchResult(ids, totalHits);
+            } finally {
+                searcherManager.release(searcher);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Product search failed", e);
+        }
+    }
+
+    /**
+     * Every matching product ID, best match first
+     */
+    public List<Long> searchAll(String keyword) {
+        return search(keyword, 0, Integer.MAX_VALUE).ids();
+    }
+
+    @Override
+    public void close() throws IOException {
+        searcherManager.close();
+        writer.close();
+        analyzer.close();
+    }
+
+    /**
+     * "wireless head" →
+     *   MUST (name:wireless^3 | name:wireless*^1.5 | category:wireless^2 | ...)
+     *   MUST (name:head^3     | name:head*^1.5     | category:head^2     | ...)
+     *
+     * @return null when the keyword has no searchable words
+     */
+    private Query buildQuery(String keyword) {
+        List<String> words = analyze(keyword);
+        if (words.isEmpty()) {
+            return null;
+        }
+
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        for (String word : words) {
+            BooleanQuery.Builder anyField = new BooleanQuery.Builder();
+            FIELD_BOOSTS.forEach((field, boost) -> {
+                anyField.add(new BoostQuery(new TermQuery(new Term(field, word)), boost),
+                        BooleanClause.Occur.SHOULD);
+                anyField.add(new BoostQuery(new PrefixQuery(new Term(field, word)), boost * PREFIX_BOOST),
+                        BooleanClause.Occur.SHOULD);
+            });
+            query.add(anyField.build(), BooleanClause.Occur.MUST);
+        }
+        return query.build();
+    }
+
+    /**
+     * Split and normalise text exactly like the indexed fields were
+     */
+    private List<String> analyze(String text) {
+        List<String> words = new ArrayList<>();
+        if (text == null || text.isBlank()) {
+            return words;
+        }
+        try (TokenStream tokens = analyzer.tokenStream(NAME, text)) {
+            CharTermAttribute term = tokens.addAttribute(CharTermAttribute.class);
+            tokens.reset();
+            while (tokens.incrementToken()) {
+                words.add(term.toString());
+            }
+            tokens.end();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not analyze search keyword", e);
+        }
+        return words;
+    }
+
+    private static Document toDocument(Product product) {
+        Document document = new Document();
+        // StringField: exact, not tokenized - finds the document again on update/delete
+        document.add(new StringField(ID, String.valueOf(product.getId()), Field.Store.YES));
+        // TextField: tokenized and searchable
+        addText(document, NAME, product.getName());
+        addText(document, CATEGORY, product.getCategory());
+        addText(document, DESCRIPTION, product.getDescription());
+        return document;
+    }
+
+    private static void addText(Document document, String field, String value) {
+        if (value != null) {
+            document.add(new TextField(field, value, Field.Store.NO));
+        }
+    }
+
+    private static Term idTerm(Long id) {
+        return new Term(ID, String.valueOf(id));
+    }
+
+    /**
+     * Apply the change AFTER the database transaction commits,
+     * so a rolled-back write never shows up in search results
+     */
+    private static void afterCommit(IndexChange change) {
+        AfterCommit.run(() -> {
+            try {
+                change.run();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Could not update the product search index", e);
+            }
+        });
+    }
+
+    @FunctionalInterface
+    private interface IndexChange {
+        void run() throws IOException;
+    }
+}
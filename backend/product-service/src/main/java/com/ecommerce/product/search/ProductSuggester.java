@@ -0,0 +1,550 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.util.AfterCommit;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                  PRODUCT SUGGESTER (typeahead / autocomplete)             ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Answers "which product names start with what the user typed so far?"     ║
+ * ║  on every keystroke, most popular first, without touching the database.  ║
+ * ║                                                                           ║
+ * ║  DATA STRUCTURE (rebuilt as a whole, read without locks):                 ║
+ * ║  1. SORTED KEYS - one key per word of each name:                          ║
+ * ║       "Wireless Headphones" → "headphones", "wireless headphones"         ║
+ * ║     All keys starting with "hea" sit next to each other, so two binary    ║
+ * ║     searches give the range:  O(log n)                                    ║
+ * ║  2. SEGMENT TREE over that array - "most popular key in positions l..r"   ║
+ * ║     in O(log n). The top k of a range are found by taking the best,      ║
+ * ║     then searching left and right of it again:  O(k log n)               ║
+ * ║     So "a" (100,000 matches) costs the same as "airpods pro".             ║
+ * ║                                                                           ║
+ * ║  WRITES (create/update/delete):                                           ║
+ * ║  Go to a small "changed" map that is checked on every read. Once it       ║
+ * ║  reaches rebuildThreshold entries, a background thread merges everything ║
+ * ║  into a new sorted array - the committing request never waits for it.    ║
+ * ║  Readers always see one consistent State (volatile).                      ║
+ * ║  Writes that commit while rebuild() reads the database, or while a merge ║
+ * ║  runs, are recorded and kept on top of the new snapshot, which may not   ║
+ * ║  contain them.                                                            ║
+ * ║                                                                           ║
+ * ║  POPULARITY = units sold (products.sold_count); ProductService reloads    ║
+ * ║  it periodically, order volumes don't need to be exact to the second.    ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+public class ProductSuggester {
+
+    /**
+     * One product name offered to the user
+     */
+    public record Suggestion(Long id, String name, long popularity) {
+    }
+
+    // Best first: most popular, then alphabetical
+    private static final Comparator<Entry> BEST_FIRST = Comparator
+            .comparingLong(Entry::popularity).reversed()
+            .thenComparing(Entry::normalized)
+            .thenComparingLong(Entry::id);
+
+    private final int rebuildThreshold;
+
+    // Everything a reader needs, swapped in one volatile write
+    private volatile State state = new State(Snapshot.build(List.of()), Map.of());
+
+    // One rebuild or merge at a time
+    private final Object rebuildLock = new Object();
+
+    // Changes made while a rebuild or merge runs (guarded by "this"; null when none runs)
+    private Map<Long, Entry> changedDuringRebuild;
+
+    // Runs the merges, one at a time, off the committing request's thread
+    private final Executor mergeExecutor;
+
+    // A merge has been handed to mergeExecutor and hasn't started yet (guarded by "this")
+    private boolean mergeQueued;
+
+    public ProductSuggester(int rebuildThreshold) {
+        this(rebuildThreshold, Executors.newSingleThreadExecutor(task -> {
+            Thread thread = new Thread(task, "product-suggest-merge");
+            thread.setDaemon(true);
+            return thread;
+        }));
+    }
+
+    // Merges on the given executor (used by unit tests)
+    ProductSuggester(int rebuildThreshold, Executor mergeExecutor) {
+        this.rebuildThreshold = rebuildThreshold;
+        this.mergeExecutor = mergeExecutor;
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // WRITING
+    // ═══════════════════════════════════════════════════════════════════════
+
+    /**
+     * Replace everything (startup and periodic popularity refresh)
+     * 
+     * The source is opened only once recording has started: a product
+     * created, renamed or deleted while it is read may be missing from it
+     * (or appear with its old name), so those changes are replayed on top
+     * of the new snapshot instead of being lost until the next rebuild.
+     */
+    public void rebuild(Supplier<Stream<Suggestion>> source) {
+        synchronized (rebuildLock) {
+            synchronized (this) {
+                changedDuringRebuild = new HashMap<>();
+            }
+            try {
+                List<Entry> entries = new ArrayList<>();
+                try (Stream<Suggestion> suggestions = source.get()) {
+                    suggestions.map(Entry::of)
+                            .filter(Objects::nonNull)
+                            .forEach(entries::add);
+                }
+                Snapshot snapshot = Snapshot.build(entries);
+                synchronized (this) {
+                    state = new State(snapshot, changedDuringRebuild);
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+        mergeIfNeeded();
+    }
+
+    /**
+     * A product was created or renamed - visible once the transaction commits
+     */
+    public void put(Long id, String name, long popularity) {
+        Entry entry = Entry.of(new Suggestion(id, name, popularity));
+        AfterCommit.run(() -> change(Map.of(id, entry != null ? entry : Entry.removed(id))));
+    }
+
+    /**
+     * Many products were created at once (bulk import) - applied as ONE change,
+     * so a big import triggers at most one re-sort instead of one per threshold
+     */
+    public void putAll(List<Suggestion> suggestions) {
+        Map<Long, Entry> entries = new HashMap<>();
+        for (Suggestion suggestion : suggestions) {
+            Entry entry = Entry.of(suggestion);
+            entries.put(suggestion.id(), entry != null ? entry : Entry.removed(suggestion.id()));
+        }
+        AfterCommit.run(() -> change(entries));
+    }
+
+    /**
+     * A product was deleted - gone once the transaction commits
+     */
+    public void remove(Long id) {
+        AfterCommit.run(() -> change(Map.of(id, Entry.removed(id))));
+    }
+
+    /**
+     * Stop the merge thread (bean shutdown)
+     */
+    public void close() {
+        if (mergeExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    // Runs after commit on the request's thread: only the cheap overlay update
+    // happens here, the re-sort is handed to the merge thread
+    private void change(Map<Long, Entry> entries) {
+        synchronized (this) {
+            if (changedDuringRebuild != null) {
+                changedDuringRebuild.putAll(entries);
+            }
+            Map<Long, Entry> changed = new HashMap<>(state.changed());
+            changed.putAll(entries);
+            state = new State(state.base(), changed);
+        }
+        mergeIfNeeded();
+    }
+
+    // Never called while holding "this": merge() takes rebuildLock first
+    // (like rebuild()), and a direct executor runs it right here
+    private void mergeIfNeeded() {
+        synchronized (this) {
+            if (mergeQueued || state.changed().size() < rebuildThreshold) {
+                return;
+            }
+            mergeQueued = true;
+        }
+        try {
+            mergeExecutor.execute(this::merge);
+        } catch (RejectedExecutionException e) {
+            // Shutting down: the overlay keeps answering correctly until then
+            synchronized (this) {
+                mergeQueued = false;
+            }
+        }
+    }
+
+    /**
+     * Merge the changes into a fresh sorted array
+     * 
+     * Changes that commit meanwhile are recorded, like during rebuild(),
+     * and stay on top of the new snapshot.
+     */
+    private void merge() {
+        synchronized (rebuildLock) {
+            State current;
+            synchronized (this) {
+                mergeQueued = false;
+                current = state;
+                if (current.changed().size() < rebuildThreshold) {
+                    return;  // A rebuild or the previous merge already took them
+                }
+                changedDuringRebuild = new HashMap<>();
+            }
+            try {
+                Map<Long, Entry> merged = new HashMap<>();
+                for (Entry existing : current.base().entries) {
+                    merged.put(existing.id(), existing);
+                }
+                for (Entry update : current.changed().values()) {
+                    if (update.isRemoved()) {
+                        merged.remove(update.id());
+                    } else {
+                        merged.put(update.id(), update);
+                    }
+                }
+                Snapshot snapshot = Snapshot.build(new ArrayList<>(merged.values()));
+                synchronized (this) {
+                    state = new State(snapshot, changedDuringRebuild);
+                }
+            } finally {
+                synchronized (this) {
+                    changedDuringRebuild = null;
+                }
+            }
+        }
+        mergeIfNeeded();
+    }
+
+    // Products not merged into the sorted array yet
+    int pendingChanges() {
+        return state.changed().size();
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // READING
+    // ═══════════════════════════════════════════════════════════════════════
+
+    /**
+     * Up to "limit" products with a word starting with the prefix, most popular first
+     */
+    public List<Suggestion> suggest(String prefix, int limit) {
+        String normalizedPrefix = normalize(prefix);
+        if (normalizedPrefix.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        State current = state;
+
+        // Products changed since the last rebuild are answered from "changed" only
+        List<Entry> candidates = current.base().top(normalizedPrefix, limit, current.changed().keySet());
+        for (Entry entry : current.changed().values()) {
+            if (!entry.isRemoved() && entry.hasWordStartingWith(normalizedPrefix)) {
+                candidates.add(entry);
+            }
+        }
+
+        candidates.sort(BEST_FIRST);
+        List<Suggestion> result = new ArrayList<>(Math.min(limit, candidates.size()));
+        for (int i = 0; i < candidates.size() && result.size() < limit; i++) {
+            Entry entry = candidates.get(i);
+            result.add(new Suggestion(entry.id(), entry.name(), entry.popularity()));
+        }
+        return result;
+    }
+
+    /**
+     * Lower case, letters and digits only, single spaces: "iPhone-15  Pro" → "iphone 15 pro"
+     */
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (pendingSpace && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                pendingSpace = false;
+                normalized.append(c);
+            } else {
+                pendingSpace = true;
+            }
+        }
+        return normalized.toString().toLowerCase(Locale.ROOT);
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // INTERNALS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    private record State(Snapshot base, Map<Long, Entry> changed) {
+    }
+
+    private record Entry(long id, String name, String normalized, long popularity) {
+
+        static Entry of(Suggestion suggestion) {
+            String normalized = normalize(suggestion.name());
+            if (normalized.isEmpty()) {
+                return null;
+            }
+            return new Entry(suggestion.id(), suggestion.name(), normalized, suggestion.popularity());
+        }
+
+        // Tombstone: hides the product's old entry until the next rebuild
+        static Entry removed(long id) {
+            return new Entry(id, null, null, 0);
+        }
+
+        boolean isRemoved() {
+            return normalized == null;
+        }
+
+        boolean hasWordStartingWith(String prefix) {
+            int offset = 0;
+            while (offset >= 0) {
+                if (normalized.startsWith(prefix, offset)) {
+                    return true;
+                }
+                offset = nextWordStart(normalized, offset);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * Immutable sorted keys + segment tree, built in one go
+     */
+    private static final class Snapshot {
+
+        final Entry[] entries;
+        // Key i = entries[keyEntry[i]].normalized, starting at keyOffset[i]
+        final int[] keyEntry;
+        final int[] keyOffset;
+        // tree[1] = key position with the highest popularity; leaves at tree[n + i]
+        final int[] tree;
+
+        private Snapshot(Entry[] entries, int[] keyEntry, int[] keyOffset) {
+            this.entries = entries;
+            this.keyEntry = keyEntry;
+            this.keyOffset = keyOffset;
+            int n = keyEntry.length;
+            this.tree = new int[2 * n];
+            for (int i = 0; i < n; i++) {
+                tree[n + i] = i;
+            }
+            for (int i = n - 1; i > 0; i--) {
+                tree[i] = better(tree[2 * i], tree[2 * i + 1]);
+            }
+        }
+
+        static Snapshot build(List<Entry> entryList) {
+            Entry[] entries = entryList.toArray(new Entry[0]);
+
+            // One key per word start (primitive long: entry index << 32 | offset)
+            long[] keys = new long[Math.max(entries.length * 2, 16)];
+            int count = 0;
+            for (int e = 0; e < entries.length; e++) {
+                int offset = 0;
+                while (offset >= 0) {
+                    if (count == keys.length) {
+                        keys = Arrays.copyOf(keys, count * 2);
+                    }
+                    keys[count++] = ((long) e << 32) | offset;
+                    offset = nextWordStart(entries[e].normalized(), offset);
+                }
+            }
+            sortKeys(entries, keys, new long[count], 0, count);
+
+            int[] keyEntry = new int[count];
+            int[] keyOffset = new int[count];
+            for (int i = 0; i < count; i++) {
+                keyEntry[i] = (int) (keys[i] >>> 32);
+                keyOffset[i] = (int) keys[i];
+            }
+            return new Snapshot(entries, keyEntry, keyOffset);
+        }
+
+        /**
+         * Top entries among keys starting with prefix, skipping excluded IDs
+         * (and a product's second word when its first word already matched)
+         */
+        List<Entry> top(String prefix, int limit, Set<Long> excluded) {
+            List<Entry> result = new ArrayList<>(limit);
+            int from = firstKeyNotBefore(prefix);
+            int to = firstKeyAfter(prefix) - 1;
+            if (from > to) {
+                return result;
+            }
+
+            // Ranges ordered by their best key; split around each key we take
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    (a, b) -> a[2] == b[2] ? 0 : better(a[2], b[2]) == a[2] ? -1 : 1);
+            ranges.add(new int[]{from, to, best(from, to)});
+            Set<Long> seen = new HashSet<>();
+            while (result.size() < limit && !ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                int position = range[2];
+                Entry entry = entries[keyEntry[position]];
+                if (!excluded.contains(entry.id()) && seen.add(entry.id())) {
+                    result.add(entry);
+                }
+                if (range[0] < position) {
+                    ranges.add(new int[]{range[0], position - 1, best(range[0], position - 1)});
+                }
+                if (position < range[1]) {
+                    ranges.add(new int[]{position + 1, range[1], best(position + 1, range[1])});
+                }
+            }
+            return result;
+        }
+
+        // Position of the most popular key in [from, to] (inclusive)
+        private int best(int from, int to) {
+            int n = keyEntry.length;
+            int winner = from;
+            for (int l = from + n, r = to + n + 1; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    winner = better(winner, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    winner = better(winner, tree[--r]);
+                }
+            }
+            return winner;
+        }
+
+        // Same order as BEST_FIRST, so the top k picked here are the top k overall
+        private int better(int a, int b) {
+            int order = BEST_FIRST.compare(entries[keyEntry[a]], entries[keyEntry[b]]);
+            if (order != 0) {
+                return order < 0 ? a : b;
+            }
+            return Math.min(a, b);
+        }
+
+        private int firstKeyNotBefore(String prefix) {
+            int low = 0;
+            int high = keyEntry.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) < 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        private int firstKeyAfter(String prefix) {
+            int low = 0;
+            int high = keyEntry.length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (comparePrefix(mid, prefix) <= 0) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            return low;
+        }
+
+        /**
+         * Compare only the first prefix.length() characters of key i:
+         * 0 means the key starts with the prefix
+         */
+        private int comparePrefix(int i, String prefix) {
+            String text = entries[keyEntry[i]].normalized();
+            int offset = keyOffset[i];
+            int length = Math.min(text.length() - offset, prefix.length());
+            for (int c = 0; c < length; c++) {
+                int diff = text.charAt(offset + c) - prefix.charAt(c);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return text.length() - offset < prefix.length() ? -1 : 0;
+        }
+
+        // Merge sort of keys[from, to) by their text - Arrays.sort has no
+        // comparator overload for long[], and boxing every key would allocate
+        // one Long per word of the catalog on each rebuild
+        private static void sortKeys(Entry[] entries, long[] keys, long[] scratch, int from, int to) {
+            if (to - from < 2) {
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            sortKeys(entries, keys, scratch, from, middle);
+            sortKeys(entries, keys, scratch, middle, to);
+            if (compareKeys(entries, keys[middle - 1], keys[middle]) <= 0) {
+                return;
+            }
+            System.arraycopy(keys, from, scratch, from, to - from);
+            int left = from;
+            int right = middle;
+            for (int i = from; i < to; i++) {
+                if (right >= to || (left < middle && compareKeys(entries, scratch[left], scratch[right]) <= 0)) {
+                    keys[i] = scratch[left++];
+                } else {
+                    keys[i] = scratch[right++];
+                }
+            }
+        }
+
+        private static int compareKeys(Entry[] entries, long a, long b) {
+            String textA = entries[(int) (a >>> 32)].normalized();
+            String textB = entries[(int) (b >>> 32)].normalized();
+            int offsetA = (int) a;
+            int offsetB = (int) b;
+            int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+            for (int c = 0; c < length; c++) {
+                int diff = textA.charAt(offsetA + c) - textB.charAt(offsetB + c);
+                if (diff != 0) {
+                    return diff;
+                }
+            }
+            return (textA.length() - offsetA) - (textB.length() - offsetB);
+        }
+    }
+
+    /**
+     * Start of the word after the one at offset, or -1 at the last word
+     * (normalized text has exactly one space between words)
+     */
+    private static int nextWordStart(String normalized, int offset) {
+        int space = normalized.indexOf(' ', offset);
+        return space < 0 ? -1 : space + 1;
+    }
+}
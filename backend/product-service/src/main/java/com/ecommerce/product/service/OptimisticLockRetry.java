@@ -0,0 +1,95 @@
+package com.ecommerce.product.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                        OPTIMISTIC LOCK RETRY                              ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Product has a @Version column: Hibernate writes                          ║
+ * ║    UPDATE products SET ..., version = 8 WHERE id = 7 AND version = 7      ║
+ * ║  If another transaction changed the row since we read it, 0 rows match   ║
+ * ║  and the commit fails with OptimisticLockingFailureException - the lost   ║
+ * ║  update becomes an error instead.                                         ║
+ * ║                                                                           ║
+ * ║  inTransaction() runs the work in its OWN transaction and, on such a     ║
+ * ║  conflict, runs it again from the start (a fresh read of the row):       ║
+ * ║                                                                           ║
+ * ║  attempt 1 ──conflict──> sleep rand(0, 10ms) ──> attempt 2 ──conflict──>  ║
+ * ║  sleep rand(0, 20ms) ──> attempt 3 ... up to max-attempts, then throw    ║
+ * ║                                                                           ║
+ * ║  The random ("full jitter") sleep spreads the losers out, so they don't  ║
+ * ║  all collide again on the next attempt.                                   ║
+ * ║                                                                           ║
+ * ║  Called inside a transaction that is already open, the work runs once:   ║
+ * ║  only the outer transaction could be retried.                            ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+
+    public OptimisticLockRetry(
+            PlatformTransactionManager transactionManager,
+            @Value("${product.optimistic-retry.max-attempts:5}") int maxAttempts,
+            @Value("${product.optimistic-retry.initial-backoff:10ms}") Duration initialBackoff,
+            @Value("${product.optimistic-retry.max-backoff:200ms}") Duration maxBackoff) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+    }
+
+    /**
+     * Run work in a transaction, again (with a fresh transaction) on every
+     * optimistic lock conflict, up to max-attempts times
+     *
+     * @throws OptimisticLockingFailureException if the last attempt conflicts too
+     */
+    public <T> T inTransaction(String operation, Supplier<T> work) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                if (attempt >= maxAttempts) {
+                    log.warn("{} still conflicting after {} attempts", operation, attempt);
+                    throw e;
+                }
+                log.debug("{} conflicted (attempt {}), retrying", operation, attempt);
+                backOff(attempt);
+            }
+        }
+    }
+
+    // Full jitter: a random sleep between 0 and initial-backoff * 2^(attempt-1), capped
+    private void backOff(int attempt) {
+        long ceiling = Math.min(maxBackoff.toMillis(), initialBackoff.toMillis() << Math.min(attempt - 1, 20));
+        if (ceiling <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to retry", e);
+        }
+    }
+}
@@ -1,16 +1,48 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.cache.ProductCache;
+import com.ecommerce.product.dto.PageResponse;
+import com.ecommerce.product.dto.ProductBulkUpdate;
 import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.StockReservationRequest;
+import com.ecommerce.product.dto.StockReservationResponse;
 import com.ecommerce.product.dto.StockUpdateRequest;
+import com.ecommerce.product.exception.InsufficientStockException;
+import com.ecommerce.product.exception.ReservationReleasedException;
 import com.ecommerce.product.exception.ResourceNotFoundException;
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.outbox.Outbox;
+import com.ecommerce.product.outbox.ProductEvents;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.StockReservationRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.ProductSuggester;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * ╔═══════════════════════════════════════════════════════════════════════════╗
@@ -45,6 +77,12 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class ProductService {
 
+    // Upper bound for ?size= on paged endpoints
+    static final int MAX_PAGE_SIZE = 100;
+
+    // Upper bound for ?limit= on /suggest
+    static final int MAX_SUGGESTIONS = 20;
+
     /*
      * DEPENDENCY INJECTION:
      * - We don't create ProductRepository with "new"
@@ -53,24 +91,99 @@ public class ProductService {
      */
     private final ProductRepository productRepository;
 
+    // Used by the NDJSON export (the same JSON settings as our REST responses)
+    private final ObjectMapper objectMapper;
+
+    // Used by the export to detach entities once they've been written
+    private final EntityManager entityManager;
+
+    /*
+     * In-memory cache for getProductById / getProductsByCategory
+     * Every write method below evicts what it changed (see ProductCache)
+     */
+    private final ProductCache productCache;
+
+    /*
+     * Full-text index used by searchProducts (see ProductSearchIndex)
+     * create/update/delete keep it in sync
+     */
+    private final ProductSearchIndex searchIndex;
+
+    // Typeahead over product names (see ProductSuggester)
+    private final ProductSuggester suggester;
+
+    // Reservations made with a reservationId (idempotent reserve/release)
+    private final StockReservationRepository reservationRepository;
+
+    /*
+     * Stock-change events, written in the same transaction as the change
+     * and published by OutboxRelay (so consumers don't poll /api/products)
+     */
+    private final Outbox outbox;
+
+    // Re-runs updateStock when a concurrent change wins the version check
+    private final OptimisticLockRetry optimisticLockRetry;
+
     // ═══════════════════════════════════════════════════════════════════════
     // READ OPERATIONS
     // ═══════════════════════════════════════════════════════════════════════
+    // 
+    // Reads select straight into ProductDto (see "DTO PROJECTIONS" in
+    // ProductRepository) instead of loading Product entities and copying them.
+    // 
+    // @Transactional(readOnly = true): Hibernate skips the flush and its
+    // dirty checking, and the JDBC connection is marked read-only.
+    // Read-only transactions go to the read replica when one is configured
+    // (see DataSourceConfig). The connection is only taken at the first
+    // query, so a cache hit never touches the pool.
 
     /**
      * Get all products
-     * 
-     * Stream API explanation:
-     * productRepository.findAll()    → Returns List<Product>
-     *   .stream()                    → Convert to Stream for processing
-     *   .map(this::mapToDto)         → Convert each Product to ProductDto
-     *   .collect(Collectors.toList()) → Collect back to List
      */
+    @Transactional(readOnly = true)
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll()
-                .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return productRepository.findAllDtos();
+    }
+
+    /**
+     * Get one page of products (offset paging)
+     * 
+     * PageRequest.of(page, size, sort) → ORDER BY id LIMIT size OFFSET page*size
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductDto> getProductsPage(int page, int size) {
+        Page<ProductDto> result = productRepository.findDtoPage(
+                PageRequest.of(Math.max(page, 0), clampPageSize(size), Sort.by("id")));
+        
+        return PageResponse.<ProductDto>builder()
+                .content(result.getContent())
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalElements(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Get the products that come after a cursor (keyset paging)
+     * 
+     * We ask for size + 1 rows: if the extra row exists there is another page,
+     * so we drop it and hand out the last returned ID as nextCursor.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductDto> getProductsAfter(Long after, int size) {
+        int pageSize = clampPageSize(size);
+        List<ProductDto> products = productRepository.findDtosAfter(
+                after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+        
+        boolean hasMore = products.size() > pageSize;
+        List<ProductDto> pageContent = hasMore ? products.subList(0, pageSize) : products;
+        
+        return PageResponse.<ProductDto>builder()
+                .content(pageContent)
+                .size(pageSize)
+                .nextCursor(hasMore ? pageContent.get(pageSize - 1).getId() : null)
+                .build();
     }
 
     /**
@@ -81,29 +194,176 @@ public class ProductService {
      * - Optional can be empty (if not found) or contain a value
      * - orElseThrow() returns the value or throws exception if empty
      */
+    @Transactional(readOnly = true)
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
+        // Served from the product cache; the database is only hit on a miss
+        ProductDto product = productCache.getById(id, this::loadProduct);
+        if (productCache.includesStock()) {
+            return product;
+        }
+        
+        // Stock isn't cached: add the live value (a cheap primary-key lookup)
+        Integer stock = productRepository.findStockLevelById(id)
+                .map(ProductRepository.StockLevel::getStockQuantity)
                 .orElseThrow(() -> ResourceNotFoundException.forProduct(id));
-        return mapToDto(product);
+        return product.toBuilder().stockQuantity(stock).build();
     }
 
     /**
-     * Search products by name
+     * Get several products by ID in one call
+     * 
+     * Used by Order Service to validate every line of a cart at once,
+     * instead of one GET /api/products/{id} round trip per line.
+     * 
+     * findDtosByIdIn() → SELECT ... FROM products WHERE id IN (?, ?, ...)
+     * 
+     * IDs that don't exist are simply left out of the result -
+     * the caller decides whether a missing product is an error.
      */
-    public List<ProductDto> searchProducts(String keyword) {
-        return productRepository.findByNameContainingIgnoreCase(keyword)
-                .stream()
-                .map(this::mapToDto)
+    @Transactional(readOnly = true)
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+                .distinct()
                 .collect(Collectors.toList());
+        return productRepository.findDtosByIdIn(distinctIds);
+    }
+
+    /**
+     * Export ALL products as NDJSON (one JSON object per line)
+     * 
+     * Memory stays flat no matter how big the table is:
+     * - Rows are streamed from the database, not loaded into a List
+     * - Each product is written to the output as soon as it is read
+     * - detach() drops it from the persistence context right after,
+     *   so Hibernate doesn't keep every exported entity around
+     * 
+     * readOnly = true: no flush at the end, and the JDBC connection is
+     * marked read-only (the database can skip locking work).
+     */
+    @Transactional(readOnly = true)
+    public void exportProducts(OutputStream out) throws IOException {
+        try (Stream<Product> products = productRepository.streamAllByOrderById()) {
+            Iterator<Product> iterator = products.iterator();
+            while (iterator.hasNext()) {
+                Product product = iterator.next();
+                out.write(objectMapper.writeValueAsBytes(mapToDto(product)));
+                out.write('\n');
+                entityManager.detach(product);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Search products by name, category and description
+     * 
+     * The search index finds and ranks the matching IDs; the products
+     * themselves come from the database (one IN query), best match first.
+     */
+    @Transactional(readOnly = true)
+    public List<ProductDto> searchProducts(String keyword) {
+        return loadInOrder(searchIndex.searchAll(keyword));
+    }
+
+    /**
+     * One page of search results, best match first
+     * 
+     * Only the IDs of the requested page are loaded from the database.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<ProductDto> searchProductsPage(String keyword, int page, int size) {
+        int pageSize = clampPageSize(size);
+        int pageNumber = Math.max(page, 0);
+        ProductSearchIndex.SearchResult result =
+                searchIndex.search(keyword, (long) pageNumber * pageSize, pageSize);
+        
+        return PageResponse.<ProductDto>builder()
+                .content(loadInOrder(result.ids()))
+                .page(pageNumber)
+                .size(pageSize)
+                .totalElements(result.totalHits())
+                .totalPages((int) ((result.totalHits() + pageSize - 1) / pageSize))
+                .build();
+    }
+
+    /**
+     * Typeahead: product names with a word starting with the prefix,
+     * most sold first
+     * 
+     * Answered from memory only - the storefront calls this on every keystroke.
+     */
+    public List<ProductSuggester.Suggestion> suggestProducts(String prefix, int limit) {
+        return suggester.suggest(prefix, Math.min(Math.max(limit, 1), MAX_SUGGESTIONS));
+    }
+
+    /**
+     * Load every product name and its units sold into the suggester
+     * 
+     * Runs at startup and then every product.suggest.refresh-interval,
+     * which is how popularity (sold_count) changes reach the suggestions.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${product.suggest.refresh-interval:PT5M}",
+            fixedDelayString = "${product.suggest.refresh-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void rebuildSuggestions() {
+        // The suggester opens (and closes) the stream itself, see rebuild()
+        suggester.rebuild(() -> productRepository.streamSuggestionSources()
+                .map(source -> new ProductSuggester.Suggestion(
+                        source.getId(), source.getName(), source.getSoldCount())));
+    }
+
+    /**
+     * Fill the search index from the products table once the application
+     * has started (the index lives in memory, so it starts empty)
+     * 
+     * Rows are streamed and detached, like the NDJSON export.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        try (Stream<Product> products = productRepository.streamAllByOrderById()) {
+            Iterator<Product> iterator = products.iterator();
+            searchIndex.rebuild(new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Product next() {
+                    Product product = iterator.next();
+                    entityManager.detach(product);
+                    return product;
+                }
+            });
+        }
     }
 
     /**
      * Get products by category
      */
+    @Transactional(readOnly = true)
     public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category)
+        List<ProductDto> products = productCache.getByCategory(category,
+                productRepository::findDtosByCategory);
+        if (productCache.includesStock() || products.isEmpty()) {
+            return products;
+        }
+        
+        // Stock isn't cached: fetch live stock for the whole list in one query
+        Map<Long, Integer> stockById = productRepository.findStockLevelsByIdIn(
+                        products.stream().map(ProductDto::getId).collect(Collectors.toList()))
                 .stream()
-                .map(this::mapToDto)
+                .collect(Collectors.toMap(ProductRepository.StockLevel::getId,
+                        ProductRepository.StockLevel::getStockQuantity));
+        
+        // Products deleted since the list was cached are left out
+        return products.stream()
+                .filter(product -> stockById.containsKey(product.getId()))
+                .map(product -> product.toBuilder()
+                        .stockQuantity(stockById.get(product.getId()))
+                        .build())
                 .collect(Collectors.toList());
     }
 
@@ -126,10 +386,45 @@ public class ProductService {
         // Save to database (INSERT query)
         Product savedProduct = productRepository.save(product);
         
+        // Its category list (if cached) no longer has every product
+        productCache.evictProduct(savedProduct.getId());
+        searchIndex.index(savedProduct);
+        suggester.put(savedProduct.getId(), savedProduct.getName(), savedProduct.getSoldCount());
+        
         // Convert back to DTO and return
         return mapToDto(savedProduct);
     }
 
+    /**
+     * Create one chunk of a bulk import (see ProductImporter)
+     *
+     * One transaction per chunk: a 500k-row import is many short
+     * transactions, not one that holds a connection for minutes.
+     *
+     * saveAllAndFlush() → the INSERTs go out in JDBC batches (sequence IDs,
+     * hibernate.jdbc.batch_size), then clear() empties the persistence
+     * context so the next chunk starts with nothing in memory.
+     * Search index and suggestions get ONE update per chunk, after commit.
+     *
+     * @return number of products created
+     */
+    @Transactional
+    public int importProducts(List<ProductDto> productDtos) {
+        List<Product> savedProducts = productRepository.saveAllAndFlush(productDtos.stream()
+                .map(this::mapToEntity)
+                .collect(Collectors.toList()));
+        entityManager.clear();
+
+        // New products: nothing to evict by ID, only the category lists are stale
+        productCache.evictCategoryLists();
+        searchIndex.indexAll(savedProducts);
+        suggester.putAll(savedProducts.stream()
+                .map(product -> new ProductSuggester.Suggestion(
+                        product.getId(), product.getName(), product.getSoldCount()))
+                .collect(Collectors.toList()));
+        return savedProducts.size();
+    }
+
     /**
      * Update an existing product
      */
@@ -148,6 +443,9 @@ public class ProductService {
         
         // Save (UPDATE query because entity already has an ID)
         Product updatedProduct = productRepository.save(existingProduct);
+        productCache.evictProduct(id);
+        searchIndex.index(updatedProduct);
+        suggester.put(id, updatedProduct.getName(), updatedProduct.getSoldCount());
         
         return mapToDto(updatedProduct);
     }
@@ -155,27 +453,246 @@ public class ProductService {
     /**
      * Update stock quantity
      * This is called by Order Service when an order is placed
+     * 
+     * Read-modify-write on a versioned Product: when another request changed
+     * the product in between, the version check fails and the whole
+     * transaction runs again on fresh data (see OptimisticLockRetry),
+     * so no stock change is lost.
      */
-    @Transactional
     public ProductDto updateStock(Long id, StockUpdateRequest request) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> ResourceNotFoundException.forProduct(id));
+        return optimisticLockRetry.inTransaction("updateStock(" + id + ")", () -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> ResourceNotFoundException.forProduct(id));
+            
+            // Calculate new quantity
+            int newQuantity = product.getStockQuantity() + request.getQuantityChange();
+            
+            // Validate (can't have negative stock)
+            if (newQuantity < 0) {
+                throw new IllegalArgumentException(
+                    "Insufficient stock. Available: " + product.getStockQuantity() + 
+                    ", Requested: " + Math.abs(request.getQuantityChange())
+                );
+            }
+            
+            product.setStockQuantity(newQuantity);
+            Product updatedProduct = productRepository.save(product);
+            productCache.evictStock(List.of(id));
+            outbox.append(ProductEvents.AGGREGATE_TYPE, id, ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(id, request.getQuantityChange(), newQuantity,
+                            ProductEvents.StockChangeReason.UPDATED, null));
+            
+            return mapToDto(updatedProduct);
+        });
+    }
+
+    /**
+     * Apply one chunk of a bulk price / stock update (see ProductBulkUpdater)
+     *
+     * No entity is loaded: every line is one conditional UPDATE and the
+     * whole chunk goes to the database as ONE JDBC batch
+     * (see ProductStockRepository.applyBulkUpdates).
+     *
+     * A line that updates 0 rows is either an unknown product or a change
+     * that would make stock negative - one IN query tells them apart.
+     *
+     * Afterwards (all after commit):
+     * - price changes evict the cached products
+     * - stock changes evict cached stock and write StockChanged events
+     * The search index holds neither price nor stock, so it needs nothing.
+     *
+     * @return one outcome per line, in request order
+     */
+    @Transactional
+    public List<ProductBulkUpdate.Outcome> applyBulkUpdates(List<ProductBulkUpdate> updates) {
+        int[] updateCounts = productRepository.applyBulkUpdates(updates);
+
+        List<Long> missedIds = new ArrayList<>();
+        for (int i = 0; i < updates.size(); i++) {
+            if (updateCounts[i] == 0) {
+                missedIds.add(updates.get(i).getId());
+            }
+        }
+        Set<Long> existingIds = missedIds.isEmpty() ? Set.of()
+                : productRepository.findStockLevelsByIdIn(missedIds).stream()
+                        .map(ProductRepository.StockLevel::getId)
+                        .collect(Collectors.toSet());
+
+        List<ProductBulkUpdate.Outcome> outcomes = new ArrayList<>(updates.size());
+        Set<Long> priceChanged = new HashSet<>();
+        Set<Long> stockChanged = new HashSet<>();
+        for (int i = 0; i < updates.size(); i++) {
+            ProductBulkUpdate update = updates.get(i);
+            if (updateCounts[i] == 0) {
+                outcomes.add(existingIds.contains(update.getId())
+                        ? ProductBulkUpdate.Outcome.NEGATIVE_STOCK
+                        : ProductBulkUpdate.Outcome.NOT_FOUND);
+                continue;
+            }
+            outcomes.add(ProductBulkUpdate.Outcome.UPDATED);
+            if (update.getPrice() != null) {
+                priceChanged.add(update.getId());
+            }
+            if (update.getStockDelta() != null || update.getStockAbsolute() != null) {
+                stockChanged.add(update.getId());
+                outbox.append(ProductEvents.AGGREGATE_TYPE, update.getId(), ProductEvents.STOCK_CHANGED,
+                        new ProductEvents.StockChanged(update.getId(), update.getStockDelta(),
+                                update.getStockAbsolute(), ProductEvents.StockChangeReason.UPDATED, null));
+            }
+        }
+
+        if (!priceChanged.isEmpty()) {
+            productCache.evictProducts(priceChanged);
+        }
+        if (!stockChanged.isEmpty()) {
+            productCache.evictStock(stockChanged);
+        }
+        return outcomes;
+    }
+
+    /**
+     * Reserve stock for every line of an order at once
+     * 
+     * Instead of one updateStock() call (and one read-modify-write) per line,
+     * all lines are decremented with conditional UPDATEs sent as one JDBC batch.
+     * 
+     * ALL-OR-NOTHING:
+     * If any line can't be served, we throw InsufficientStockException.
+     * @Transactional then rolls back the lines that DID succeed, so stock
+     * is never partially taken for an order.
+     * 
+     * IDEMPOTENT (when the request has a reservationId):
+     * - Same ID already RESERVED → answer "reserved" again, take nothing
+     * - Same ID already RELEASED → refuse (ReservationReleasedException)
+     * - New ID → reserve, and record the reservation in the SAME transaction
+     *   (two concurrent calls with one ID: the second insert fails and its
+     *   decrements roll back with it)
+     */
+    @Transactional
+    public StockReservationResponse reserveStock(StockReservationRequest request) {
+        List<StockReservationRequest.ReservationItem> items = request.getItems();
+        String reservationId = request.getReservationId();
         
-        // Calculate new quantity
-        int newQuantity = product.getStockQuantity() + request.getQuantityChange();
+        if (reservationId != null) {
+            Optional<StockReservation> existing = reservationRepository.findById(reservationId);
+            if (existing.isPresent()) {
+                return replayReservation(existing.get());
+            }
+        }
         
-        // Validate (can't have negative stock)
-        if (newQuantity < 0) {
-            throw new IllegalArgumentException(
-                "Insufficient stock. Available: " + product.getStockQuantity() + 
-                ", Requested: " + Math.abs(request.getQuantityChange())
-            );
+        int[] updateCounts = productRepository.decrementStock(items);
+        
+        boolean allReserved = true;
+        List<StockReservationResponse.LineResult> lines = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            StockReservationRequest.ReservationItem item = items.get(i);
+            StockReservationResponse.LineStatus status;
+            if (updateCounts[i] != 0) {
+                status = StockReservationResponse.LineStatus.RESERVED;
+            } else {
+                // 0 rows updated: either the product doesn't exist or stock is too low
+                allReserved = false;
+                status = productRepository.existsById(item.getProductId())
+                        ? StockReservationResponse.LineStatus.INSUFFICIENT_STOCK
+                        : StockReservationResponse.LineStatus.NOT_FOUND;
+            }
+            lines.add(StockReservationResponse.LineResult.builder()
+                    .productId(item.getProductId())
+                    .quantity(item.getQuantity())
+                    .status(status)
+                    .build());
         }
         
-        product.setStockQuantity(newQuantity);
-        Product updatedProduct = productRepository.save(product);
+        StockReservationResponse response = StockReservationResponse.builder()
+                .reserved(allReserved)
+                .lines(lines)
+                .build();
         
-        return mapToDto(updatedProduct);
+        if (!allReserved) {
+            throw new InsufficientStockException(response);
+        }
+        if (reservationId != null) {
+            reservationRepository.save(StockReservation.builder()
+                    .id(reservationId)
+                    .status(StockReservation.Status.RESERVED)
+                    .lines(items.stream()
+                            .map(item -> new StockReservation.Line(item.getProductId(), item.getQuantity()))
+                            .collect(Collectors.toList()))
+                    .build());
+        }
+        appendStockChanges(items, -1, ProductEvents.StockChangeReason.RESERVED, reservationId);
+        productCache.evictStock(items.stream()
+                .map(StockReservationRequest.ReservationItem::getProductId)
+                .collect(Collectors.toSet()));
+        return response;
+    }
+
+    /**
+     * Give back the stock taken by a reservation (the compensating action)
+     * 
+     * Safe to call any number of times:
+     * - RESERVED → stock is added back, the reservation becomes RELEASED
+     * - RELEASED → nothing to do
+     * - unknown  → the reserve never arrived (or failed): record it as
+     *              RELEASED so a late reserve with this ID is refused
+     */
+    @Transactional
+    public void releaseStock(String reservationId) {
+        StockReservation reservation = reservationRepository.findById(reservationId).orElse(null);
+        if (reservation == null) {
+            reservationRepository.save(StockReservation.builder()
+                    .id(reservationId)
+                    .status(StockReservation.Status.RELEASED)
+                    .build());
+            return;
+        }
+        if (reservation.getStatus() == StockReservation.Status.RELEASED) {
+            return;
+        }
+        
+        List<StockReservationRequest.ReservationItem> items = reservation.getLines().stream()
+                .map(line -> new StockReservationRequest.ReservationItem(line.getProductId(), line.getQuantity()))
+                .collect(Collectors.toList());
+        productRepository.incrementStock(items);
+        reservation.setStatus(StockReservation.Status.RELEASED);
+        reservationRepository.save(reservation);
+        appendStockChanges(items, 1, ProductEvents.StockChangeReason.RELEASED, reservationId);
+        
+        productCache.evictStock(items.stream()
+                .map(StockReservationRequest.ReservationItem::getProductId)
+                .collect(Collectors.toSet()));
+    }
+
+    /**
+     * One StockChanged event per reserved / released line
+     * (sign: -1 = taken, +1 = given back)
+     */
+    private void appendStockChanges(List<StockReservationRequest.ReservationItem> items, int sign,
+                                    ProductEvents.StockChangeReason reason, String reservationId) {
+        for (StockReservationRequest.ReservationItem item : items) {
+            outbox.append(ProductEvents.AGGREGATE_TYPE, item.getProductId(), ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(item.getProductId(), sign * item.getQuantity(), null,
+                            reason, reservationId));
+        }
+    }
+
+    /**
+     * The answer to a reserve that was already handled
+     */
+    private static StockReservationResponse replayReservation(StockReservation reservation) {
+        if (reservation.getStatus() == StockReservation.Status.RELEASED) {
+            throw new ReservationReleasedException(reservation.getId());
+        }
+        return StockReservationResponse.builder()
+                .reserved(true)
+                .lines(reservation.getLines().stream()
+                        .map(line -> StockReservationResponse.LineResult.builder()
+                                .productId(line.getProductId())
+                                .quantity(line.getQuantity())
+                                .status(StockReservationResponse.LineStatus.RESERVED)
+                                .build())
+                        .collect(Collectors.toList()))
+                .build();
     }
 
     /**
@@ -188,6 +705,44 @@ public class ProductService {
             throw ResourceNotFoundException.forProduct(id);
         }
         productRepository.deleteById(id);
+        productCache.evictProduct(id);
+        searchIndex.remove(id);
+        suggester.remove(id);
+    }
+
+    /**
+     * Keep page sizes between 1 and MAX_PAGE_SIZE so one request
+     * can't pull the whole table back into memory
+     */
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    /**
+     * Load products by ID and return them in the order of the ID list
+     * (an IN query doesn't keep the order; search results must)
+     */
+    private List<ProductDto> loadInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductDto> productsById = productRepository.findDtosByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(ProductDto::getId, Function.identity()));
+        
+        // An ID whose product was deleted a moment ago is skipped
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Cache loader for getProductById (only runs on a cache miss)
+     */
+    private ProductDto loadProduct(Long id) {
+        return productRepository.findDtoById(id)
+                .orElseThrow(() -> ResourceNotFoundException.forProduct(id));
     }
 
     // ═══════════════════════════════════════════════════════════════════════
@@ -199,8 +754,10 @@ public class ProductService {
      * 
      * In larger projects, you'd use a library like MapStruct
      * for automatic mapping. Here we do it manually for clarity.
+     * 
+     * Package-private so the benchmarks module can measure it.
      */
-    private ProductDto mapToDto(Product product) {
+    ProductDto mapToDto(Product product) {
         return ProductDto.builder()
                 .id(product.getId())
                 .name(product.getName())
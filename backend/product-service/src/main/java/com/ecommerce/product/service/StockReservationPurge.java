@@ -0,0 +1,52 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.repository.StockReservationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Deletes released stock reservations once they are old enough
+ *
+ * A RELEASED record only exists to answer a retried release and to refuse
+ * a late reserve with the same ID; after the retention period neither can
+ * arrive any more. RESERVED records are kept: the order they belong to may
+ * still be cancelled, which releases them.
+ */
+@Component
+@Slf4j
+public class StockReservationPurge {
+
+    private final StockReservationRepository repository;
+    private final Duration retention;
+
+    public StockReservationPurge(
+            StockReservationRepository repository,
+            @Value("${product.stock-reservation.retention:7d}") Duration retention) {
+        this.repository = repository;
+        this.retention = retention;
+    }
+
+    /**
+     * Delete reservations released longer ago than the retention period
+     *
+     * @return number of reservations deleted
+     */
+    @Scheduled(initialDelayString = "${product.stock-reservation.purge-interval:PT1H}",
+            fixedDelayString = "${product.stock-reservation.purge-interval:PT1H}")
+    @Transactional
+    public int purgeReleased() {
+        LocalDateTime before = LocalDateTime.now().minus(retention);
+        repository.deleteReleasedLinesBefore(before);
+        int deleted = repository.deleteReleasedBefore(before);
+        if (deleted > 0) {
+            log.info("Purged {} released stock reservations", deleted);
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,31 @@
+package com.ecommerce.product.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Run in-memory side effects (cache eviction, index updates) only once
+ * the database transaction has committed
+ * 
+ * Doing them earlier leaves a gap: another request could re-load the OLD
+ * row, or see a change that is then rolled back. Outside a transaction
+ * there's nothing to wait for, so the action runs right away.
+ */
+public final class AfterCommit {
+
+    private AfterCommit() {
+    }
+
+    public static void run(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package com.ecommerce.product.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Connection Hold Tracker Unit Tests
+ *
+ * The pool is a mock; the "service methods" holding connections are the
+ * helper methods below (this test lives in com.ecommerce.product too)
+ */
+class ConnectionHoldTrackerTest {
+
+    private Connection connection;
+    private SimpleMeterRegistry meterRegistry;
+    private ConnectionHoldTracker tracker;
+    private DataSource pool;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        connection = mock(Connection.class);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenReturn(connection);
+
+        meterRegistry = new SimpleMeterRegistry();
+        tracker = new ConnectionHoldTracker("com.ecommerce.product", Duration.ofSeconds(1), meterRegistry);
+        pool = tracker.track("product-primary", target);
+    }
+
+    @Test
+    @DisplayName("Should record each hold under the method that took the connection")
+    void track_RecordsCallingMethod() throws Exception {
+        shortQuery();
+        shortQuery();
+        slowQuery();
+
+        List<ConnectionHoldTracker.HoldSummary> holds = tracker.longestHolds(10);
+
+        assertThat(holds).extracting(ConnectionHoldTracker.HoldSummary::method)
+                .containsExactly("ConnectionHoldTrackerTest.slowQuery", "ConnectionHoldTrackerTest.shortQuery");
+        assertThat(holds.get(0).maxMillis()).isGreaterThanOrEqualTo(50);
+        assertThat(holds.get(1).count()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should publish db.connection.hold tagged with pool and method")
+    void track_PublishesTimer() throws Exception {
+        slowQuery();
+
+        Timer timer = meterRegistry.find("db.connection.hold")
+                .tags("pool", "product-primary", "method", "ConnectionHoldTrackerTest.slowQuery")
+                .timer();
+        assertThat(timer).isNotNull();
+        assertThat(timer.count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should still close the real connection, and count a double close once")
+    void close_DelegatesOnce() throws Exception {
+        Connection tracked = pool.getConnection();
+        tracked.close();
+        tracked.close();
+
+        verify(connection, times(2)).close();
+        assertThat(tracker.longestHolds(10).get(0).count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should forget all holds on reset")
+    void reset_ClearsHolds() throws Exception {
+        shortQuery();
+        tracker.reset();
+
+        assertThat(tracker.longestHolds(10)).isEmpty();
+    }
+
+    private void shortQuery() throws SQLException {
+        try (Connection ignored = pool.getConnection()) {
+            // returned at once
+        }
+    }
+
+    private void slowQuery() throws Exception {
+        try (Connection ignored = pool.getConnection()) {
+            Thread.sleep(50);
+        }
+    }
+}
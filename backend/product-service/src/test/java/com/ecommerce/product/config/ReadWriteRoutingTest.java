@@ -0,0 +1,137 @@
+package com.ecommerce.product.config;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    READ/WRITE ROUTING TESTS                               ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Two separate in-memory H2 databases stand in for primary and replica.   ║
+ * ║  Hibernate creates the tables on the primary; the replica gets a copy     ║
+ * ║  of the schema (SCRIPT NODATA) but NOT the data, so every query shows     ║
+ * ║  which database answered it.                                              ║
+ * ║                                                                           ║
+ * ║  Tests run WITHOUT the usual test transaction (NOT_SUPPORTED): each       ║
+ * ║  case opens its own read-only or read-write transaction.                  ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:routing-primary;DB_CLOSE_DELAY=-1",
+        "product.datasource.replica.jdbc-url=jdbc:h2:mem:routing-replica;DB_CLOSE_DELAY=-1",
+        "product.datasource.replica.username=sa",
+        "product.datasource.replica.password=password"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(DataSourceConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReadWriteRoutingTest {
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    @Qualifier("primaryDataSource")
+    private HikariDataSource primaryDataSource;
+
+    @Autowired
+    @Qualifier("replicaDataSource")
+    private HikariDataSource replicaDataSource;
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = new JdbcTemplate(primaryDataSource);
+        replica = new JdbcTemplate(replicaDataSource);
+
+        Integer replicaTables = replica.queryForObject(
+                "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_NAME = 'PRODUCTS'", Integer.class);
+        if (replicaTables == 0) {
+            primary.queryForList("SCRIPT NODATA", String.class).stream()
+                    .filter(statement -> !statement.startsWith("--"))
+                    .forEach(replica::execute);
+        }
+
+        primary.update("DELETE FROM products");
+        replica.update("DELETE FROM products");
+        replica.update("""
+                INSERT INTO products (id, name, price, stock_quantity, sold_count, category, version)
+                VALUES (NEXT VALUE FOR products_seq, 'Replica Only', 1.00, 1, 0, 'Test', 0)
+                """);
+    }
+
+    @Test
+    @DisplayName("Read-only transactions are answered by the replica")
+    void readOnlyTransaction_UsesReplica() {
+        List<Product> products = inTransaction(true, () -> productRepository.findAll());
+
+        assertThat(products).extracting(Product::getName).containsExactly("Replica Only");
+    }
+
+    @Test
+    @DisplayName("Read-write transactions write to the primary")
+    void readWriteTransaction_UsesPrimary() {
+        inTransaction(false, () -> productRepository.save(product("Written")));
+
+        assertThat(primary.queryForList("SELECT name FROM products", String.class)).containsExactly("Written");
+        assertThat(replica.queryForList("SELECT name FROM products", String.class)).containsExactly("Replica Only");
+    }
+
+    @Test
+    @DisplayName("Reads inside a read-write transaction see its own writes (primary)")
+    void readInsideReadWriteTransaction_UsesPrimary() {
+        List<Product> products = inTransaction(false, () -> {
+            productRepository.saveAndFlush(product("Written"));
+            return productRepository.findAll();
+        });
+
+        assertThat(products).extracting(Product::getName).containsExactly("Written");
+    }
+
+    @Test
+    @DisplayName("Both pools are named, so their metrics can be told apart")
+    void pools_AreNamed() {
+        assertThat(primaryDataSource.getPoolName()).isEqualTo("product-primary");
+        assertThat(replicaDataSource.getPoolName()).isEqualTo("product-replica");
+    }
+
+    private <T> T inTransaction(boolean readOnly, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(readOnly);
+        return template.execute(status -> work.get());
+    }
+
+    private static Product product(String name) {
+        return Product.builder()
+                .name(name)
+                .price(BigDecimal.TEN)
+                .stockQuantity(5)
+                .category("Test")
+                .build();
+    }
+}
@@ -1,8 +1,17 @@
 package com.ecommerce.product.controller;
 
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.BulkUpdateResponse;
+import com.ecommerce.product.dto.PageResponse;
 import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.StockReservationRequest;
+import com.ecommerce.product.dto.StockReservationResponse;
 import com.ecommerce.product.dto.StockUpdateRequest;
+import com.ecommerce.product.exception.InsufficientStockException;
 import com.ecommerce.product.exception.ResourceNotFoundException;
+import com.ecommerce.product.importer.ProductBulkUpdater;
+import com.ecommerce.product.importer.ProductImporter;
+import com.ecommerce.product.search.ProductSuggester;
 import com.ecommerce.product.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -15,8 +24,12 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
 import java.util.Collections;
 
 import static org.hamcrest.Matchers.*;
@@ -59,6 +72,12 @@ class ProductControllerTest {
     @MockBean  // Mocks the service layer
     private ProductService productService;
 
+    @MockBean
+    private ProductImporter productImporter;
+
+    @MockBean
+    private ProductBulkUpdater productBulkUpdater;
+
     private ProductDto testProductDto;
 
     @BeforeEach
@@ -105,6 +124,96 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET /api/products?page= / ?after=")
+    class PagedProductsTests {
+
+        @Test
+        @DisplayName("Returns 200 and an offset page when page is given")
+        void getProductsPage_ReturnsPage() throws Exception {
+            PageResponse<ProductDto> page = PageResponse.<ProductDto>builder()
+                    .content(Arrays.asList(testProductDto))
+                    .page(0).size(20).totalElements(1L).totalPages(1)
+                    .build();
+            when(productService.getProductsPage(0, 20)).thenReturn(page);
+
+            mockMvc.perform(get("/api/products").param("page", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content", hasSize(1)))
+                    .andExpect(jsonPath("$.totalElements", is(1)))
+                    .andExpect(jsonPath("$.nextCursor").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Returns 200 and a keyset page with next cursor when after is given")
+        void getProductsAfter_ReturnsCursorPage() throws Exception {
+            PageResponse<ProductDto> page = PageResponse.<ProductDto>builder()
+                    .content(Arrays.asList(testProductDto))
+                    .size(1).nextCursor(1L)
+                    .build();
+            when(productService.getProductsAfter(0L, 1)).thenReturn(page);
+
+            mockMvc.perform(get("/api/products").param("after", "0").param("size", "1"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].name", is("Test Product")))
+                    .andExpect(jsonPath("$.nextCursor", is(1)))
+                    .andExpect(jsonPath("$.totalElements").doesNotExist());
+        }
+
+        @Test
+        @DisplayName("Returns 200 and a page of search results when page is given")
+        void searchProductsPage_ReturnsPage() throws Exception {
+            PageResponse<ProductDto> page = PageResponse.<ProductDto>builder()
+                    .content(Arrays.asList(testProductDto))
+                    .page(0).size(20).totalElements(1L).totalPages(1)
+                    .build();
+            when(productService.searchProductsPage("test", 0, 20)).thenReturn(page);
+
+            mockMvc.perform(get("/api/products/search").param("keyword", "test").param("page", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].name", is("Test Product")))
+                    .andExpect(jsonPath("$.totalElements", is(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/products/suggest")
+    class SuggestProductsTests {
+
+        @Test
+        @DisplayName("Returns 200 with suggestions, default limit 10")
+        void suggestProducts_ReturnsSuggestions() throws Exception {
+            when(productService.suggestProducts("wir", 10)).thenReturn(
+                    List.of(new ProductSuggester.Suggestion(2L, "Wireless Headphones", 250L)));
+
+            mockMvc.perform(get("/api/products/suggest").param("prefix", "wir"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[0].id", is(2)))
+                    .andExpect(jsonPath("$[0].name", is("Wireless Headphones")))
+                    .andExpect(jsonPath("$[0].popularity", is(250)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/products/export")
+    class ExportProductsTests {
+
+        @Test
+        @DisplayName("Returns 200 with NDJSON written by the service")
+        void exportProducts_StreamsNdjson() throws Exception {
+            doAnswer(invocation -> {
+                OutputStream out = invocation.getArgument(0);
+                out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8));
+                return null;
+            }).when(productService).exportProducts(any(OutputStream.class));
+
+            mockMvc.perform(get("/api/products/export"))
+                    .andExpect(status().isOk())
+                    .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON))
+                    .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+        }
+    }
+
     @Nested
     @DisplayName("GET /api/products/{id}")
     class GetProductByIdTests {
@@ -131,6 +240,37 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("GET/POST /api/products/batch")
+    class GetProductsByIdsTests {
+
+        @Test
+        @DisplayName("GET returns 200 and the requested products")
+        void getProductsByIds_WithQueryParam_ReturnsProducts() throws Exception {
+            when(productService.getProductsByIds(Arrays.asList(1L, 2L)))
+                    .thenReturn(Arrays.asList(testProductDto));
+
+            mockMvc.perform(get("/api/products/batch").param("ids", "1,2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(1)));
+        }
+
+        @Test
+        @DisplayName("POST returns 200 and the requested products")
+        void getProductsByIds_WithBody_ReturnsProducts() throws Exception {
+            when(productService.getProductsByIds(Arrays.asList(1L, 2L)))
+                    .thenReturn(Arrays.asList(testProductDto));
+
+            mockMvc.perform(post("/api/products/batch")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[1, 2]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].name", is("Test Product")));
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // POST ENDPOINT
     // ═══════════════════════════════════════════════════════════════════════
@@ -185,6 +325,87 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST / PATCH /api/products/bulk")
+    class BulkImportTests {
+
+        private final BulkImportResponse report = BulkImportResponse.builder()
+                .received(2)
+                .imported(1)
+                .failed(1)
+                .completed(true)
+                .errors(List.of(BulkImportResponse.RowError.builder()
+                        .row(2)
+                        .message("Validation failed")
+                        .fieldErrors(Map.of("price", "Price must be positive"))
+                        .build()))
+                .build();
+
+        @Test
+        @DisplayName("JSON body is streamed to the importer and the report returned")
+        void importJson_ReturnsReport() throws Exception {
+            when(productImporter.importJson(any())).thenReturn(report);
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"name\":\"Lamp\",\"price\":10,\"stockQuantity\":1}]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.imported", is(1)))
+                    .andExpect(jsonPath("$.errors[0].row", is(2)))
+                    .andExpect(jsonPath("$.errors[0].fieldErrors.price", is("Price must be positive")));
+
+            verify(productImporter).importJson(any());
+            verify(productImporter, never()).importCsv(any());
+        }
+
+        @Test
+        @DisplayName("text/csv goes to the CSV importer")
+        void importCsv_UsesCsvImporter() throws Exception {
+            when(productImporter.importCsv(any())).thenReturn(report);
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType("text/csv")
+                            .content("name,price,stockQuantity\nLamp,10,1\n"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.received", is(2)));
+
+            verify(productImporter).importCsv(any());
+        }
+
+        @Test
+        @DisplayName("Returns 400 when the body can't be imported at all")
+        void importJson_WhenNotAnArray_Returns400() throws Exception {
+            when(productImporter.importJson(any()))
+                    .thenThrow(new IllegalArgumentException("Request body must be a JSON array"));
+
+            mockMvc.perform(post("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{}"))
+                    .andExpect(status().isBadRequest())
+                    .andExpect(jsonPath("$.message", containsString("JSON array")));
+        }
+
+        @Test
+        @DisplayName("PATCH streams price / stock changes to the bulk updater")
+        void updateBulk_ReturnsReport() throws Exception {
+            when(productBulkUpdater.updateJson(any())).thenReturn(BulkUpdateResponse.builder()
+                    .received(2)
+                    .updated(2)
+                    .completed(true)
+                    .errors(List.of())
+                    .build());
+
+            mockMvc.perform(patch("/api/products/bulk")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("[{\"id\":1,\"price\":19.99},{\"id\":2,\"stockDelta\":-3}]"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.updated", is(2)))
+                    .andExpect(jsonPath("$.failed", is(0)));
+
+            verify(productBulkUpdater).updateJson(any());
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // PUT ENDPOINT
     // ═══════════════════════════════════════════════════════════════════════
@@ -267,6 +488,55 @@ class ProductControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("POST /api/products/stock/reserve")
+    class ReserveStockTests {
+
+        private final StockReservationRequest request = new StockReservationRequest(
+                Arrays.asList(new StockReservationRequest.ReservationItem(1L, 2)));
+
+        @Test
+        @DisplayName("Returns 200 when every line is reserved")
+        void reserveStock_WhenAllReserved_Returns200() throws Exception {
+            StockReservationResponse response = new StockReservationResponse(true, Arrays.asList(
+                    new StockReservationResponse.LineResult(1L, 2, StockReservationResponse.LineStatus.RESERVED)));
+
+            when(productService.reserveStock(any(StockReservationRequest.class))).thenReturn(response);
+
+            mockMvc.perform(post("/api/products/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.reserved", is(true)))
+                    .andExpect(jsonPath("$.lines[0].status", is("RESERVED")));
+        }
+
+        @Test
+        @DisplayName("Returns 409 with per-line results when stock is short")
+        void reserveStock_WhenStockShort_Returns409() throws Exception {
+            StockReservationResponse response = new StockReservationResponse(false, Arrays.asList(
+                    new StockReservationResponse.LineResult(1L, 2, StockReservationResponse.LineStatus.INSUFFICIENT_STOCK)));
+
+            when(productService.reserveStock(any(StockReservationRequest.class)))
+                    .thenThrow(new InsufficientStockException(response));
+
+            mockMvc.perform(post("/api/products/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(request)))
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.lines[0].status", is("INSUFFICIENT_STOCK")));
+        }
+
+        @Test
+        @DisplayName("Returns 400 when items are missing")
+        void reserveStock_WithoutItems_Returns400() throws Exception {
+            mockMvc.perform(post("/api/products/stock/reserve")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content("{\"items\": []}"))
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // DELETE ENDPOINT
     // ═══════════════════════════════════════════════════════════════════════
@@ -0,0 +1,127 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.BulkUpdateResponse;
+import com.ecommerce.product.dto.ProductBulkUpdate;
+import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductBulkUpdater with a mocked ProductService: chunking, validation
+ * and how each line's outcome ends up in the report
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductBulkUpdaterTest {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Mock
+    private ProductService productService;
+
+    private ValidatorFactory validatorFactory;
+    private ProductBulkUpdater updater;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        updater = new ProductBulkUpdater(productService, new ObjectMapper(),
+                validatorFactory.getValidator(), CHUNK_SIZE, 100);
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Lines are applied in chunks and every outcome is counted")
+    void updateJson_AppliesInChunks() throws Exception {
+        when(productService.applyBulkUpdates(anyList()))
+                .thenReturn(List.of(ProductBulkUpdate.Outcome.UPDATED, ProductBulkUpdate.Outcome.NOT_FOUND))
+                .thenReturn(List.of(ProductBulkUpdate.Outcome.NEGATIVE_STOCK));
+
+        BulkUpdateResponse report = updater.updateJson(body("""
+                [ {"id": 1, "price": 19.99},
+                  {"id": 99, "stockDelta": 5},
+                  {"id": 3, "stockDelta": -1000} ]
+                """));
+
+        assertThat(report.getReceived()).isEqualTo(3);
+        assertThat(report.getUpdated()).isEqualTo(1);
+        assertThat(report.getFailed()).isEqualTo(2);
+        assertThat(report.isCompleted()).isTrue();
+        assertThat(report.getErrors()).extracting(BulkImportResponse.RowError::getRow).containsExactly(2L, 3L);
+        assertThat(report.getErrors()).extracting(BulkImportResponse.RowError::getMessage)
+                .containsExactly("Product not found with id: 99", "Stock would become negative");
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ProductBulkUpdate>> chunks = ArgumentCaptor.forClass(List.class);
+        verify(productService, times(2)).applyBulkUpdates(chunks.capture());
+        assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(2, 1);
+        assertThat(chunks.getAllValues().get(0).get(0).getPrice()).isEqualByComparingTo("19.99");
+    }
+
+    @Test
+    @DisplayName("Lines with no change, both stock fields or a bad price are refused")
+    void updateJson_ReportsInvalidLines() throws Exception {
+        BulkUpdateResponse report = updater.updateJson(body("""
+                [ {"id": 1},
+                  {"id": 2, "stockDelta": 1, "stockAbsolute": 5},
+                  {"id": 3, "price": -1},
+                  {"price": 5},
+                  {"id": 4, "price": "cheap"} ]
+                """));
+
+        assertThat(report.getFailed()).isEqualTo(5);
+        assertThat(report.getErrors().get(0).getFieldErrors()).containsKey("anyChange");
+        assertThat(report.getErrors().get(1).getFieldErrors()).containsKey("stockChange");
+        assertThat(report.getErrors().get(2).getFieldErrors()).containsEntry("price", "Price must be positive");
+        assertThat(report.getErrors().get(3).getFieldErrors()).containsEntry("id", "Product id is required");
+        assertThat(report.getErrors().get(4).getMessage()).isEqualTo("Invalid value for 'price'");
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("A body that isn't a JSON array is refused")
+    void updateJson_WhenNotAnArray_Throws() {
+        assertThatThrownBy(() -> updater.updateJson(body("{\"id\": 1, \"price\": 5}")))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("An empty array does nothing")
+    void updateJson_WhenEmpty_DoesNothing() throws Exception {
+        BulkUpdateResponse report = updater.updateJson(body("[]"));
+
+        assertThat(report.getReceived()).isZero();
+        assertThat(report.getErrors()).isEqualTo(Collections.emptyList());
+        verifyNoInteractions(productService);
+    }
+}
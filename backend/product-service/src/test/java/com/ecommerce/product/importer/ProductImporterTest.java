@@ -0,0 +1,244 @@
+package com.ecommerce.product.importer;
+
+import com.ecommerce.product.dto.BulkImportResponse;
+import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.service.ProductService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * ProductImporter with a mocked ProductService: chunking, per-row
+ * error reporting and both input formats
+ */
+@ExtendWith(MockitoExtension.class)
+class ProductImporterTest {
+
+    private static final int CHUNK_SIZE = 2;
+    private static final int MAX_ERRORS = 3;
+
+    @Mock
+    private ProductService productService;
+
+    private ValidatorFactory validatorFactory;
+    private ProductImporter importer;
+
+    @BeforeEach
+    void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        importer = new ProductImporter(productService, new ObjectMapper().findAndRegisterModules(),
+                validatorFactory.getValidator(), CHUNK_SIZE, MAX_ERRORS);
+        lenient().when(productService.importProducts(anyList()))
+                .thenAnswer(invocation -> invocation.<List<?>>getArgument(0).size());
+    }
+
+    @AfterEach
+    void tearDown() {
+        validatorFactory.close();
+    }
+
+    private static InputStream body(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String jsonProduct(String name, String price) {
+        return "{\"name\":\"" + name + "\",\"price\":" + price + ",\"stockQuantity\":5,\"category\":\"Home\"}";
+    }
+
+    @Nested
+    @DisplayName("JSON")
+    class JsonImportTests {
+
+        @Test
+        @DisplayName("Valid rows are saved in chunks of chunk-size")
+        void importJson_SavesInChunks() throws Exception {
+            String json = "[" + String.join(",",
+                    jsonProduct("Lamp", "10"), jsonProduct("Chair", "20"), jsonProduct("Desk", "30"),
+                    jsonProduct("Sofa", "40"), jsonProduct("Rug", "50")) + "]";
+
+            BulkImportResponse report = importer.importJson(body(json));
+
+            assertThat(report.getReceived()).isEqualTo(5);
+            assertThat(report.getImported()).isEqualTo(5);
+            assertThat(report.getFailed()).isZero();
+            assertThat(report.isCompleted()).isTrue();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<ProductDto>> chunks = ArgumentCaptor.forClass(List.class);
+            verify(productService, times(3)).importProducts(chunks.capture());
+            assertThat(chunks.getAllValues()).extracting(List::size).containsExactly(2, 2, 1);
+            assertThat(chunks.getAllValues().get(2).get(0).getName()).isEqualTo("Rug");
+        }
+
+        @Test
+        @DisplayName("Invalid and unparsable rows are reported, the others imported")
+        void importJson_ReportsBadRows() throws Exception {
+            String json = "[" + String.join(",",
+                    jsonProduct("Lamp", "10"),
+                    jsonProduct("Chair", "-1"),
+                    jsonProduct("Desk", "\"abc\""),
+                    "42",
+                    jsonProduct("Sofa", "40")) + "]";
+
+            BulkImportResponse report = importer.importJson(body(json));
+
+            assertThat(report.getImported()).isEqualTo(2);
+            assertThat(report.getFailed()).isEqualTo(3);
+            assertThat(report.getErrors()).extracting(BulkImportResponse.RowError::getRow)
+                    .containsExactly(2L, 3L, 4L);
+            assertThat(report.getErrors().get(0).getFieldErrors())
+                    .containsEntry("price", "Price must be positive");
+            assertThat(report.getErrors().get(1).getMessage()).isEqualTo("Invalid value for 'price'");
+            assertThat(report.getErrors().get(2).getMessage()).isEqualTo("Expected a JSON object");
+        }
+
+        @Test
+        @DisplayName("Broken JSON stops the import but keeps the rows before it")
+        void importJson_WhenMalformed_KeepsEarlierRows() throws Exception {
+            String json = "[" + jsonProduct("Lamp", "10") + "," + jsonProduct("Chair", "20") + ",{\"name\": ";
+
+            BulkImportResponse report = importer.importJson(body(json));
+
+            assertThat(report.isCompleted()).isFalse();
+            assertThat(report.getImported()).isEqualTo(2);
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getErrors().get(0).getRow()).isEqualTo(3);
+            assertThat(report.getErrors().get(0).getMessage()).startsWith("Malformed input");
+        }
+
+        @Test
+        @DisplayName("A body that isn't a JSON array is refused before anything is saved")
+        void importJson_WhenNotAnArray_Throws() {
+            assertThatThrownBy(() -> importer.importJson(body(jsonProduct("Lamp", "10"))))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("JSON array");
+
+            verifyNoInteractions(productService);
+        }
+
+        @Test
+        @DisplayName("Only max-errors errors are listed, the count stays exact")
+        void importJson_TruncatesErrorList() throws Exception {
+            String json = "[" + String.join(",",
+                    jsonProduct("A", "-1"), jsonProduct("B", "-1"), jsonProduct("C", "-1"),
+                    jsonProduct("D", "-1"), jsonProduct("E", "-1")) + "]";
+
+            BulkImportResponse report = importer.importJson(body(json));
+
+            assertThat(report.getFailed()).isEqualTo(5);
+            assertThat(report.getErrors()).hasSize(MAX_ERRORS);
+            assertThat(report.isErrorsTruncated()).isTrue();
+            verifyNoInteractions(productService);
+        }
+    }
+
+    @Nested
+    @DisplayName("CSV")
+    class CsvImportTests {
+
+        @Test
+        @DisplayName("Quoted fields, any column order and snake_case headers are understood")
+        void importCsv_ParsesQuotedFields() throws Exception {
+            String csv = """
+                    category,Name,stock_quantity,price,description
+                    Home,"Lamp, brass",5,10.50,"Says ""hello""
+                    over two lines"
+
+                    Office,Desk,1,99,
+                    """;
+
+            BulkImportResponse report = importer.importCsv(body(csv));
+
+            assertThat(report.getImported()).isEqualTo(2);
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<ProductDto>> chunk = ArgumentCaptor.forClass(List.class);
+            verify(productService).importProducts(chunk.capture());
+            ProductDto lamp = chunk.getValue().get(0);
+            assertThat(lamp.getName()).isEqualTo("Lamp, brass");
+            assertThat(lamp.getPrice()).isEqualByComparingTo(new BigDecimal("10.50"));
+            assertThat(lamp.getStockQuantity()).isEqualTo(5);
+            assertThat(lamp.getDescription()).isEqualTo("Says \"hello\"\nover two lines");
+            assertThat(chunk.getValue().get(1).getDescription()).isNull();
+        }
+
+        @Test
+        @DisplayName("Bad numbers and wrong column counts fail only their row")
+        void importCsv_ReportsBadRows() throws Exception {
+            String csv = """
+                    name,price,stockQuantity
+                    Lamp,10,5
+                    Chair,ten,5
+                    Desk,30
+                    Sofa,40,many
+                    """;
+
+            BulkImportResponse report = importer.importCsv(body(csv));
+
+            assertThat(report.getImported()).isEqualTo(1);
+            assertThat(report.getErrors()).extracting(BulkImportResponse.RowError::getMessage)
+                    .containsExactly("Invalid value for 'price'", "Expected 3 columns, found 2",
+                            "Invalid value for 'stockQuantity'");
+        }
+
+        @Test
+        @DisplayName("An unknown or missing column is refused before anything is saved")
+        void importCsv_WithBadHeader_Throws() {
+            assertThatThrownBy(() -> importer.importCsv(body("name,price,stock,colour\nLamp,1,1,red\n")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("Unknown CSV column: 'stock'");
+            assertThatThrownBy(() -> importer.importCsv(body("name,price\nLamp,1\n")))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("'stockQuantity' is required");
+
+            verifyNoInteractions(productService);
+        }
+    }
+
+    @Nested
+    @DisplayName("Database errors")
+    class DatabaseErrorTests {
+
+        @Test
+        @DisplayName("A rejected chunk is retried row by row, so only the bad row fails")
+        void importJson_WhenChunkRejected_RetriesRowByRow() throws Exception {
+            when(productService.importProducts(anyList())).thenAnswer(invocation -> {
+                List<ProductDto> chunk = invocation.getArgument(0);
+                if (chunk.stream().anyMatch(product -> product.getName().equals("Chair"))) {
+                    throw new DataIntegrityViolationException("value too long for column \"CATEGORY\"");
+                }
+                return chunk.size();
+            });
+            String json = "[" + jsonProduct("Lamp", "10") + "," + jsonProduct("Chair", "20") + "]";
+
+            BulkImportResponse report = importer.importJson(body(json));
+
+            assertThat(report.getImported()).isEqualTo(1);
+            assertThat(report.getFailed()).isEqualTo(1);
+            assertThat(report.getErrors().get(0).getRow()).isEqualTo(2);
+            assertThat(report.getErrors().get(0).getMessage()).contains("CATEGORY");
+            // The chunk once, then each row on its own
+            verify(productService, times(3)).importProducts(anyList());
+        }
+    }
+}
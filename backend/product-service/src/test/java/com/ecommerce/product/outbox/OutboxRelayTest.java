@@ -0,0 +1,143 @@
+package com.ecommerce.product.outbox;
+
+import com.ecommerce.product.model.OutboxEvent;
+import com.ecommerce.product.repository.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.IllegalTransactionStateException;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Outbox writes and the relay against a real database
+ *
+ * Runs without the usual test transaction (NOT_SUPPORTED): events are
+ * appended in their own committed transactions, as in production, and
+ * the relay runs outside any transaction.
+ */
+@DataJpaTest(properties = "product.outbox.batch-size=2")
+@Import({Outbox.class, OutboxRelay.class, InMemoryEventBroker.class, JacksonAutoConfiguration.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OutboxRelayTest {
+
+    @Autowired
+    private Outbox outbox;
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private OutboxEventRepository repository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @SpyBean
+    private InMemoryEventBroker broker;
+
+    // What this test's subscriber received (the broker itself is shared by all tests)
+    private final List<EventMessage> received = new CopyOnWriteArrayList<>();
+
+    @BeforeEach
+    void subscribe() {
+        broker.subscribe(received::add);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should publish every event in order, in batches, and mark them published")
+    void relay_PublishesInBatches() {
+        appendStockChanges(1L, 2L, 3L);
+
+        assertThat(relay.relay()).isEqualTo(3);
+
+        assertThat(received).extracting(EventMessage::aggregateId).containsExactly("1", "2", "3");
+        assertThat(received.get(0).type()).isEqualTo(ProductEvents.STOCK_CHANGED);
+        assertThat(received.get(0).payload()).contains("\"quantityChange\":-1");
+        verify(broker, times(2)).publish(anyList());  // batch-size 2: [1, 2] then [3]
+        assertThat(repository.findAll()).allSatisfy(event -> assertThat(event.getPublishedAt()).isNotNull());
+        assertThat(relay.relay()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep events unpublished when the broker fails, and publish them next run")
+    void relay_WhenBrokerFails_RetriesNextRun() {
+        appendStockChanges(1L);
+        doThrow(new IllegalStateException("broker down")).doCallRealMethod().when(broker).publish(anyList());
+
+        assertThatThrownBy(() -> relay.relay()).hasMessage("broker down");
+        assertThat(repository.findByPublishedAtIsNullOrderByIdAsc(Pageable.unpaged()))
+                .hasSize(1);
+
+        assertThat(relay.relay()).isEqualTo(1);
+        assertThat(received).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Should refuse to append outside a transaction")
+    void append_WithoutTransaction_Throws() {
+        assertThatThrownBy(() -> outbox.append(ProductEvents.AGGREGATE_TYPE, 1L, ProductEvents.STOCK_CHANGED,
+                stockChanged(1L)))
+                .isInstanceOf(IllegalTransactionStateException.class);
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should not keep the event when its transaction rolls back")
+    void append_RolledBack_LeavesNoEvent() {
+        assertThatThrownBy(() -> transactionTemplate.executeWithoutResult(status -> {
+            outbox.append(ProductEvents.AGGREGATE_TYPE, 1L, ProductEvents.STOCK_CHANGED,
+                    stockChanged(1L));
+            throw new IllegalStateException("status update failed");
+        })).hasMessage("status update failed");
+
+        assertThat(repository.count()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should purge only published events older than the retention period")
+    void purgePublished_DeletesOldPublishedEvents() {
+        appendStockChanges(1L, 2L);
+        List<OutboxEvent> events = repository.findAll();
+        repository.markPublished(List.of(events.get(0).getId()), LocalDateTime.now().minusDays(8));
+
+        assertThat(relay.purgePublished()).isEqualTo(1);
+        assertThat(repository.findAll()).extracting(OutboxEvent::getAggregateId).containsExactly("2");
+    }
+
+    private static ProductEvents.StockChanged stockChanged(Long productId) {
+        return new ProductEvents.StockChanged(productId, -1, 9, ProductEvents.StockChangeReason.UPDATED, null);
+    }
+
+    private void appendStockChanges(Long... productIds) {
+        for (Long productId : productIds) {
+            transactionTemplate.executeWithoutResult(status -> outbox.append(
+                    ProductEvents.AGGREGATE_TYPE, productId, ProductEvents.STOCK_CHANGED,
+                    stockChanged(productId)));
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.ecommerce.product.repository;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    PRODUCT QUERY PLAN TESTS                               ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Does each finder in ProductRepository use an INDEX, or read every row?  ║
+ * ║                                                                           ║
+ * ║  1. Seed 50,000 products and ANALYZE (the planner needs statistics:      ║
+ * ║     on a 2-row table a full scan is the right choice)                     ║
+ * ║  2. Call the finder; SqlCapture records the SQL Hibernate generated      ║
+ * ║  3. EXPLAIN that SQL with the same parameters and look for the index:     ║
+ * ║       PUBLIC.IDX_PRODUCTS_PRICE: PRICE >= ?1 AND PRICE <= ?2   (good)     ║
+ * ║       PUBLIC.PRODUCTS.tableScan                                (bad)      ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@DataJpaTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.ecommerce.product.repository.SqlCapture")
+class ProductQueryPlanTest {
+
+    private static final int PRODUCTS = 50_000;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        /*
+         * ANALYZE commits, so the rows outlive each test's rollback: seed once.
+         * The extra property gives this class its own context and database,
+         * so the other repository tests never see these rows.
+         */
+        SqlCapture.clear();
+        if (jdbcTemplate.queryForObject("SELECT COUNT(*) FROM products", Integer.class) > 0) {
+            return;
+        }
+        // 50 categories, prices 1.00-1000.00, stock 0-999
+        jdbcTemplate.update("""
+                INSERT INTO products (id, name, description, price, stock_quantity, sold_count, category, version)
+                SELECT NEXT VALUE FOR products_seq, 'Product ' || X, 'Seeded product', MOD(X, 100000) / 100.0 + 1, MOD(X * 7, 1000), 0,
+                       'Category ' || MOD(X, 50), 0
+                FROM SYSTEM_RANGE(1, ?)
+                """, PRODUCTS);
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @Test
+    @DisplayName("findByCategory uses the (category, price) index")
+    void findByCategory_UsesIndex() {
+        productRepository.findByCategory("Category 7");
+
+        assertThat(explain("Category 7")).contains("IDX_PRODUCTS_CATEGORY_PRICE").doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("findByPriceBetween uses the price index")
+    void findByPriceBetween_UsesIndex() {
+        BigDecimal min = new BigDecimal("10.00");
+        BigDecimal max = new BigDecimal("12.00");
+        productRepository.findByPriceBetween(min, max);
+
+        assertThat(explain(min, max)).contains("IDX_PRODUCTS_PRICE").doesNotContain("tableScan");
+    }
+
+    @Test
+    @DisplayName("findByStockQuantityGreaterThan uses the stock index")
+    void findByStockQuantityGreaterThan_UsesIndex() {
+        productRepository.findByStockQuantityGreaterThan(990);
+
+        assertThat(explain(990)).contains("IDX_PRODUCTS_STOCK_QUANTITY").doesNotContain("tableScan");
+    }
+
+    /**
+     * EXPLAIN the last SELECT the repository ran, with the same parameters
+     * (on one line - H2 spreads the plan over several)
+     */
+    private String explain(Object... parameters) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + SqlCapture.lastSelect(), String.class, parameters);
+        return plan.replaceAll("\\s+", " ");
+    }
+}
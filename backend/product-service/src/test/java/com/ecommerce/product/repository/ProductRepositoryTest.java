@@ -1,15 +1,23 @@
 package com.ecommerce.product.repository;
 
+import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.ProductBulkUpdate;
+import com.ecommerce.product.dto.StockReservationRequest;
 import com.ecommerce.product.model.Product;
+import org.hibernate.Session;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
@@ -119,4 +127,116 @@ class ProductRepositoryTest {
         assertThat(results).hasSize(1);
         assertThat(results.get(0).getName()).isEqualTo("T-Shirt");
     }
+
+    @Test
+    @DisplayName("Decrement stock updates every line that has enough stock")
+    void decrementStock_WithEnoughStock_UpdatesAllLines() {
+        int[] counts = productRepository.decrementStock(List.of(
+                new StockReservationRequest.ReservationItem(electronicsProduct.getId(), 5),
+                new StockReservationRequest.ReservationItem(clothingProduct.getId(), 100)
+        ));
+        entityManager.clear();  // Re-read from the database, not the persistence context
+
+        assertThat(counts).containsExactly(1, 1);
+        assertThat(productRepository.findById(electronicsProduct.getId()).orElseThrow()
+                .getStockQuantity()).isEqualTo(45);
+        assertThat(productRepository.findById(clothingProduct.getId()).orElseThrow()
+                .getStockQuantity()).isEqualTo(0);
+    }
+
+    @Test
+    @DisplayName("Decrement stock skips lines without enough stock or unknown products")
+    void decrementStock_WithInsufficientStock_ReturnsZeroForThatLine() {
+        int[] counts = productRepository.decrementStock(List.of(
+                new StockReservationRequest.ReservationItem(electronicsProduct.getId(), 51),
+                new StockReservationRequest.ReservationItem(-1L, 1)
+        ));
+        entityManager.clear();
+
+        assertThat(counts).containsExactly(0, 0);
+        assertThat(productRepository.findById(electronicsProduct.getId()).orElseThrow()
+                .getStockQuantity()).isEqualTo(50);
+    }
+
+    @Test
+    @DisplayName("Increment stock gives back what decrement took")
+    void incrementStock_UndoesDecrement() {
+        List<StockReservationRequest.ReservationItem> items = List.of(
+                new StockReservationRequest.ReservationItem(electronicsProduct.getId(), 5));
+        productRepository.decrementStock(items);
+        int[] counts = productRepository.incrementStock(items);
+        entityManager.clear();
+
+        Product product = productRepository.findById(electronicsProduct.getId()).orElseThrow();
+        assertThat(counts).containsExactly(1);
+        assertThat(product.getStockQuantity()).isEqualTo(50);
+        assertThat(product.getSoldCount()).isEqualTo(electronicsProduct.getSoldCount());
+    }
+
+    @Test
+    @DisplayName("Bulk update changes only the given fields, in one batch")
+    void applyBulkUpdates_ChangesGivenFields() {
+        int[] counts = productRepository.applyBulkUpdates(List.of(
+                ProductBulkUpdate.builder().id(electronicsProduct.getId()).price(new BigDecimal("899.00")).build(),
+                ProductBulkUpdate.builder().id(clothingProduct.getId()).stockDelta(-30).build(),
+                ProductBulkUpdate.builder().id(electronicsProduct.getId()).stockAbsolute(7).build()
+        ));
+        entityManager.clear();
+
+        Product laptop = productRepository.findById(electronicsProduct.getId()).orElseThrow();
+        Product shirt = productRepository.findById(clothingProduct.getId()).orElseThrow();
+        assertThat(counts).containsExactly(1, 1, 1);
+        assertThat(laptop.getPrice()).isEqualByComparingTo("899.00");
+        assertThat(laptop.getStockQuantity()).isEqualTo(7);
+        assertThat(shirt.getPrice()).isEqualByComparingTo("29.99");
+        assertThat(shirt.getStockQuantity()).isEqualTo(70);
+    }
+
+    @Test
+    @DisplayName("Bulk update skips unknown products and changes that make stock negative")
+    void applyBulkUpdates_WithNegativeResult_ReturnsZeroForThatLine() {
+        int[] counts = productRepository.applyBulkUpdates(List.of(
+                ProductBulkUpdate.builder().id(electronicsProduct.getId())
+                        .price(BigDecimal.ONE).stockDelta(-51).build(),
+                ProductBulkUpdate.builder().id(-1L).stockAbsolute(5).build()
+        ));
+        entityManager.clear();
+
+        Product laptop = productRepository.findById(electronicsProduct.getId()).orElseThrow();
+        assertThat(counts).containsExactly(0, 0);
+        assertThat(laptop.getStockQuantity()).isEqualTo(50);
+        assertThat(laptop.getPrice()).isEqualByComparingTo("999.99");  // the whole line is refused
+    }
+
+    @Test
+    @DisplayName("Streaming query returns every product in id order")
+    void streamAllByOrderById_StreamsAllProducts() {
+        try (Stream<Product> products = productRepository.streamAllByOrderById()) {
+            assertThat(products.map(Product::getName)).containsExactly("Laptop", "T-Shirt");
+        }
+    }
+
+    @Test
+    @DisplayName("DTO projections fill every field without loading entities")
+    void dtoProjections_DoNotLoadEntities() {
+        entityManager.clear();
+
+        List<ProductDto> electronics = productRepository.findDtosByCategory("Electronics");
+        Page<ProductDto> page = productRepository.findDtoPage(PageRequest.of(1, 1, Sort.by("id")));
+        List<ProductDto> afterCursor = productRepository.findDtosAfter(0L, PageRequest.of(0, 1));
+
+        assertThat(electronics).singleElement().satisfies(dto -> {
+            assertThat(dto.getId()).isEqualTo(electronicsProduct.getId());
+            assertThat(dto.getName()).isEqualTo("Laptop");
+            assertThat(dto.getPrice()).isEqualByComparingTo("999.99");
+            assertThat(dto.getStockQuantity()).isEqualTo(50);
+            assertThat(dto.getCreatedAt()).isNotNull();
+        });
+        assertThat(page.getContent()).extracting(ProductDto::getName).containsExactly("T-Shirt");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(afterCursor).extracting(ProductDto::getName).containsExactly("Laptop");
+        // Nothing for Hibernate to track or dirty-check
+        assertThat(entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
 }
@@ -0,0 +1,45 @@
+package com.ecommerce.product.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records every SQL statement Hibernate prepares, so a test can EXPLAIN
+ * exactly the query a repository method generated
+ *
+ * Registered with: spring.jpa.properties.hibernate.session_factory.statement_inspector
+ */
+public class SqlCapture implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new ArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        synchronized (STATEMENTS) {
+            STATEMENTS.add(sql);
+        }
+        return sql;
+    }
+
+    public static void clear() {
+        synchronized (STATEMENTS) {
+            STATEMENTS.clear();
+        }
+    }
+
+    /**
+     * The last SELECT prepared since clear()
+     */
+    public static String lastSelect() {
+        synchronized (STATEMENTS) {
+            for (int i = STATEMENTS.size() - 1; i >= 0; i--) {
+                if (STATEMENTS.get(i).regionMatches(true, 0, "select", 0, 6)) {
+                    return STATEMENTS.get(i);
+                }
+            }
+        }
+        throw new IllegalStateException("No SELECT was executed");
+    }
+}
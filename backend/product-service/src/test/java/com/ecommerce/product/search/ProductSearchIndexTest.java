@@ -0,0 +1,113 @@
+package com.ecommerce.product.search;
+
+import com.ecommerce.product.model.Product;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product Search Index Unit Tests
+ * 
+ * Runs against a real in-memory Lucene index - no Spring, no database
+ */
+class ProductSearchIndexTest {
+
+    private ProductSearchIndex searchIndex;
+
+    @BeforeEach
+    void setUp() {
+        searchIndex = new ProductSearchIndex();
+        searchIndex.rebuild(List.of(
+                product(1L, "iPhone 15 Pro", "Apple smartphone", "Phones"),
+                product(2L, "Galaxy S24", "Samsung smartphone with a big display", "Phones"),
+                product(3L, "Wireless Headphones", "Noise cancelling, works with any phone", "Audio"),
+                product(4L, "Phone Case", "Shock-proof case", "Accessories")
+        ).iterator());
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        searchIndex.close();
+    }
+
+    @Test
+    @DisplayName("Should match whole words in any field, ignoring case")
+    void search_MatchesNameCategoryAndDescription() {
+        assertThat(searchIndex.searchAll("SAMSUNG")).containsExactly(2L);
+        assertThat(searchIndex.searchAll("audio")).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should match word prefixes")
+    void search_MatchesPrefixes() {
+        assertThat(searchIndex.searchAll("head")).containsExactly(3L);
+        assertThat(searchIndex.searchAll("smart")).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should require every word of the keyword")
+    void search_RequiresAllWords() {
+        assertThat(searchIndex.searchAll("phone case")).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should rank name matches above description matches")
+    void search_RanksNameAboveDescription() {
+        List<Long> results = searchIndex.searchAll("phone");
+
+        // "Phone Case" (name) before "Wireless Headphones" (description only)
+        assertThat(results.indexOf(4L)).isLessThan(results.indexOf(3L));
+    }
+
+    @Test
+    @DisplayName("Should return one page of IDs and the total number of hits")
+    void search_PagesResults() {
+        ProductSearchIndex.SearchResult firstPage = searchIndex.search("smartphone", 0, 1);
+        ProductSearchIndex.SearchResult secondPage = searchIndex.search("smartphone", 1, 1);
+        ProductSearchIndex.SearchResult pastTheEnd = searchIndex.search("smartphone", 2, 1);
+
+        assertThat(firstPage.totalHits()).isEqualTo(2);
+        assertThat(firstPage.ids()).hasSize(1);
+        assertThat(secondPage.ids()).hasSize(1).doesNotContainAnyElementsOf(firstPage.ids());
+        assertThat(pastTheEnd.ids()).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return no IDs for an offset far beyond the last hit")
+    void search_OffsetBeyondIntRange_ReturnsNothing() {
+        ProductSearchIndex.SearchResult result = searchIndex.search("smartphone", 107374183L * 20, 20);
+
+        assertThat(result.ids()).isEmpty();
+        assertThat(result.totalHits()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should re-index updated products and drop deleted ones")
+    void indexAndRemove_UpdateResults() {
+        searchIndex.index(product(2L, "Galaxy Tab", "Samsung tablet", "Tablets"));
+        searchIndex.remove(1L);
+
+        assertThat(searchIndex.searchAll("tablet")).containsExactly(2L);
+        assertThat(searchIndex.searchAll("smartphone")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a blank keyword")
+    void search_BlankKeyword_ReturnsNothing() {
+        assertThat(searchIndex.search("  ", 0, 10).ids()).isEmpty();
+    }
+
+    private static Product product(Long id, String name, String description, String category) {
+        return Product.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .category(category)
+                .build();
+    }
+}
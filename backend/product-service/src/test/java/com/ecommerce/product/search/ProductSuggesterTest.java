@@ -0,0 +1,165 @@
+package com.ecommerce.product.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Product Suggester Unit Tests
+ *
+ * Runs against the real in-memory structure - no Spring, no database
+ * (without a transaction, put/remove apply immediately)
+ */
+class ProductSuggesterTest {
+
+    private ProductSuggester suggester;
+
+    @BeforeEach
+    void setUp() {
+        suggester = new ProductSuggester(3);
+        suggester.rebuild(List.of(
+                new ProductSuggester.Suggestion(1L, "iPhone 15 Pro", 500),
+                new ProductSuggester.Suggestion(2L, "iPhone 15 Pro Max", 800),
+                new ProductSuggester.Suggestion(3L, "iPad Pro", 300),
+                new ProductSuggester.Suggestion(4L, "Wireless Headphones", 1200),
+                new ProductSuggester.Suggestion(5L, "Pro Display", 10)
+        )::stream);
+    }
+
+    @Test
+    @DisplayName("Should return products with a word starting with the prefix, most popular first")
+    void suggest_OrdersByPopularity() {
+        assertThat(ids(suggester.suggest("ip", 10))).containsExactly(2L, 1L, 3L);
+        assertThat(ids(suggester.suggest("pro", 10))).containsExactly(2L, 1L, 3L, 5L);
+        assertThat(ids(suggester.suggest("head", 10))).containsExactly(4L);
+    }
+
+    @Test
+    @DisplayName("Should return each product once and stop at the limit")
+    void suggest_RespectsLimit() {
+        // "iPhone 15 Pro Max" matches "pro" once only
+        assertThat(ids(suggester.suggest("pro", 2))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    @DisplayName("Should ignore case and punctuation, and match several words")
+    void suggest_NormalizesPrefix() {
+        assertThat(ids(suggester.suggest("IPHONE-15 pro m", 10))).containsExactly(2L);
+        assertThat(ProductSuggester.normalize("  iPhone-15   Pro ")).isEqualTo("iphone 15 pro");
+    }
+
+    @Test
+    @DisplayName("Should return nothing for a blank prefix or no match")
+    void suggest_BlankOrUnknown_ReturnsEmpty() {
+        assertThat(suggester.suggest("  ", 10)).isEmpty();
+        assertThat(suggester.suggest(null, 10)).isEmpty();
+        assertThat(suggester.suggest("laptop", 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should apply renames and deletes before the next rebuild")
+    void suggest_SeesPendingChanges() {
+        suggester.put(3L, "Galaxy Tab", 300);
+        suggester.remove(2L);
+
+        assertThat(ids(suggester.suggest("ip", 10))).containsExactly(1L);
+        assertThat(ids(suggester.suggest("gal", 10))).containsExactly(3L);
+    }
+
+    @Test
+    @DisplayName("Should give the same answers after the changes are merged")
+    void suggest_AfterMerge_KeepsChanges() {
+        // Threshold is 3: the third change starts a merge into a new snapshot
+        suggester.put(6L, "Pixel 8 Pro", 900);
+        suggester.remove(2L);
+        suggester.put(5L, "Studio Display", 10);
+
+        assertThat(ids(suggester.suggest("pro", 10))).containsExactly(6L, 1L, 3L);
+        assertThat(ids(suggester.suggest("dis", 10))).containsExactly(5L);
+    }
+
+    @Test
+    @DisplayName("Should merge on the merge executor, not on the thread that made the change")
+    void change_AtThreshold_MergesInBackground() {
+        List<Runnable> merges = new ArrayList<>();
+        ProductSuggester background = new ProductSuggester(3, merges::add);
+        background.rebuild(List.of(new ProductSuggester.Suggestion(1L, "iPhone 15 Pro", 500))::stream);
+
+        background.put(2L, "iPad Pro", 300);
+        background.put(3L, "Pro Display", 10);
+        background.remove(1L);
+
+        // Threshold reached: still answered from the overlay, one merge queued
+        assertThat(background.pendingChanges()).isEqualTo(3);
+        assertThat(merges).hasSize(1);
+        assertThat(ids(background.suggest("pro", 10))).containsExactly(2L, 3L);
+
+        background.put(4L, "Pro Stand", 20);
+        assertThat(merges).hasSize(1);
+
+        merges.get(0).run();
+
+        assertThat(background.pendingChanges()).isZero();
+        assertThat(ids(background.suggest("pro", 10))).containsExactly(2L, 4L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should keep changes made while a rebuild was reading the database")
+    void rebuild_KeepsChangesMadeDuringTheRead() {
+        // The database snapshot the rebuild reads was taken before these commits
+        List<ProductSuggester.Suggestion> staleRows = List.of(
+                new ProductSuggester.Suggestion(1L, "iPhone 15 Pro", 500),
+                new ProductSuggester.Suggestion(2L, "iPhone 15 Pro Max", 800),
+                new ProductSuggester.Suggestion(3L, "iPad Pro", 300));
+
+        suggester.rebuild(() -> {
+            suggester.put(6L, "iPod Classic", 50);      // created
+            suggester.remove(2L);                        // deleted
+            return staleRows.stream();
+        });
+
+        assertThat(ids(suggester.suggest("ip", 10))).containsExactly(1L, 3L, 6L);
+        // Changes after the rebuild are not recorded for it any more
+        suggester.remove(6L);
+        assertThat(ids(suggester.suggest("ip", 10))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    @DisplayName("Should match a brute-force scan on random data")
+    void suggest_MatchesBruteForce() {
+        Random random = new Random(42);
+        String[] words = {"apple", "apricot", "app", "banana", "band", "bandana", "cable", "case", "charger"};
+        List<ProductSuggester.Suggestion> all = new ArrayList<>();
+        for (long id = 1; id <= 500; id++) {
+            String name = words[random.nextInt(words.length)] + " " + words[random.nextInt(words.length)];
+            all.add(new ProductSuggester.Suggestion(id, name, random.nextInt(50)));
+        }
+        suggester.rebuild(all::stream);
+
+        for (String prefix : List.of("a", "ap", "app", "band", "c", "ca", "case b", "z")) {
+            List<Long> expected = all.stream()
+                    .filter(s -> (" " + s.name()).contains(" " + prefix))
+                    .sorted((a, b) -> a.popularity() != b.popularity()
+                            ? Long.compare(b.popularity(), a.popularity())
+                            : a.name().compareTo(b.name()) != 0
+                            ? a.name().compareTo(b.name())
+                            : Long.compare(a.id(), b.id()))
+                    .limit(10)
+                    .map(ProductSuggester.Suggestion::id)
+                    .collect(Collectors.toList());
+
+            assertThat(ids(suggester.suggest(prefix, 10))).as(prefix).isEqualTo(expected);
+        }
+    }
+
+    private static List<Long> ids(List<ProductSuggester.Suggestion> suggestions) {
+        return suggestions.stream().map(ProductSuggester.Suggestion::id).collect(Collectors.toList());
+    }
+}
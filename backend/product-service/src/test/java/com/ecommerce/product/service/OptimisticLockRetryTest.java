@@ -0,0 +1,145 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.Product;
+import com.ecommerce.product.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ╔═══════════════════════════════════════════════════════════════════════════╗
+ * ║                    OPTIMISTIC LOCK RETRY TESTS                            ║
+ * ╠═══════════════════════════════════════════════════════════════════════════╣
+ * ║  Product's @Version against a real database: a stale read-modify-write    ║
+ * ║  fails its version check and is run again, so no stock change is lost.    ║
+ * ║  Runs without the usual test transaction (NOT_SUPPORTED): every attempt   ║
+ * ║  must commit on its own, like during a request.                           ║
+ * ╚═══════════════════════════════════════════════════════════════════════════╝
+ */
+@DataJpaTest
+@Import(OptimisticLockRetry.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@TestPropertySource(properties = {
+        "product.optimistic-retry.max-attempts=50",
+        "product.optimistic-retry.initial-backoff=1ms",
+        "product.optimistic-retry.max-backoff=5ms"
+})
+class OptimisticLockRetryTest {
+
+    @Autowired
+    private OptimisticLockRetry retry;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        productId = productRepository.save(Product.builder()
+                .name("Hot Product")
+                .price(new BigDecimal("9.99"))
+                .stockQuantity(1000)
+                .category("Test")
+                .build()).getId();
+    }
+
+    @AfterEach
+    void tearDown() {
+        productRepository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should run the work again when the row changed after it was read")
+    void inTransaction_WhenVersionChanged_RetriesOnFreshData() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        Integer stock = retry.inTransaction("test", () -> {
+            Product product = productRepository.findById(productId).orElseThrow();
+            if (attempts.incrementAndGet() == 1) {
+                // Another request reserves 5 units after our read and commits
+                // (own thread = own connection; bumps version like every stock UPDATE)
+                CompletableFuture.runAsync(() -> jdbcTemplate.update(
+                        "UPDATE products SET stock_quantity = stock_quantity - 5, "
+                                + "version = version + 1 WHERE id = ?", productId)).join();
+            }
+            product.setStockQuantity(product.getStockQuantity() - 1);
+            return productRepository.save(product).getStockQuantity();
+        });
+
+        assertThat(attempts).hasValue(2);
+        assertThat(stock).isEqualTo(994);
+        assertThat(productRepository.findById(productId).orElseThrow().getStockQuantity()).isEqualTo(994);
+    }
+
+    @Test
+    @DisplayName("Should give up after max-attempts and throw the conflict")
+    void inTransaction_WhenAlwaysConflicting_Throws() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> retry.inTransaction("test", () -> {
+            attempts.incrementAndGet();
+            Product product = productRepository.findById(productId).orElseThrow();
+            jdbcTemplate.update("UPDATE products SET version = version + 1 WHERE id = ?", productId);
+            product.setStockQuantity(product.getStockQuantity() - 1);
+            return productRepository.save(product);
+        })).isInstanceOf(OptimisticLockingFailureException.class);
+
+        assertThat(attempts).hasValue(50);
+    }
+
+    @Test
+    @DisplayName("Should lose no update when many threads change the same product")
+    void inTransaction_ConcurrentDecrements_NoLostUpdates() throws Exception {
+        int threads = 8;
+        int decrementsPerThread = 25;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < decrementsPerThread; i++) {
+                        retry.inTransaction("test", () -> {
+                            Product product = productRepository.findById(productId).orElseThrow();
+                            product.setStockQuantity(product.getStockQuantity() - 1);
+                            return productRepository.save(product);
+                        });
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        Product product = productRepository.findById(productId).orElseThrow();
+        assertThat(product.getStockQuantity()).isEqualTo(1000 - threads * decrementsPerThread);
+        assertThat(product.getVersion()).isEqualTo((long) threads * decrementsPerThread);
+    }
+}
@@ -1,10 +1,25 @@
 package com.ecommerce.product.service;
 
+import com.ecommerce.product.cache.ProductCache;
+import com.ecommerce.product.dto.PageResponse;
+import com.ecommerce.product.dto.ProductBulkUpdate;
 import com.ecommerce.product.dto.ProductDto;
+import com.ecommerce.product.dto.StockReservationRequest;
+import com.ecommerce.product.dto.StockReservationResponse;
 import com.ecommerce.product.dto.StockUpdateRequest;
+import com.ecommerce.product.exception.InsufficientStockException;
+import com.ecommerce.product.exception.ReservationReleasedException;
 import com.ecommerce.product.exception.ResourceNotFoundException;
 import com.ecommerce.product.model.Product;
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.outbox.Outbox;
+import com.ecommerce.product.outbox.ProductEvents;
 import com.ecommerce.product.repository.ProductRepository;
+import com.ecommerce.product.repository.StockReservationRepository;
+import com.ecommerce.product.search.ProductSearchIndex;
+import com.ecommerce.product.search.ProductSuggester;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,16 +27,28 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
+import java.io.ByteArrayOutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -48,6 +75,30 @@ class ProductServiceTest {
     @Mock  // Create a mock ProductRepository
     private ProductRepository productRepository;
 
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private StockReservationRepository reservationRepository;
+
+    @Mock
+    private Outbox outbox;
+
+    @Mock
+    private OptimisticLockRetry optimisticLockRetry;
+
+    @Spy  // A real ObjectMapper (with java.time support) for the export tests
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Spy  // A real cache (stock included) so caching behaviour is exercised
+    private ProductCache productCache = new ProductCache(100, Duration.ofMinutes(5), true);
+
+    @Spy  // A real (in-memory) search index
+    private ProductSearchIndex searchIndex = new ProductSearchIndex();
+
+    @Spy  // A real typeahead suggester
+    private ProductSuggester suggester = new ProductSuggester(1000);
+
     @InjectMocks  // Inject the mock into ProductService
     private ProductService productService;
 
@@ -87,7 +138,7 @@ class ProductServiceTest {
         @DisplayName("Should return all products")
         void getAllProducts_ReturnsAllProducts() {
             // Arrange: Set up mock behavior
-            when(productRepository.findAll()).thenReturn(Arrays.asList(testProduct));
+            when(productRepository.findAllDtos()).thenReturn(dtos(testProduct));
 
             // Act: Call the method under test
             List<ProductDto> result = productService.getAllProducts();
@@ -95,13 +146,14 @@ class ProductServiceTest {
             // Assert: Verify the results
             assertThat(result).hasSize(1);
             assertThat(result.get(0).getName()).isEqualTo("Test Product");
-            verify(productRepository, times(1)).findAll();
+            verify(productRepository, times(1)).findAllDtos();
+            verify(productRepository, never()).findAll();  // No entities loaded
         }
 
         @Test
         @DisplayName("Should return empty list when no products exist")
         void getAllProducts_WhenNoProducts_ReturnsEmptyList() {
-            when(productRepository.findAll()).thenReturn(Arrays.asList());
+            when(productRepository.findAllDtos()).thenReturn(Arrays.asList());
 
             List<ProductDto> result = productService.getAllProducts();
 
@@ -109,6 +161,69 @@ class ProductServiceTest {
         }
     }
 
+    // ═══════════════════════════════════════════════════════════════════════
+    // PAGINATION TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Paged Products")
+    class PagedProductsTests {
+
+        @Test
+        @DisplayName("Should return one offset page with totals")
+        void getProductsPage_ReturnsPageWithTotals() {
+            when(productRepository.findDtoPage(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(dtos(testProduct), PageRequest.of(1, 1), 3));
+
+            PageResponse<ProductDto> result = productService.getProductsPage(1, 1);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getPage()).isEqualTo(1);
+            assertThat(result.getTotalElements()).isEqualTo(3);
+            assertThat(result.getTotalPages()).isEqualTo(3);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should cap the page size")
+        void getProductsPage_WithHugeSize_CapsPageSize() {
+            when(productRepository.findDtoPage(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Arrays.asList()));
+
+            productService.getProductsPage(0, 1_000_000);
+
+            verify(productRepository).findDtoPage(argThat((Pageable pageable) ->
+                    pageable.getPageSize() == ProductService.MAX_PAGE_SIZE));
+        }
+
+        @Test
+        @DisplayName("Should return next cursor when more products follow")
+        void getProductsAfter_WhenMoreRows_ReturnsNextCursor() {
+            Product second = Product.builder().id(2L).name("Second").price(BigDecimal.ONE).build();
+            when(productRepository.findDtosAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(dtos(testProduct, second));
+
+            PageResponse<ProductDto> result = productService.getProductsAfter(0L, 1);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getNextCursor()).isEqualTo(1L);
+            verify(productRepository).findDtosAfter(eq(0L),
+                    argThat((Pageable pageable) -> pageable.getPageSize() == 2));
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last page")
+        void getProductsAfter_OnLastPage_ReturnsNoCursor() {
+            when(productRepository.findDtosAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(dtos(testProduct));
+
+            PageResponse<ProductDto> result = productService.getProductsAfter(0L, 20);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getNextCursor()).isNull();
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // GET PRODUCT BY ID TESTS
     // ═══════════════════════════════════════════════════════════════════════
@@ -120,7 +235,7 @@ class ProductServiceTest {
         @Test
         @DisplayName("Should return product when found")
         void getProductById_WhenProductExists_ReturnsProduct() {
-            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+            when(productRepository.findDtoById(1L)).thenReturn(Optional.of(dto(testProduct)));
 
             ProductDto result = productService.getProductById(1L);
 
@@ -132,7 +247,7 @@ class ProductServiceTest {
         @Test
         @DisplayName("Should throw exception when product not found")
         void getProductById_WhenProductDoesNotExist_ThrowsException() {
-            when(productRepository.findById(999L)).thenReturn(Optional.empty());
+            when(productRepository.findDtoById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> productService.getProductById(999L))
                     .isInstanceOf(ResourceNotFoundException.class)
@@ -140,6 +255,299 @@ class ProductServiceTest {
         }
     }
 
+    // ═══════════════════════════════════════════════════════════════════════
+    // CACHING TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Product Cache")
+    class ProductCacheTests {
+
+        @Test
+        @DisplayName("Should hit the database only once for repeated reads")
+        void getProductById_CalledTwice_LoadsOnce() {
+            when(productRepository.findDtoById(1L)).thenReturn(Optional.of(dto(testProduct)));
+
+            productService.getProductById(1L);
+            ProductDto second = productService.getProductById(1L);
+
+            assertThat(second.getName()).isEqualTo("Test Product");
+            verify(productRepository, times(1)).findDtoById(1L);
+        }
+
+        @Test
+        @DisplayName("Should reload a product after it was updated")
+        void updateProduct_EvictsCachedProduct() {
+            // The cached read uses the projection, the update loads the entity
+            when(productRepository.findDtoById(1L)).thenAnswer(inv -> Optional.of(dto(testProduct)));
+            when(productRepository.findById(1L)).thenReturn(Optional.of(testProduct));
+            when(productRepository.save(any(Product.class))).thenAnswer(inv -> inv.getArgument(0));
+
+            productService.getProductById(1L);
+            productService.updateProduct(1L, ProductDto.builder()
+                    .name("Renamed").price(new BigDecimal("1.00")).stockQuantity(1).build());
+            ProductDto result = productService.getProductById(1L);
+
+            assertThat(result.getName()).isEqualTo("Renamed");
+        }
+
+        @Test
+        @DisplayName("Should cache category lists until a product changes")
+        void getProductsByCategory_IsCachedUntilDelete() {
+            when(productRepository.findDtosByCategory("Electronics")).thenReturn(dtos(testProduct));
+            when(productRepository.existsById(1L)).thenReturn(true);
+
+            productService.getProductsByCategory("Electronics");
+            productService.getProductsByCategory("Electronics");
+            productService.deleteProduct(1L);
+            productService.getProductsByCategory("Electronics");
+
+            verify(productRepository, times(2)).findDtosByCategory("Electronics");
+        }
+
+        @Test
+        @DisplayName("Should reload category lists after a bulk import")
+        void importProducts_EvictsCategoryLists() {
+            when(productRepository.findDtosByCategory("Electronics")).thenReturn(dtos(testProduct));
+            when(productRepository.saveAllAndFlush(any())).thenReturn(List.of(
+                    Product.builder().id(10L).name("Imported Phone").price(BigDecimal.TEN).category("Electronics").build()));
+
+            productService.getProductsByCategory("Electronics");
+            productService.importProducts(List.of(ProductDto.builder()
+                    .name("Imported Phone").price(BigDecimal.TEN).stockQuantity(1).category("Electronics").build()));
+            productService.getProductsByCategory("Electronics");
+
+            verify(productRepository, times(2)).findDtosByCategory("Electronics");
+        }
+
+        @Test
+        @DisplayName("Should serve live stock when stock is excluded from the cache")
+        void getProductById_WithStockExcluded_UsesLiveStock() {
+            ProductService service = new ProductService(productRepository, objectMapper, entityManager,
+                    new ProductCache(100, Duration.ofMinutes(5), false), searchIndex, suggester,
+                    reservationRepository, outbox, optimisticLockRetry);
+            ProductRepository.StockLevel stockLevel = mock(ProductRepository.StockLevel.class);
+            when(stockLevel.getStockQuantity()).thenReturn(100, 3);
+            when(productRepository.findDtoById(1L)).thenReturn(Optional.of(dto(testProduct)));
+            when(productRepository.findStockLevelById(1L)).thenReturn(Optional.of(stockLevel));
+
+            ProductDto first = service.getProductById(1L);
+            ProductDto second = service.getProductById(1L);
+
+            assertThat(first.getStockQuantity()).isEqualTo(100);
+            assertThat(second.getStockQuantity()).isEqualTo(3);  // Not the cached value
+            verify(productRepository, times(1)).findDtoById(1L);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // GET PRODUCTS BY IDS (BATCH) TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Get Products By IDs")
+    class GetProductsByIdsTests {
+
+        @Test
+        @DisplayName("Should load all products with a single query")
+        void getProductsByIds_ReturnsFoundProducts() {
+            when(productRepository.findDtosByIdIn(Arrays.asList(1L, 2L)))
+                    .thenReturn(dtos(testProduct));
+
+            List<ProductDto> result = productService.getProductsByIds(Arrays.asList(1L, 2L));
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo(1L);
+            verify(productRepository, times(1)).findDtosByIdIn(any());
+            verify(productRepository, never()).findDtoById(any());
+        }
+
+        @Test
+        @DisplayName("Should query each ID only once")
+        void getProductsByIds_WithDuplicates_QueriesDistinctIds() {
+            when(productRepository.findDtosByIdIn(Arrays.asList(1L)))
+                    .thenReturn(dtos(testProduct));
+
+            List<ProductDto> result = productService.getProductsByIds(Arrays.asList(1L, 1L));
+
+            assertThat(result).hasSize(1);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // EXPORT TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Export Products")
+    class ExportProductsTests {
+
+        @Test
+        @DisplayName("Should write one JSON line per product and detach each entity")
+        void exportProducts_WritesNdjsonAndDetaches() throws Exception {
+            Product second = Product.builder().id(2L).name("Second").price(BigDecimal.ONE).build();
+            when(productRepository.streamAllByOrderById()).thenReturn(Stream.of(testProduct, second));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+            productService.exportProducts(out);
+
+            String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readValue(lines[0], ProductDto.class).getName()).isEqualTo("Test Product");
+            assertThat(objectMapper.readValue(lines[1], ProductDto.class).getId()).isEqualTo(2L);
+            verify(entityManager).detach(testProduct);
+            verify(entityManager).detach(second);
+            verify(productRepository, never()).findAll();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // SEARCH TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Search Products")
+    class SearchProductsTests {
+
+        private Product headphones;
+        private Product phoneCase;
+
+        @BeforeEach
+        void indexProducts() {
+            headphones = Product.builder().id(2L).name("Wireless Headphones")
+                    .description("Over-ear, noise cancelling").category("Audio")
+                    .price(new BigDecimal("199.99")).stockQuantity(5).build();
+            phoneCase = Product.builder().id(3L).name("Phone Case")
+                    .description("Fits wireless chargers").category("Accessories")
+                    .price(new BigDecimal("19.99")).stockQuantity(50).build();
+            when(productRepository.streamAllByOrderById())
+                    .thenReturn(Stream.of(testProduct, headphones, phoneCase));
+            productService.rebuildSearchIndex();
+        }
+
+        @Test
+        @DisplayName("Should return matches best first, loaded from the database")
+        void searchProducts_ReturnsRankedProducts() {
+            // An IN query doesn't keep the order - the service must restore it
+            when(productRepository.findDtosByIdIn(List.of(2L, 3L))).thenReturn(dtos(phoneCase, headphones));
+
+            List<ProductDto> results = productService.searchProducts("wireless");
+
+            // Name hit ranks above description hit
+            assertThat(results).extracting(ProductDto::getId).containsExactly(2L, 3L);
+            verify(productRepository, never()).findByNameContainingIgnoreCase(anyString());
+        }
+
+        @Test
+        @DisplayName("Should not touch the database when nothing matches")
+        void searchProducts_WhenNoMatch_ReturnsEmptyList() {
+            List<ProductDto> results = productService.searchProducts("laptop");
+
+            assertThat(results).isEmpty();
+            verify(productRepository, never()).findDtosByIdIn(anyList());
+        }
+
+        @Test
+        @DisplayName("Should page search results and report the total")
+        void searchProductsPage_ReturnsOnePage() {
+            when(productRepository.findDtosByIdIn(List.of(3L))).thenReturn(dtos(phoneCase));
+
+            PageResponse<ProductDto> page = productService.searchProductsPage("wireless", 1, 1);
+
+            assertThat(page.getContent()).extracting(ProductDto::getId).containsExactly(3L);
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            assertThat(page.getTotalPages()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Should return an empty page when page * size overflows an int")
+        void searchProductsPage_WhenPageIsHuge_ReturnsEmptyPage() {
+            PageResponse<ProductDto> page = productService.searchProductsPage("wireless", 107374183, 20);
+
+            assertThat(page.getContent()).isEmpty();
+            assertThat(page.getPage()).isEqualTo(107374183);
+            assertThat(page.getTotalElements()).isEqualTo(2);
+            verify(productRepository, never()).findDtosByIdIn(anyList());
+        }
+
+        @Test
+        @DisplayName("Should find a created product and forget a deleted one")
+        void searchIndex_FollowsCreateAndDelete() {
+            Product speaker = Product.builder().id(4L).name("Bluetooth Speaker")
+                    .price(BigDecimal.TEN).stockQuantity(1).build();
+            when(productRepository.save(any(Product.class))).thenReturn(speaker);
+            when(productRepository.existsById(4L)).thenReturn(true);
+
+            productService.createProduct(ProductDto.builder().name("Bluetooth Speaker")
+                    .price(BigDecimal.TEN).stockQuantity(1).build());
+            assertThat(searchIndex.searchAll("blue")).containsExactly(4L);
+
+            productService.deleteProduct(4L);
+            assertThat(searchIndex.searchAll("blue")).isEmpty();
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // SUGGEST TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Suggest Products")
+    class SuggestProductsTests {
+
+        @BeforeEach
+        void loadSuggestions() {
+            List<ProductRepository.SuggestionSource> sources = List.of(
+                    suggestionSource(1L, "Wireless Mouse", 40L),
+                    suggestionSource(2L, "Wireless Headphones", 250L),
+                    suggestionSource(3L, "Phone Case", 900L));
+            when(productRepository.streamSuggestionSources()).thenReturn(sources.stream());
+            productService.rebuildSuggestions();
+        }
+
+        @Test
+        @DisplayName("Should suggest matching names, most sold first")
+        void suggestProducts_OrdersByUnitsSold() {
+            List<ProductSuggester.Suggestion> suggestions = productService.suggestProducts("wir", 10);
+
+            assertThat(suggestions).extracting(ProductSuggester.Suggestion::id).containsExactly(2L, 1L);
+            verify(productRepository, times(1)).streamSuggestionSources();
+        }
+
+        @Test
+        @DisplayName("Should cap the number of suggestions")
+        void suggestProducts_ClampsLimit() {
+            assertThat(productService.suggestProducts("", 1)).isEmpty();
+            assertThat(productService.suggestProducts("wireless", 0)).hasSize(1);
+            assertThat(productService.suggestProducts("wireless", 1000)).hasSize(2);
+        }
+
+        @Test
+        @DisplayName("Should follow create, rename and delete")
+        void suggestProducts_FollowsWrites() {
+            Product speaker = Product.builder().id(4L).name("Wired Speaker")
+                    .price(BigDecimal.TEN).stockQuantity(1).build();
+            when(productRepository.save(any(Product.class))).thenReturn(speaker);
+            productService.createProduct(ProductDto.builder().name("Wired Speaker")
+                    .price(BigDecimal.TEN).stockQuantity(1).build());
+            assertThat(productService.suggestProducts("wired", 10))
+                    .extracting(ProductSuggester.Suggestion::id).containsExactly(4L);
+
+            when(productRepository.existsById(2L)).thenReturn(true);
+            productService.deleteProduct(2L);
+            assertThat(productService.suggestProducts("wir", 10))
+                    .extracting(ProductSuggester.Suggestion::id).containsExactly(1L, 4L);
+        }
+
+        private ProductRepository.SuggestionSource suggestionSource(Long id, String name, Long soldCount) {
+            ProductRepository.SuggestionSource source = mock(ProductRepository.SuggestionSource.class);
+            when(source.getId()).thenReturn(id);
+            when(source.getName()).thenReturn(name);
+            when(source.getSoldCount()).thenReturn(soldCount);
+            return source;
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // CREATE PRODUCT TESTS
     // ═══════════════════════════════════════════════════════════════════════
@@ -183,6 +591,68 @@ class ProductServiceTest {
         }
     }
 
+    // ═══════════════════════════════════════════════════════════════════════
+    // BULK IMPORT TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Import Products (one bulk chunk)")
+    class ImportProductsTests {
+
+        @Test
+        @DisplayName("Should save the chunk in one call, clear the context and index every product")
+        void importProducts_SavesChunkAndIndexes() {
+            List<Product> saved = List.of(
+                    Product.builder().id(10L).name("Imported Lamp").price(BigDecimal.TEN).category("Home").build(),
+                    Product.builder().id(11L).name("Imported Chair").price(BigDecimal.ONE).category("Home").build());
+            when(productRepository.saveAllAndFlush(any())).thenReturn(saved);
+
+            int created = productService.importProducts(List.of(
+                    ProductDto.builder().name("Imported Lamp").price(BigDecimal.TEN).stockQuantity(1).category("Home").build(),
+                    ProductDto.builder().name("Imported Chair").price(BigDecimal.ONE).stockQuantity(1).category("Home").build()));
+
+            assertThat(created).isEqualTo(2);
+            verify(productRepository, times(1)).saveAllAndFlush(any());
+            verify(entityManager).clear();
+            // No transaction in this test, so the after-commit updates ran right away
+            assertThat(searchIndex.searchAll("imported")).containsExactlyInAnyOrder(10L, 11L);
+            assertThat(suggester.suggest("imp", 10))
+                    .extracting(ProductSuggester.Suggestion::id)
+                    .containsExactlyInAnyOrder(10L, 11L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Apply Bulk Updates (one bulk chunk)")
+    class BulkUpdateTests {
+
+        @Test
+        @DisplayName("Should report each line's outcome and publish stock changes only")
+        void applyBulkUpdates_ReportsOutcomes() {
+            List<ProductBulkUpdate> updates = List.of(
+                    ProductBulkUpdate.builder().id(1L).price(new BigDecimal("9.99")).build(),
+                    ProductBulkUpdate.builder().id(2L).stockDelta(-500).build(),
+                    ProductBulkUpdate.builder().id(3L).stockAbsolute(4).build(),
+                    ProductBulkUpdate.builder().id(4L).stockAbsolute(10).build());
+            when(productRepository.applyBulkUpdates(updates)).thenReturn(new int[]{1, 0, 0, 1});
+            ProductRepository.StockLevel existing = mock(ProductRepository.StockLevel.class);
+            when(existing.getId()).thenReturn(2L);
+            when(productRepository.findStockLevelsByIdIn(List.of(2L, 3L))).thenReturn(List.of(existing));
+
+            List<ProductBulkUpdate.Outcome> outcomes = productService.applyBulkUpdates(updates);
+
+            assertThat(outcomes).containsExactly(
+                    ProductBulkUpdate.Outcome.UPDATED,
+                    ProductBulkUpdate.Outcome.NEGATIVE_STOCK,
+                    ProductBulkUpdate.Outcome.NOT_FOUND,
+                    ProductBulkUpdate.Outcome.UPDATED);
+            verify(outbox, times(1)).append(ProductEvents.AGGREGATE_TYPE, 4L, ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(4L, null, 10, ProductEvents.StockChangeReason.UPDATED, null));
+            verifyNoMoreInteractions(outbox);
+            verify(productRepository, never()).findById(any());  // nothing is loaded
+        }
+    }
+
     // ═══════════════════════════════════════════════════════════════════════
     // UPDATE PRODUCT TESTS
     // ═══════════════════════════════════════════════════════════════════════
@@ -234,6 +704,12 @@ class ProductServiceTest {
     @DisplayName("Update Stock")
     class UpdateStockTests {
 
+        @BeforeEach
+        void runRetriedWorkDirectly() {
+            when(optimisticLockRetry.inTransaction(anyString(), any()))
+                    .thenAnswer(invocation -> invocation.<Supplier<?>>getArgument(1).get());
+        }
+
         @Test
         @DisplayName("Should increase stock successfully")
         void updateStock_WithPositiveChange_IncreasesStock() {
@@ -251,6 +727,8 @@ class ProductServiceTest {
             ProductDto result = productService.updateStock(1L, request);
 
             assertThat(result.getStockQuantity()).isEqualTo(110);
+            verify(outbox).append(ProductEvents.AGGREGATE_TYPE, 1L, ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(1L, 10, 110, ProductEvents.StockChangeReason.UPDATED, null));
         }
 
         @Test
@@ -282,6 +760,157 @@ class ProductServiceTest {
             assertThatThrownBy(() -> productService.updateStock(1L, request))
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessageContaining("Insufficient stock");
+            verifyNoInteractions(outbox);
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // RESERVE STOCK TESTS
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Reserve Stock")
+    class ReserveStockTests {
+
+        private StockReservationRequest request;
+
+        @BeforeEach
+        void setUp() {
+            request = new StockReservationRequest(Arrays.asList(
+                    new StockReservationRequest.ReservationItem(1L, 2),
+                    new StockReservationRequest.ReservationItem(2L, 3)
+            ));
+        }
+
+        @Test
+        @DisplayName("Should reserve all lines with one batch and no entity reads")
+        void reserveStock_WhenAllLinesAvailable_ReturnsReserved() {
+            when(productRepository.decrementStock(request.getItems())).thenReturn(new int[]{1, 1});
+
+            StockReservationResponse result = productService.reserveStock(request);
+
+            assertThat(result.isReserved()).isTrue();
+            assertThat(result.getLines())
+                    .extracting(StockReservationResponse.LineResult::getStatus)
+                    .containsOnly(StockReservationResponse.LineStatus.RESERVED);
+            verify(productRepository, never()).findById(any());
+            verify(productRepository, never()).save(any());
+            verify(outbox).append(ProductEvents.AGGREGATE_TYPE, 2L, ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(2L, -3, null, ProductEvents.StockChangeReason.RESERVED, null));
+        }
+
+        @Test
+        @DisplayName("Should throw with per-line result when a line cannot be served")
+        void reserveStock_WhenLineFails_ThrowsWithLineResults() {
+            when(productRepository.decrementStock(request.getItems())).thenReturn(new int[]{1, 0});
+            when(productRepository.existsById(2L)).thenReturn(true);
+
+            assertThatThrownBy(() -> productService.reserveStock(request))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .satisfies(ex -> {
+                        StockReservationResponse result = ((InsufficientStockException) ex).getResult();
+                        assertThat(result.isReserved()).isFalse();
+                        assertThat(result.getLines().get(1).getStatus())
+                                .isEqualTo(StockReservationResponse.LineStatus.INSUFFICIENT_STOCK);
+                    });
+        }
+
+        @Test
+        @DisplayName("Should report unknown products as NOT_FOUND")
+        void reserveStock_WhenProductMissing_ReportsNotFound() {
+            when(productRepository.decrementStock(request.getItems())).thenReturn(new int[]{0, 1});
+            when(productRepository.existsById(1L)).thenReturn(false);
+
+            assertThatThrownBy(() -> productService.reserveStock(request))
+                    .isInstanceOf(InsufficientStockException.class)
+                    .satisfies(ex -> assertThat(((InsufficientStockException) ex)
+                            .getResult().getLines().get(0).getStatus())
+                            .isEqualTo(StockReservationResponse.LineStatus.NOT_FOUND));
+        }
+    }
+
+    // ═══════════════════════════════════════════════════════════════════════
+    // IDEMPOTENT RESERVATION TESTS (reservationId)
+    // ═══════════════════════════════════════════════════════════════════════
+
+    @Nested
+    @DisplayName("Reserve / Release with a reservation ID")
+    class ReservationIdTests {
+
+        private final StockReservationRequest request = new StockReservationRequest("saga-1", Arrays.asList(
+                new StockReservationRequest.ReservationItem(1L, 2)));
+
+        @Test
+        @DisplayName("Should record the reservation with the stock it took")
+        void reserveStock_WithNewId_RecordsReservation() {
+            when(reservationRepository.findById("saga-1")).thenReturn(Optional.empty());
+            when(productRepository.decrementStock(request.getItems())).thenReturn(new int[]{1});
+
+            productService.reserveStock(request);
+
+            verify(reservationRepository).save(argThat(reservation ->
+                    reservation.getStatus() == StockReservation.Status.RESERVED
+                            && reservation.getLines().equals(List.of(new StockReservation.Line(1L, 2)))));
+        }
+
+        @Test
+        @DisplayName("Should answer a retried reservation without taking stock again")
+        void reserveStock_WithKnownId_DoesNotDecrementAgain() {
+            when(reservationRepository.findById("saga-1")).thenReturn(Optional.of(reservation(
+                    StockReservation.Status.RESERVED)));
+
+            StockReservationResponse result = productService.reserveStock(request);
+
+            assertThat(result.isReserved()).isTrue();
+            verify(productRepository, never()).decrementStock(any());
+        }
+
+        @Test
+        @DisplayName("Should refuse a reservation that was already released")
+        void reserveStock_WithReleasedId_Throws() {
+            when(reservationRepository.findById("saga-1")).thenReturn(Optional.of(reservation(
+                    StockReservation.Status.RELEASED)));
+
+            assertThatThrownBy(() -> productService.reserveStock(request))
+                    .isInstanceOf(ReservationReleasedException.class);
+            verify(productRepository, never()).decrementStock(any());
+        }
+
+        @Test
+        @DisplayName("Should give stock back once, however often release is called")
+        void releaseStock_GivesStockBackOnce() {
+            StockReservation reservation = reservation(StockReservation.Status.RESERVED);
+            when(reservationRepository.findById("saga-1")).thenReturn(Optional.of(reservation));
+
+            productService.releaseStock("saga-1");
+            productService.releaseStock("saga-1");
+
+            verify(productRepository, times(1)).incrementStock(List.of(
+                    new StockReservationRequest.ReservationItem(1L, 2)));
+            assertThat(reservation.getStatus()).isEqualTo(StockReservation.Status.RELEASED);
+            verify(outbox, times(1)).append(ProductEvents.AGGREGATE_TYPE, 1L, ProductEvents.STOCK_CHANGED,
+                    new ProductEvents.StockChanged(1L, 2, null, ProductEvents.StockChangeReason.RELEASED, "saga-1"));
+        }
+
+        @Test
+        @DisplayName("Should remember a release for a reservation it never saw")
+        void releaseStock_WithUnknownId_RecordsRelease() {
+            when(reservationRepository.findById("saga-1")).thenReturn(Optional.empty());
+
+            productService.releaseStock("saga-1");
+
+            verify(reservationRepository).save(argThat(reservation ->
+                    reservation.getStatus() == StockReservation.Status.RELEASED
+                            && reservation.getLines().isEmpty()));
+            verify(productRepository, never()).incrementStock(any());
+        }
+
+        private StockReservation reservation(StockReservation.Status status) {
+            return StockReservation.builder()
+                    .id("saga-1")
+                    .status(status)
+                    .lines(new ArrayList<>(List.of(new StockReservation.Line(1L, 2))))
+                    .build();
         }
     }
 
@@ -313,4 +942,15 @@ class ProductServiceTest {
                     .isInstanceOf(ResourceNotFoundException.class);
         }
     }
+
+    /**
+     * What the DTO projection queries return for a product
+     */
+    private ProductDto dto(Product product) {
+        return productService.mapToDto(product);
+    }
+
+    private List<ProductDto> dtos(Product... products) {
+        return Arrays.stream(products).map(this::dto).collect(Collectors.toList());
+    }
 }
@@ -0,0 +1,81 @@
+package com.ecommerce.product.service;
+
+import com.ecommerce.product.model.StockReservation;
+import com.ecommerce.product.repository.StockReservationRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Released-reservation purge against a real database
+ *
+ * Runs without the usual test transaction (NOT_SUPPORTED): the purge
+ * commits on its own, like the scheduled run.
+ */
+@DataJpaTest(properties = "product.stock-reservation.retention=7d")
+@Import(StockReservationPurge.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class StockReservationPurgeTest {
+
+    @Autowired
+    private StockReservationPurge purge;
+
+    @Autowired
+    private StockReservationRepository repository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        repository.deleteAll();
+    }
+
+    @Test
+    @DisplayName("Should purge only reservations released before the retention period")
+    void purgeReleased_DeletesOldReleasedReservations() {
+        save("old-released", StockReservation.Status.RELEASED, true);
+        save("old-tombstone", StockReservation.Status.RELEASED, false);  // release that came first
+        save("old-reserved", StockReservation.Status.RESERVED, true);
+        save("new-released", StockReservation.Status.RELEASED, true);
+        updatedDaysAgo("old-tombstone", 8);
+        updatedDaysAgo("old-released", 8);
+        updatedDaysAgo("old-reserved", 8);
+
+        assertThat(purge.purgeReleased()).isEqualTo(2);
+        assertThat(repository.findAll()).extracting(StockReservation::getId)
+                .containsExactlyInAnyOrder("old-reserved", "new-released");
+        // The purged reservations' lines went with them
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM stock_reservation_lines", Integer.class)).isEqualTo(2);
+    }
+
+    private void save(String id, StockReservation.Status status, boolean withLine) {
+        List<StockReservation.Line> lines = new ArrayList<>();
+        if (withLine) {
+            lines.add(new StockReservation.Line(1L, 2));
+        }
+        repository.save(StockReservation.builder()
+                .id(id)
+                .status(status)
+                .lines(lines)
+                .build());
+    }
+
+    private void updatedDaysAgo(String id, int days) {
+        jdbcTemplate.update("UPDATE stock_reservations SET updated_at = ? WHERE id = ?",
+                LocalDateTime.now().minusDays(days), id);
+    }
+}
@@ -0,0 +1,33 @@
+package com.ecommerce.user.config;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+/**
+ * GET    /actuator/connectionholds → service methods ranked by longest connection hold
+ * DELETE /actuator/connectionholds → start counting again
+ */
+@Endpoint(id = "connectionholds")
+public class ConnectionHoldEndpoint {
+
+    private static final int TOP = 20;
+
+    private final ConnectionHoldTracker tracker;
+
+    public ConnectionHoldEndpoint(ConnectionHoldTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @ReadOperation
+    public List<ConnectionHoldTracker.HoldSummary> longestHolds() {
+        return tracker.longestHolds(TOP);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tracker.reset();
+    }
+}
@@ -1,5 +1,6 @@
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.dto.PageResponse;
 import com.ecommerce.user.dto.UserDto;
 import com.ecommerce.user.service.UserService;
 import jakarta.validation.Valid;
@@ -15,7 +16,10 @@ import java.util.List;
  * 
  * API Endpoints:
  * - GET    /api/users         - Get all users
+ * - GET    /api/users?page=0&size=20  - Get one page of users (offset paging)
+ * - GET    /api/users?after=0&size=20 - Get users after a cursor (keyset paging)
  * - GET    /api/users/{id}    - Get user by ID
+ * - GET    /api/users/batch?ids=1,2,3 - Get several users at once
  * - POST   /api/users         - Create new user
  * - PUT    /api/users/{id}    - Update user
  * - DELETE /api/users/{id}    - Delete user
@@ -32,11 +36,31 @@ public class UserController {
         return ResponseEntity.ok(userService.getAllUsers());
     }
 
+    // Only matches when ?page= / ?after= is present; plain GET still returns the full list
+    @GetMapping(params = "page")
+    public ResponseEntity<PageResponse<UserDto>> getUsersPage(
+            @RequestParam("page") int page,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsersPage(page, size));
+    }
+
+    @GetMapping(params = "after")
+    public ResponseEntity<PageResponse<UserDto>> getUsersAfter(
+            @RequestParam("after") Long after,
+            @RequestParam(value = "size", defaultValue = "20") int size) {
+        return ResponseEntity.ok(userService.getUsersAfter(after, size));
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<UserDto> getUserById(@PathVariable("id") Long id) {
         return ResponseEntity.ok(userService.getUserById(id));
     }
 
+    @GetMapping("/batch")
+    public ResponseEntity<List<UserDto>> getUsersByIds(@RequestParam("ids") List<Long> ids) {
+        return ResponseEntity.ok(userService.getUsersByIds(ids));
+    }
+
     @GetMapping("/email/{email}")
     public ResponseEntity<UserDto> getUserByEmail(@PathVariable("email") String email) {
         return ResponseEntity.ok(userService.getUserByEmail(email));
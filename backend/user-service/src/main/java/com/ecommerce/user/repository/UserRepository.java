@@ -1,9 +1,16 @@
 package com.ecommerce.user.repository;
 
+import com.ecommerce.user.dto.UserDto;
 import com.ecommerce.user.model.User;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 /**
@@ -17,4 +24,31 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     // Check if email already exists
     boolean existsByEmail(String email);
+
+    /*
+     * Read-only variants that select straight into UserDto (JPQL constructor
+     * expression): no User entities in the persistence context, nothing to
+     * dirty-check, no entity-to-DTO copy
+     */
+    String USER_DTO = "new com.ecommerce.user.dto.UserDto(u.id, u.email, u.firstName, u.lastName, "
+            + "u.phone, u.address, u.city, u.postalCode, u.country, u.createdAt, u.updatedAt)";
+
+    @Query("SELECT " + USER_DTO + " FROM User u")
+    List<UserDto> findAllDtos();
+
+    @Query(value = "SELECT " + USER_DTO + " FROM User u", countQuery = "SELECT COUNT(u) FROM User u")
+    Page<UserDto> findDtoPage(Pageable pageable);
+
+    // Keyset paging: WHERE id > ? ORDER BY id LIMIT ? (no COUNT query)
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id > :after ORDER BY u.id")
+    List<UserDto> findDtosAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id = :id")
+    Optional<UserDto> findDtoById(@Param("id") Long id);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.id IN :ids")
+    List<UserDto> findDtosByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT " + USER_DTO + " FROM User u WHERE u.email = :email")
+    Optional<UserDto> findDtoByEmail(@Param("email") String email);
 }
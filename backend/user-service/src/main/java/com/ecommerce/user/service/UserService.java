@@ -1,10 +1,14 @@
 package com.ecommerce.user.service;
 
+import com.ecommerce.user.dto.PageResponse;
 import com.ecommerce.user.dto.UserDto;
 import com.ecommerce.user.exception.ResourceNotFoundException;
 import com.ecommerce.user.model.User;
 import com.ecommerce.user.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -18,25 +22,77 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class UserService {
 
+    // Upper bound for ?size= on paged endpoints
+    static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
 
+    // Reads select straight into UserDto (see UserRepository) inside read-only
+    // transactions: no flush, no dirty checking, read-only JDBC connection
+
+    @Transactional(readOnly = true)
     public List<UserDto> getAllUsers() {
-        return userRepository.findAll()
-                .stream()
-                .map(this::mapToDto)
-                .collect(Collectors.toList());
+        return userRepository.findAllDtos();
+    }
+
+    /**
+     * One page of users (offset paging), sorted by ID
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserDto> getUsersPage(int page, int size) {
+        Page<UserDto> result = userRepository.findDtoPage(
+                PageRequest.of(Math.max(page, 0), clampPageSize(size), Sort.by("id")));
+        return PageResponse.<UserDto>builder()
+                .content(result.getContent())
+                .page(result.getNumber())
+                .size(result.getSize())
+                .totalElements(result.getTotalElements())
+                .totalPages(result.getTotalPages())
+                .build();
+    }
+
+    /**
+     * Users after a cursor (keyset paging). Fetches size + 1 rows to know
+     * whether another page exists without a COUNT query.
+     */
+    @Transactional(readOnly = true)
+    public PageResponse<UserDto> getUsersAfter(Long after, int size) {
+        int pageSize = clampPageSize(size);
+        List<UserDto> users = userRepository.findDtosAfter(
+                after != null ? after : 0L, PageRequest.of(0, pageSize + 1));
+
+        boolean hasMore = users.size() > pageSize;
+        List<UserDto> pageContent = hasMore ? users.subList(0, pageSize) : users;
+
+        return PageResponse.<UserDto>builder()
+                .content(pageContent)
+                .size(pageSize)
+                .nextCursor(hasMore ? pageContent.get(pageSize - 1).getId() : null)
+                .build();
     }
 
+    @Transactional(readOnly = true)
     public UserDto getUserById(Long id) {
-        User user = userRepository.findById(id)
+        return userRepository.findDtoById(id)
                 .orElseThrow(() -> ResourceNotFoundException.forUser(id));
-        return mapToDto(user);
     }
 
+    /**
+     * Get several users in one query (used by Order Service to avoid
+     * one HTTP call per order). Unknown IDs are left out of the result.
+     */
+    @Transactional(readOnly = true)
+    public List<UserDto> getUsersByIds(List<Long> ids) {
+        List<Long> distinctIds = ids.stream()
+                .distinct()
+                .collect(Collectors.toList());
+        return userRepository.findDtosByIdIn(distinctIds);
+    }
+
+    @Transactional(readOnly = true)
     public UserDto getUserByEmail(String email) {
-        User user = userRepository.findByEmail(email)
+        return userRepository.findDtoByEmail(email)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with email: " + email));
-        return mapToDto(user);
     }
 
     @Transactional
@@ -83,8 +139,12 @@ public class UserService {
         userRepository.deleteById(id);
     }
 
-    // Mapping methods
-    private UserDto mapToDto(User user) {
+    private int clampPageSize(int size) {
+        return Math.min(Math.max(size, 1), MAX_PAGE_SIZE);
+    }
+
+    // Mapping methods (mapToDto is package-private for the benchmarks module)
+    UserDto mapToDto(User user) {
         return UserDto.builder()
                 .id(user.getId())
                 .email(user.getEmail())
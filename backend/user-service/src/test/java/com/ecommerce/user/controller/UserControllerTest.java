@@ -1,5 +1,6 @@
 package com.ecommerce.user.controller;
 
+import com.ecommerce.user.dto.PageResponse;
 import com.ecommerce.user.dto.UserDto;
 import com.ecommerce.user.exception.ResourceNotFoundException;
 import com.ecommerce.user.service.UserService;
@@ -67,6 +68,37 @@ class UserControllerTest {
                     .andExpect(jsonPath("$", hasSize(1)))
                     .andExpect(jsonPath("$[0].email", is("john@example.com")));
         }
+
+        @Test
+        @DisplayName("Returns 200 and an offset page when page is given")
+        void getUsersPage_ReturnsPage() throws Exception {
+            PageResponse<UserDto> page = PageResponse.<UserDto>builder()
+                    .content(Arrays.asList(testUserDto))
+                    .page(0).size(20).totalElements(1L).totalPages(1)
+                    .build();
+            when(userService.getUsersPage(0, 20)).thenReturn(page);
+
+            mockMvc.perform(get("/api/users").param("page", "0"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.content[0].email", is("john@example.com")))
+                    .andExpect(jsonPath("$.totalPages", is(1)));
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /api/users/batch")
+    class GetUsersByIdsTests {
+
+        @Test
+        @DisplayName("Returns 200 and the requested users")
+        void getUsersByIds_ReturnsUsers() throws Exception {
+            when(userService.getUsersByIds(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(testUserDto));
+
+            mockMvc.perform(get("/api/users/batch").param("ids", "1,2"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].id", is(1)));
+        }
     }
 
     @Nested
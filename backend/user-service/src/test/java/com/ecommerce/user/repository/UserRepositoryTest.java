@@ -0,0 +1,76 @@
+package com.ecommerce.user.repository;
+
+import com.ecommerce.user.dto.UserDto;
+import com.ecommerce.user.model.User;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * User Repository Tests - the DTO projection queries, against H2
+ */
+@DataJpaTest
+class UserRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private User john;
+    private User jane;
+
+    @BeforeEach
+    void setUp() {
+        john = entityManager.persist(User.builder()
+                .email("john@example.com").firstName("John").lastName("Doe")
+                .city("New York").country("USA").build());
+        jane = entityManager.persist(User.builder()
+                .email("jane@example.com").firstName("Jane").lastName("Roe").build());
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Projections fill every field of UserDto")
+    void findDtoByEmail_FillsAllFields() {
+        UserDto dto = userRepository.findDtoByEmail("john@example.com").orElseThrow();
+
+        assertThat(dto.getId()).isEqualTo(john.getId());
+        assertThat(dto.getFirstName()).isEqualTo("John");
+        assertThat(dto.getLastName()).isEqualTo("Doe");
+        assertThat(dto.getCity()).isEqualTo("New York");
+        assertThat(dto.getCountry()).isEqualTo("USA");
+        assertThat(dto.getCreatedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Paged, keyset and IN projections return DTOs without loading entities")
+    void dtoProjections_DoNotLoadEntities() {
+        Page<UserDto> page = userRepository.findDtoPage(PageRequest.of(1, 1, Sort.by("id")));
+        List<UserDto> afterJohn = userRepository.findDtosAfter(john.getId(), PageRequest.of(0, 10));
+        List<UserDto> byIds = userRepository.findDtosByIdIn(List.of(john.getId(), jane.getId(), -1L));
+
+        assertThat(page.getContent()).extracting(UserDto::getEmail).containsExactly("jane@example.com");
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(afterJohn).extracting(UserDto::getId).containsExactly(jane.getId());
+        assertThat(byIds).hasSize(2);
+        assertThat(userRepository.findAllDtos()).hasSize(2);
+        assertThat(userRepository.findDtoById(-1L)).isEmpty();
+        // Nothing for Hibernate to track or dirty-check
+        assertThat(entityManager.getEntityManager().unwrap(Session.class)
+                .getStatistics().getEntityCount()).isZero();
+    }
+}
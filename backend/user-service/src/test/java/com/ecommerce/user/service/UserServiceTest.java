@@ -1,5 +1,6 @@
 package com.ecommerce.user.service;
 
+import com.ecommerce.user.dto.PageResponse;
 import com.ecommerce.user.dto.UserDto;
 import com.ecommerce.user.exception.ResourceNotFoundException;
 import com.ecommerce.user.model.User;
@@ -12,6 +13,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 
 import java.util.Arrays;
 import java.util.List;
@@ -20,6 +24,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -70,7 +75,7 @@ class UserServiceTest {
         @Test
         @DisplayName("Should return all users")
         void getAllUsers_ReturnsAllUsers() {
-            when(userRepository.findAll()).thenReturn(Arrays.asList(testUser));
+            when(userRepository.findAllDtos()).thenReturn(Arrays.asList(dto(testUser)));
 
             List<UserDto> result = userService.getAllUsers();
 
@@ -79,6 +84,53 @@ class UserServiceTest {
         }
     }
 
+    @Nested
+    @DisplayName("Paged Users")
+    class PagedUsersTests {
+
+        @Test
+        @DisplayName("Should return one offset page with totals")
+        void getUsersPage_ReturnsPageWithTotals() {
+            when(userRepository.findDtoPage(any(Pageable.class)))
+                    .thenReturn(new PageImpl<>(Arrays.asList(dto(testUser)), PageRequest.of(0, 1), 5));
+
+            PageResponse<UserDto> result = userService.getUsersPage(0, 1);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getTotalElements()).isEqualTo(5);
+            assertThat(result.getNextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last keyset page")
+        void getUsersAfter_OnLastPage_ReturnsNoCursor() {
+            when(userRepository.findDtosAfter(eq(0L), any(Pageable.class)))
+                    .thenReturn(Arrays.asList(dto(testUser)));
+
+            PageResponse<UserDto> result = userService.getUsersAfter(0L, 20);
+
+            assertThat(result.getContent()).hasSize(1);
+            assertThat(result.getNextCursor()).isNull();
+        }
+    }
+
+    @Nested
+    @DisplayName("Get Users By IDs")
+    class GetUsersByIdsTests {
+
+        @Test
+        @DisplayName("Should load distinct users with a single query")
+        void getUsersByIds_ReturnsFoundUsers() {
+            when(userRepository.findDtosByIdIn(Arrays.asList(1L, 2L))).thenReturn(Arrays.asList(dto(testUser)));
+
+            List<UserDto> result = userService.getUsersByIds(Arrays.asList(1L, 2L, 1L));
+
+            assertThat(result).hasSize(1);
+            assertThat(result.get(0).getId()).isEqualTo(1L);
+            verify(userRepository, never()).findDtoById(any());
+        }
+    }
+
     @Nested
     @DisplayName("Get User By ID")
     class GetUserByIdTests {
@@ -86,7 +138,7 @@ class UserServiceTest {
         @Test
         @DisplayName("Should return user when found")
         void getUserById_WhenExists_ReturnsUser() {
-            when(userRepository.findById(1L)).thenReturn(Optional.of(testUser));
+            when(userRepository.findDtoById(1L)).thenReturn(Optional.of(dto(testUser)));
 
             UserDto result = userService.getUserById(1L);
 
@@ -98,7 +150,7 @@ class UserServiceTest {
         @Test
         @DisplayName("Should throw exception when user not found")
         void getUserById_WhenNotFound_ThrowsException() {
-            when(userRepository.findById(999L)).thenReturn(Optional.empty());
+            when(userRepository.findDtoById(999L)).thenReturn(Optional.empty());
 
             assertThatThrownBy(() -> userService.getUserById(999L))
                     .isInstanceOf(ResourceNotFoundException.class);
@@ -202,4 +254,9 @@ class UserServiceTest {
                     .isInstanceOf(ResourceNotFoundException.class);
         }
     }
+
+    // What the DTO projection queries return for a user
+    private UserDto dto(User user) {
+        return userService.mapToDto(user);
+    }
 }